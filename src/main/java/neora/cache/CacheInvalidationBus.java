@@ -0,0 +1,78 @@
+package neora.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheInvalidationBus implements MessageListener {
+  public static final String CHANNEL = "cache-invalidation";
+  private static final String SEPARATOR = "|";
+
+  private final StringRedisTemplate redisTemplate;
+  private final String nodeId = UUID.randomUUID().toString();
+  private final Map<String, List<Consumer<String>>> subscribers = new ConcurrentHashMap<>();
+
+  public void subscribe(String topic, Consumer<String> listener) {
+    subscribers.computeIfAbsent(topic, t -> new CopyOnWriteArrayList<>()).add(listener);
+  }
+
+  // Inside a transaction the event is held back until commit, so no node can reload the
+  // previous state between the invalidation and the write becoming visible.
+  public void publish(String topic, String key) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              dispatchAndBroadcast(topic, key);
+            }
+          });
+    } else {
+      dispatchAndBroadcast(topic, key);
+    }
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+    if (parts.length != 3 || nodeId.equals(parts[0])) {
+      return;
+    }
+    dispatch(parts[1], parts[2]);
+  }
+
+  private void dispatchAndBroadcast(String topic, String key) {
+    dispatch(topic, key);
+    try {
+      redisTemplate.convertAndSend(CHANNEL, nodeId + SEPARATOR + topic + SEPARATOR + key);
+    } catch (RuntimeException e) {
+      log.warn("Could not broadcast cache invalidation {}:{}: {}", topic, key, e.getMessage());
+    }
+  }
+
+  private void dispatch(String topic, String key) {
+    log.debug("Invalidating cache entry {}:{}", topic, key);
+    for (Consumer<String> listener : subscribers.getOrDefault(topic, List.of())) {
+      try {
+        listener.accept(key);
+      } catch (RuntimeException e) {
+        log.warn("Cache invalidation listener failed for {}:{}", topic, key, e);
+      }
+    }
+  }
+}
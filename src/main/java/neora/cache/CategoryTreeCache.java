@@ -0,0 +1,78 @@
+package neora.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import neora.dto.CategoryResponse;
+import neora.dto.RawJson;
+import neora.mapper.CategoryMapper;
+import neora.repository.CategoryRepository;
+import org.springframework.stereotype.Component;
+
+// Immutable snapshot of the category tree and its JSON encoding. Categories change rarely, so the
+// snapshot is only dropped when one is created, on this node or any other, and rebuilt on demand.
+// Every invalidation bumps a generation, and a build only publishes its snapshot if no invalidation
+// came in meanwhile, so a tree read before a write is never cached after it.
+@Component
+@Slf4j
+public class CategoryTreeCache {
+  public static final String TOPIC = "category-tree";
+  private static final String KEY = "all";
+
+  private final CategoryRepository categoryRepository;
+  private final CategoryMapper categoryMapper;
+  private final ObjectMapper objectMapper;
+  private final CacheInvalidationBus invalidationBus;
+  private final AtomicReference<Entry> entry = new AtomicReference<>(new Entry(0, null));
+
+  public record Snapshot(List<CategoryResponse> categories, RawJson json) {}
+
+  private record Entry(long generation, Snapshot snapshot) {}
+
+  public CategoryTreeCache(
+      CategoryRepository categoryRepository,
+      CategoryMapper categoryMapper,
+      ObjectMapper objectMapper,
+      CacheInvalidationBus invalidationBus) {
+    this.categoryRepository = categoryRepository;
+    this.categoryMapper = categoryMapper;
+    this.objectMapper = objectMapper;
+    this.invalidationBus = invalidationBus;
+    invalidationBus.subscribe(
+        TOPIC, key -> entry.updateAndGet(current -> new Entry(current.generation() + 1, null)));
+  }
+
+  public Snapshot get() {
+    Entry current = entry.get();
+    if (current.snapshot() != null) {
+      return current.snapshot();
+    }
+    synchronized (this) {
+      current = entry.get();
+      if (current.snapshot() != null) {
+        return current.snapshot();
+      }
+      Snapshot built = build();
+      entry.compareAndSet(current, new Entry(current.generation(), built));
+      return built;
+    }
+  }
+
+  public void invalidate() {
+    invalidationBus.publish(TOPIC, KEY);
+  }
+
+  private Snapshot build() {
+    List<CategoryResponse> categories =
+        categoryMapper.toCategoryTree(categoryRepository.findAllEdges());
+    try {
+      RawJson json = new RawJson(objectMapper.writeValueAsString(categories));
+      log.info("Built category tree snapshot with {} root categories", categories.size());
+      return new Snapshot(categories, json);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Could not encode the category tree", e);
+    }
+  }
+}
@@ -0,0 +1,117 @@
+package neora.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import neora.dto.ProductResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class ProductDetailCache {
+  public static final String CACHE_NAME = "product-details";
+  public static final String PRODUCT_TOPIC = "product";
+  public static final String STOCK_TOPIC = "product-stock";
+  public static final String VENDOR_RATING_TOPIC = "vendor-rating";
+
+  private final CacheInvalidationBus invalidationBus;
+  private final org.springframework.cache.Cache remote;
+  private final Cache<UUID, ProductResponse> details;
+  private final Cache<String, UUID> slugs;
+  private final Cache<UUID, Integer> stocks;
+  private final Cache<UUID, Double> vendorRatings;
+
+  public ProductDetailCache(
+      CacheInvalidationBus invalidationBus,
+      RedisCacheManager cacheManager,
+      @Value("${cache.product.local-ttl:PT10M}") Duration localTtl,
+      @Value("${cache.product.local-size:10000}") long localSize,
+      @Value("${cache.product.stock-ttl:PT5S}") Duration stockTtl) {
+    this.invalidationBus = invalidationBus;
+    this.remote = cacheManager.getCache(CACHE_NAME);
+    this.details = Caffeine.newBuilder().expireAfterWrite(localTtl).maximumSize(localSize).build();
+    this.slugs = Caffeine.newBuilder().expireAfterWrite(localTtl).maximumSize(localSize).build();
+    this.stocks = Caffeine.newBuilder().expireAfterWrite(stockTtl).maximumSize(localSize).build();
+    this.vendorRatings =
+        Caffeine.newBuilder().expireAfterWrite(localTtl).maximumSize(localSize).build();
+
+    invalidationBus.subscribe(PRODUCT_TOPIC, key -> evictLocally(UUID.fromString(key)));
+    invalidationBus.subscribe(STOCK_TOPIC, key -> stocks.invalidate(UUID.fromString(key)));
+    invalidationBus.subscribe(
+        VENDOR_RATING_TOPIC, key -> vendorRatings.invalidate(UUID.fromString(key)));
+  }
+
+  public ProductResponse get(UUID productId, Supplier<ProductResponse> loader) {
+    return details.get(
+        productId,
+        id -> {
+          ProductResponse cached = getRemote(id);
+          if (cached != null) {
+            return cached;
+          }
+          ProductResponse loaded = loader.get();
+          putRemote(id, loaded);
+          return loaded;
+        });
+  }
+
+  public UUID resolveSlug(String slug, Supplier<UUID> loader) {
+    return slugs.get(slug, s -> loader.get());
+  }
+
+  public Integer getStock(UUID productId, Supplier<Integer> loader) {
+    return stocks.get(productId, id -> loader.get());
+  }
+
+  public Double getVendorRating(UUID vendorId, Supplier<Double> loader) {
+    return vendorRatings.get(vendorId, id -> loader.get());
+  }
+
+  public void evict(UUID productId) {
+    invalidationBus.publish(PRODUCT_TOPIC, productId.toString());
+  }
+
+  public void evictStock(UUID productId) {
+    invalidationBus.publish(STOCK_TOPIC, productId.toString());
+  }
+
+  public void evictVendorRating(UUID vendorId) {
+    invalidationBus.publish(VENDOR_RATING_TOPIC, vendorId.toString());
+  }
+
+  // Slugs are dropped too so that a product renamed under a new slug stops answering to the old
+  // one.
+  private void evictLocally(UUID productId) {
+    details.invalidate(productId);
+    slugs.asMap().values().removeIf(productId::equals);
+    stocks.invalidate(productId);
+    try {
+      remote.evict(productId);
+    } catch (RuntimeException e) {
+      log.warn("Could not evict product {} from Redis: {}", productId, e.getMessage());
+    }
+  }
+
+  // Redis is a shared optimisation only, so an unreachable server degrades to a database read.
+  private ProductResponse getRemote(UUID productId) {
+    try {
+      return remote.get(productId, ProductResponse.class);
+    } catch (RuntimeException e) {
+      log.warn("Could not read product {} from Redis: {}", productId, e.getMessage());
+      return null;
+    }
+  }
+
+  private void putRemote(UUID productId, ProductResponse product) {
+    try {
+      remote.put(productId, product);
+    } catch (RuntimeException e) {
+      log.warn("Could not write product {} to Redis: {}", productId, e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,283 @@
+package neora.cache;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import neora.dto.ProductSuggestion;
+import neora.entity.CategoryClosure;
+import neora.repository.CategoryClosureRepository;
+import neora.repository.ProductRepository;
+import org.springframework.stereotype.Component;
+
+// In-process inverted index answering typeahead queries without a database round trip. It is
+// rebuilt by ProductSuggestionIndexJob and kept current between rebuilds through the
+// invalidation bus, so every node picks up products created on any other node. Category filters
+// cover subcategories through an in-memory copy of the category closure table.
+@Component
+@Slf4j
+public class ProductSuggestionIndex {
+  public static final String TOPIC = "product-suggestion";
+  private static final int MIN_FUZZY_LENGTH = 4;
+  private static final int FUZZY_KEY_LENGTH = 3;
+  private static final int EXACT_SCORE = 3;
+  private static final int PREFIX_SCORE = 2;
+  private static final int FUZZY_SCORE = 1;
+
+  private final ProductRepository productRepository;
+  private final CategoryClosureRepository categoryClosureRepository;
+  private final CacheInvalidationBus invalidationBus;
+  private final Object swapLock = new Object();
+  private volatile Terms terms = new Terms();
+  private volatile Map<UUID, Set<UUID>> subtrees = Map.of();
+  private Set<UUID> reloadedDuringRebuild;
+
+  public ProductSuggestionIndex(
+      ProductRepository productRepository,
+      CategoryClosureRepository categoryClosureRepository,
+      CacheInvalidationBus invalidationBus) {
+    this.productRepository = productRepository;
+    this.categoryClosureRepository = categoryClosureRepository;
+    this.invalidationBus = invalidationBus;
+    invalidationBus.subscribe(TOPIC, key -> reload(UUID.fromString(key)));
+    invalidationBus.subscribe(CategoryTreeCache.TOPIC, key -> loadSubtrees());
+  }
+
+  // Products reloaded while the rebuild reads the catalog may be missing from what it read, so
+  // they are reloaded again into the new terms once these have been swapped in.
+  public void rebuild() {
+    synchronized (swapLock) {
+      reloadedDuringRebuild = new HashSet<>();
+    }
+    Terms rebuilt = new Terms();
+    List<ProductSuggestion> products;
+    try {
+      products = productRepository.findAllSuggestions();
+      products.forEach(rebuilt::put);
+      loadSubtrees();
+    } catch (RuntimeException e) {
+      synchronized (swapLock) {
+        reloadedDuringRebuild = null;
+      }
+      throw e;
+    }
+    Set<UUID> replay;
+    synchronized (swapLock) {
+      terms = rebuilt;
+      replay = reloadedDuringRebuild;
+      reloadedDuringRebuild = null;
+    }
+    replay.forEach(this::reload);
+    log.info("Indexed {} products for suggestions", products.size());
+  }
+
+  public void refresh(UUID productId) {
+    invalidationBus.publish(TOPIC, productId.toString());
+  }
+
+  public List<ProductSuggestion> suggest(String query, UUID categoryId, int limit) {
+    Set<String> tokens = tokenize(query);
+    if (tokens.isEmpty()) {
+      return List.of();
+    }
+    Terms current = terms;
+    Map<UUID, Integer> scores = null;
+    for (String token : tokens) {
+      Map<UUID, Integer> matches = current.match(token);
+      if (scores == null) {
+        scores = matches;
+      } else {
+        scores.keySet().retainAll(matches.keySet());
+        scores.replaceAll((id, score) -> score + matches.get(id));
+      }
+      if (scores.isEmpty()) {
+        return List.of();
+      }
+    }
+
+    Map<UUID, Integer> ranked = scores;
+    Set<UUID> categories =
+        categoryId == null ? null : subtrees.getOrDefault(categoryId, Set.of(categoryId));
+    return ranked.keySet().stream()
+        .map(current.products::get)
+        .filter(product -> product != null)
+        .filter(product -> categories == null || categories.contains(product.categoryId()))
+        .sorted(
+            Comparator.comparing((ProductSuggestion product) -> -ranked.get(product.id()))
+                .thenComparing(product -> product.name().length())
+                .thenComparing(ProductSuggestion::name))
+        .limit(limit)
+        .toList();
+  }
+
+  private void reload(UUID productId) {
+    Terms current;
+    synchronized (swapLock) {
+      if (reloadedDuringRebuild != null) {
+        reloadedDuringRebuild.add(productId);
+      }
+      current = terms;
+    }
+    productRepository
+        .findSuggestionById(productId)
+        .ifPresentOrElse(current::put, () -> current.remove(productId));
+  }
+
+  private void loadSubtrees() {
+    subtrees =
+        categoryClosureRepository.findAll().stream()
+            .collect(
+                Collectors.groupingBy(
+                    CategoryClosure::getAncestorId,
+                    Collectors.mapping(
+                        CategoryClosure::getDescendantId, Collectors.toUnmodifiableSet())));
+  }
+
+  static Set<String> tokenize(String text) {
+    if (text == null) {
+      return new LinkedHashSet<>();
+    }
+    String folded =
+        Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "").toLowerCase();
+    return Arrays.stream(folded.split("[^\\p{L}\\p{N}]+"))
+        .filter(token -> !token.isEmpty())
+        .collect(Collectors.toCollection(LinkedHashSet::new));
+  }
+
+  // Edit distance between the token and the closest prefix of the term, so that a typo in what
+  // has been typed so far still matches longer words. Swapped adjacent letters count as one edit.
+  static boolean withinOneEdit(String token, String term) {
+    int columns = Math.min(term.length(), token.length() + 1);
+    int[][] distances = new int[token.length() + 1][columns + 1];
+    for (int j = 0; j <= columns; j++) {
+      distances[0][j] = j;
+    }
+    for (int i = 1; i <= token.length(); i++) {
+      distances[i][0] = i;
+      for (int j = 1; j <= columns; j++) {
+        int substitution = token.charAt(i - 1) == term.charAt(j - 1) ? 0 : 1;
+        distances[i][j] =
+            Math.min(
+                Math.min(distances[i - 1][j] + 1, distances[i][j - 1] + 1),
+                distances[i - 1][j - 1] + substitution);
+        if (i > 1
+            && j > 1
+            && token.charAt(i - 1) == term.charAt(j - 2)
+            && token.charAt(i - 2) == term.charAt(j - 1)) {
+          distances[i][j] = Math.min(distances[i][j], distances[i - 2][j - 2] + 1);
+        }
+      }
+    }
+    for (int distance : distances[token.length()]) {
+      if (distance <= 1) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Keys a word by its first letter followed by its next few letters with at most one of them
+  // deleted. Any term within one edit of a token, with the same first letter, shares a key with
+  // it, so typos are looked up among a few small buckets instead of every term.
+  static Set<String> fuzzyKeys(String word) {
+    char first = word.charAt(0);
+    String rest = word.substring(1);
+    Set<String> keys = new HashSet<>();
+    for (int length : new int[] {FUZZY_KEY_LENGTH, FUZZY_KEY_LENGTH + 1}) {
+      String head = rest.substring(0, Math.min(length, rest.length()));
+      keys.add(first + head);
+      for (int i = 0; i < head.length(); i++) {
+        keys.add(first + head.substring(0, i) + head.substring(i + 1));
+      }
+    }
+    return keys;
+  }
+
+  // Writers are serialized so that a term and its fuzzy keys are added and dropped together;
+  // readers go through the concurrent maps without locking.
+  private static final class Terms {
+    private final Map<UUID, ProductSuggestion> products = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<String, Set<UUID>> postings =
+        new ConcurrentSkipListMap<>();
+    private final Map<String, Set<String>> fuzzyIndex = new ConcurrentHashMap<>();
+
+    synchronized void put(ProductSuggestion product) {
+      remove(product.id());
+      products.put(product.id(), product);
+      for (String term : termsOf(product)) {
+        Set<UUID> ids = postings.get(term);
+        if (ids == null) {
+          ids = ConcurrentHashMap.newKeySet();
+          postings.put(term, ids);
+          for (String key : fuzzyKeys(term)) {
+            fuzzyIndex.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(term);
+          }
+        }
+        ids.add(product.id());
+      }
+    }
+
+    synchronized void remove(UUID productId) {
+      ProductSuggestion previous = products.remove(productId);
+      if (previous == null) {
+        return;
+      }
+      for (String term : termsOf(previous)) {
+        Set<UUID> ids = postings.get(term);
+        if (ids == null || !ids.remove(productId) || !ids.isEmpty()) {
+          continue;
+        }
+        postings.remove(term);
+        for (String key : fuzzyKeys(term)) {
+          Set<String> keyed = fuzzyIndex.get(key);
+          keyed.remove(term);
+          if (keyed.isEmpty()) {
+            fuzzyIndex.remove(key);
+          }
+        }
+      }
+    }
+
+    Map<UUID, Integer> match(String token) {
+      Map<UUID, Integer> scores = new HashMap<>();
+      postings
+          .subMap(token, true, token + Character.MAX_VALUE, true)
+          .forEach(
+              (term, ids) -> {
+                int score = term.equals(token) ? EXACT_SCORE : PREFIX_SCORE;
+                ids.forEach(id -> scores.merge(id, score, Math::max));
+              });
+      if (scores.isEmpty() && token.length() >= MIN_FUZZY_LENGTH) {
+        Set<String> candidates = new HashSet<>();
+        for (String key : fuzzyKeys(token)) {
+          candidates.addAll(fuzzyIndex.getOrDefault(key, Set.of()));
+        }
+        for (String term : candidates) {
+          Set<UUID> ids = postings.get(term);
+          if (ids != null && withinOneEdit(token, term)) {
+            ids.forEach(id -> scores.merge(id, FUZZY_SCORE, Math::max));
+          }
+        }
+      }
+      return scores;
+    }
+
+    private static Set<String> termsOf(ProductSuggestion product) {
+      Set<String> terms = tokenize(product.name());
+      terms.addAll(tokenize(product.slug()));
+      terms.addAll(tokenize(product.categoryName()));
+      return terms;
+    }
+  }
+}
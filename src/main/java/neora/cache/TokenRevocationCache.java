@@ -0,0 +1,46 @@
+package neora.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.UUID;
+import neora.repository.TokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Whether an access token is still usable, keyed by its jti. Revocations are pushed to every node
+// through the invalidation bus, so the database is only consulted the first time a token is seen
+// and after the entry expires, which bounds staleness if a broadcast is missed.
+@Component
+public class TokenRevocationCache {
+  public static final String TOPIC = "token-revoked";
+
+  private final TokenRepository tokenRepository;
+  private final CacheInvalidationBus invalidationBus;
+  private final Cache<UUID, Boolean> active;
+
+  public TokenRevocationCache(
+      TokenRepository tokenRepository,
+      CacheInvalidationBus invalidationBus,
+      @Value("${cache.token.status-ttl:PT1M}") Duration statusTtl,
+      @Value("${cache.token.status-size:100000}") long statusSize) {
+    this.tokenRepository = tokenRepository;
+    this.invalidationBus = invalidationBus;
+    this.active = Caffeine.newBuilder().expireAfterWrite(statusTtl).maximumSize(statusSize).build();
+    invalidationBus.subscribe(TOPIC, key -> active.put(UUID.fromString(key), false));
+  }
+
+  public boolean isActive(UUID tokenId) {
+    return active.get(
+        tokenId,
+        id ->
+            tokenRepository
+                .findByTokenId(id)
+                .map(token -> !token.isExpired() && !token.isRevoked())
+                .orElse(false));
+  }
+
+  public void revoke(UUID tokenId) {
+    invalidationBus.publish(TOPIC, tokenId.toString());
+  }
+}
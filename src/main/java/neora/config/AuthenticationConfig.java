@@ -1,7 +1,10 @@
 package neora.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
 import lombok.RequiredArgsConstructor;
 import neora.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -19,6 +22,18 @@ public class AuthenticationConfig {
 
   private final UserRepository userRepository;
 
+  @Value("${password.hashing.bcrypt-strength:10}")
+  private int bcryptStrength;
+
+  @Value("${password.hashing.pool-size:4}")
+  private int hashingPoolSize;
+
+  @Value("${password.hashing.queue-capacity:64}")
+  private int hashingQueueCapacity;
+
+  @Value("${password.hashing.wait-timeout:PT5S}")
+  private Duration hashingWaitTimeout;
+
   @Bean
   public UserDetailsService userDetailsService() {
     return username ->
@@ -28,10 +43,10 @@ public class AuthenticationConfig {
   }
 
   @Bean
-  public AuthenticationProvider authenticationProvider() {
+  public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
     DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
     authProvider.setUserDetailsService(userDetailsService());
-    authProvider.setPasswordEncoder(new BCryptPasswordEncoder());
+    authProvider.setPasswordEncoder(passwordEncoder);
     return authProvider;
   }
 
@@ -42,7 +57,12 @@ public class AuthenticationConfig {
   }
 
   @Bean
-  public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+  public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+    return new BoundedPasswordEncoder(
+        new BCryptPasswordEncoder(bcryptStrength),
+        hashingPoolSize,
+        hashingQueueCapacity,
+        hashingWaitTimeout,
+        meterRegistry);
   }
 }
@@ -0,0 +1,108 @@
+package neora.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import neora.exception.PasswordHashingUnavailableException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+// Runs password hashing on its own bounded pool so that a burst of logins cannot occupy every
+// request thread. Callers still wait for their result, but once the pool and its queue are full
+// further requests are turned away at once instead of piling up behind the hashing work.
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+  public static final String EXECUTOR_NAME = "password-hashing";
+  public static final String TIMEOUTS_METRIC = "password.hashing.timeouts";
+  private static final String UNAVAILABLE = "Too many authentication requests, please retry later";
+
+  private final PasswordEncoder delegate;
+  private final ThreadPoolExecutor executor;
+  private final Duration waitTimeout;
+  private final Counter timeouts;
+
+  public BoundedPasswordEncoder(
+      PasswordEncoder delegate,
+      int poolSize,
+      int queueCapacity,
+      Duration waitTimeout,
+      MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.waitTimeout = waitTimeout;
+    BlockingQueue<Runnable> queue =
+        queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>();
+    this.executor =
+        new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            0,
+            TimeUnit.MILLISECONDS,
+            queue,
+            new CustomizableThreadFactory(EXECUTOR_NAME + "-"),
+            new ThreadPoolExecutor.AbortPolicy());
+    ExecutorServiceMetrics.monitor(meterRegistry, executor, EXECUTOR_NAME);
+    this.timeouts =
+        Counter.builder(TIMEOUTS_METRIC)
+            .description("Password hashes the caller stopped waiting for")
+            .register(meterRegistry);
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return run(() -> delegate.encode(rawPassword));
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return run(() -> delegate.matches(rawPassword, encodedPassword));
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    return delegate.upgradeEncoding(encodedPassword);
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdown();
+  }
+
+  private <T> T run(Callable<T> task) {
+    Future<T> future;
+    try {
+      future = executor.submit(task);
+    } catch (RejectedExecutionException e) {
+      throw new PasswordHashingUnavailableException(UNAVAILABLE);
+    }
+    try {
+      return future.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      // Cancelling drops a task still in the queue, but BCrypt never checks for interrupts, so a
+      // hash already running keeps its worker busy until it completes even though the caller has
+      // given up. The counter shows how often capacity is spent on such abandoned work.
+      timeouts.increment();
+      future.cancel(true);
+      throw new PasswordHashingUnavailableException(UNAVAILABLE);
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new PasswordHashingUnavailableException(UNAVAILABLE);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+}
@@ -4,16 +4,144 @@ import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConfigurationBuilder;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.RemoteBucketBuilder;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import io.github.bucket4j.local.LocalBucketBuilder;
+import io.github.bucket4j.redis.lettuce.cas.LettuceBasedProxyManager;
+import io.lettuce.core.RedisClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import neora.model.RateLimitKey;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.stereotype.Component;
 
+// Rate limit buckets kept in Redis so that a limit holds across every replica behind the load
+// balancer. Each node consumes from its bucket proxy locally and only synchronises with Redis once
+// a few tokens or a short delay have accumulated. While Redis cannot be reached, buckets fall back
+// to this node's memory until the next retry.
 @Component
+@Slf4j
 public class BucketCache {
+  private static final String KEY_PREFIX = "rate-limit:";
+  // Share of a bucket's capacity a node may consume before syncing, so tight limits such as the
+  // authentication one still sync on every request.
+  private static final long UNSYNCED_CAPACITY_DIVISOR = 20;
 
-  private final Cache<String, Bucket> cache =
+  private final Supplier<ProxyManager<byte[]>> proxyManagerFactory;
+  private final long maxUnsyncedTokens;
+  private final Duration maxUnsyncedDelay;
+  private final Duration retryInterval;
+  private final Cache<RateLimitKey, Bucket> local =
       Caffeine.newBuilder().expireAfterAccess(1, TimeUnit.HOURS).maximumSize(100_000).build();
+  private final Cache<RateLimitKey, Bucket> remote =
+      Caffeine.newBuilder().expireAfterAccess(1, TimeUnit.HOURS).maximumSize(100_000).build();
+  private volatile ProxyManager<byte[]> proxyManager;
+  private volatile long remoteRetryAt;
+
+  @Autowired
+  public BucketCache(
+      RedisConnectionFactory redisConnectionFactory,
+      @Value("${rate-limit.sync.max-unsynced-tokens:20}") long maxUnsyncedTokens,
+      @Value("${rate-limit.sync.max-unsynced-delay:PT1S}") Duration maxUnsyncedDelay,
+      @Value("${rate-limit.redis.retry-interval:PT30S}") Duration retryInterval) {
+    this(() -> connect(redisConnectionFactory), maxUnsyncedTokens, maxUnsyncedDelay, retryInterval);
+  }
+
+  public BucketCache(
+      Supplier<ProxyManager<byte[]>> proxyManagerFactory,
+      long maxUnsyncedTokens,
+      Duration maxUnsyncedDelay,
+      Duration retryInterval) {
+    this.proxyManagerFactory = proxyManagerFactory;
+    this.maxUnsyncedTokens = maxUnsyncedTokens;
+    this.maxUnsyncedDelay = maxUnsyncedDelay;
+    this.retryInterval = retryInterval;
+  }
+
+  public ConsumptionProbe tryConsume(RateLimitKey key, long tokens) {
+    ProxyManager<byte[]> manager = remoteProxyManager();
+    if (manager != null) {
+      try {
+        return remote.get(key, k -> remoteBucket(manager, k)).tryConsumeAndReturnRemaining(tokens);
+      } catch (RuntimeException e) {
+        remoteFailed(e);
+      }
+    }
+    return local.get(key, k -> localBucket(k)).tryConsumeAndReturnRemaining(tokens);
+  }
+
+  private ProxyManager<byte[]> remoteProxyManager() {
+    if (System.currentTimeMillis() < remoteRetryAt) {
+      return null;
+    }
+    if (proxyManager == null) {
+      synchronized (this) {
+        if (proxyManager == null) {
+          try {
+            proxyManager = proxyManagerFactory.get();
+          } catch (RuntimeException e) {
+            remoteFailed(e);
+            return null;
+          }
+        }
+      }
+    }
+    return proxyManager;
+  }
+
+  private Bucket localBucket(RateLimitKey key) {
+    LocalBucketBuilder builder = Bucket.builder();
+    key.policy().bandwidths().forEach(builder::addLimit);
+    return builder.build();
+  }
+
+  private Bucket remoteBucket(ProxyManager<byte[]> manager, RateLimitKey key) {
+    long unsyncedTokens = maxUnsyncedTokens;
+    for (Bandwidth bandwidth : key.policy().bandwidths()) {
+      unsyncedTokens =
+          Math.min(unsyncedTokens, bandwidth.getCapacity() / UNSYNCED_CAPACITY_DIVISOR);
+    }
+    RemoteBucketBuilder<byte[]> builder = manager.builder();
+    if (unsyncedTokens > 0) {
+      builder =
+          builder.withOptimization(
+              Optimizations.delaying(new DelayParameters(unsyncedTokens, maxUnsyncedDelay)));
+    }
+    return builder.build(
+        (KEY_PREFIX + key.bucketName()).getBytes(StandardCharsets.UTF_8),
+        () -> {
+          ConfigurationBuilder configuration = BucketConfiguration.builder();
+          key.policy().bandwidths().forEach(configuration::addLimit);
+          return configuration.build();
+        });
+  }
+
+  private void remoteFailed(RuntimeException e) {
+    remoteRetryAt = System.currentTimeMillis() + retryInterval.toMillis();
+    log.warn("Rate limiting falls back to local buckets for {}: {}", retryInterval, e.getMessage());
+  }
 
-  public Bucket get(String key, Bandwidth bandwidth) {
-    return cache.get(key, k -> Bucket.builder().addLimit(bandwidth).build());
+  private static ProxyManager<byte[]> connect(RedisConnectionFactory redisConnectionFactory) {
+    if (!(redisConnectionFactory instanceof LettuceConnectionFactory lettuce)
+        || !(lettuce.getNativeClient() instanceof RedisClient client)) {
+      throw new IllegalStateException("Distributed rate limiting needs a standalone Redis client");
+    }
+    return LettuceBasedProxyManager.builderFor(client)
+        .withExpirationStrategy(
+            ExpirationAfterWriteStrategy.basedOnTimeForRefillingBucketUpToMax(
+                Duration.ofMinutes(1)))
+        .build();
   }
 }
@@ -0,0 +1,54 @@
+package neora.config;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+// Stops calling a remote dependency once it has failed several times in a row, so that requests
+// fail fast instead of each waiting for a timeout. After the open period a single trial call is
+// let through: its success closes the breaker again, its failure keeps it open for another period.
+public class CircuitBreaker {
+  private final int failureThreshold;
+  private final long openMillis;
+  private final LongSupplier clock;
+  private int consecutiveFailures;
+  private long openUntil;
+  private boolean trialInFlight;
+
+  public CircuitBreaker(int failureThreshold, Duration openDuration) {
+    this(failureThreshold, openDuration, System::currentTimeMillis);
+  }
+
+  public CircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier clock) {
+    this.failureThreshold = failureThreshold;
+    this.openMillis = openDuration.toMillis();
+    this.clock = clock;
+  }
+
+  public synchronized boolean tryAcquire() {
+    if (consecutiveFailures < failureThreshold) {
+      return true;
+    }
+    if (trialInFlight || clock.getAsLong() < openUntil) {
+      return false;
+    }
+    trialInFlight = true;
+    return true;
+  }
+
+  public synchronized void onSuccess() {
+    consecutiveFailures = 0;
+    trialInFlight = false;
+  }
+
+  public synchronized void onFailure() {
+    trialInFlight = false;
+    consecutiveFailures++;
+    if (consecutiveFailures >= failureThreshold) {
+      openUntil = clock.getAsLong() + openMillis;
+    }
+  }
+
+  public synchronized boolean isOpen() {
+    return consecutiveFailures >= failureThreshold;
+  }
+}
@@ -1,5 +1,6 @@
 package neora.config;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -7,7 +8,10 @@ import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import neora.cache.TokenRevocationCache;
+import neora.entity.Token;
 import neora.repository.TokenRepository;
 import neora.service.JwtService;
 import org.springframework.lang.NonNull;
@@ -26,6 +30,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
   private final JwtService jwtService;
   private final UserDetailsService userDetailsService;
   private final TokenRepository tokenRepository;
+  private final TokenRevocationCache tokenRevocationCache;
 
   @Override
   protected void doFilterInternal(
@@ -50,23 +55,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
       return;
     }
 
-    final String userEmail;
+    final Claims claims;
     try {
-      userEmail = jwtService.extractUsername(jwt);
-    } catch (JwtException e) {
+      claims = jwtService.parseClaims(jwt);
+    } catch (JwtException | IllegalArgumentException e) {
       filterChain.doFilter(request, response);
       return;
     }
 
-    if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-      UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-      var isTokenValid =
-          tokenRepository
-              .findByJwtToken(jwt)
-              .map(t -> !t.isExpired() && !t.isRevoked())
-              .orElse(false);
+    if (claims.getSubject() != null
+        && SecurityContextHolder.getContext().getAuthentication() == null) {
+      UserDetails userDetails =
+          jwtService.hasPrincipalClaims(claims)
+              ? authenticateFromClaims(claims)
+              : authenticateFromDatabase(jwt, claims.getSubject());
 
-      if (jwtService.isTokenValid(jwt, userDetails) && isTokenValid) {
+      if (userDetails != null) {
         UsernamePasswordAuthenticationToken authToken =
             new UsernamePasswordAuthenticationToken(
                 userDetails, null, userDetails.getAuthorities());
@@ -76,4 +80,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     }
     filterChain.doFilter(request, response);
   }
+
+  // The signature and expiry have been checked by the parser, so only revocation remains, which is
+  // answered from memory for tokens seen recently.
+  private UserDetails authenticateFromClaims(Claims claims) {
+    if (!tokenRevocationCache.isActive(UUID.fromString(claims.getId()))) {
+      return null;
+    }
+    return jwtService.toPrincipal(claims);
+  }
+
+  // Tokens issued before the principal claims were added still go through the database.
+  private UserDetails authenticateFromDatabase(String jwt, String userEmail) {
+    UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+    var isTokenValid =
+        tokenRepository
+            .findByTokenHash(Token.hash(jwt))
+            .map(t -> !t.isExpired() && !t.isRevoked())
+            .orElse(false);
+    return isTokenValid ? userDetails : null;
+  }
 }
@@ -0,0 +1,105 @@
+package neora.config;
+
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.StripeException;
+import com.stripe.net.HttpClient;
+import com.stripe.net.HttpContent;
+import com.stripe.net.HttpHeaders;
+import com.stripe.net.StripeRequest;
+import com.stripe.net.StripeResponse;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+
+// Sends Stripe requests over a bounded pool of kept-alive connections instead of the SDK's
+// HttpURLConnection default, so that connections are reused across checkouts and a slow Stripe
+// cannot open an unbounded number of sockets. Retries stay with the SDK, which adds idempotency
+// keys to them.
+public class PooledStripeHttpClient extends HttpClient implements AutoCloseable {
+  private final CloseableHttpClient client;
+  private final int connectionRequestTimeout;
+
+  public PooledStripeHttpClient(
+      int maxConnections, Duration connectionRequestTimeout, Duration idleTimeout) {
+    PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+    connectionManager.setMaxTotal(maxConnections);
+    connectionManager.setDefaultMaxPerRoute(maxConnections);
+    this.client =
+        HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .disableAutomaticRetries()
+            .disableRedirectHandling()
+            .evictIdleConnections(idleTimeout.toMillis(), TimeUnit.MILLISECONDS)
+            .evictExpiredConnections()
+            .build();
+    this.connectionRequestTimeout = (int) connectionRequestTimeout.toMillis();
+  }
+
+  @Override
+  public StripeResponse request(StripeRequest request) throws StripeException {
+    RequestBuilder builder;
+    try {
+      builder = RequestBuilder.create(request.method().name()).setUri(request.url().toURI());
+    } catch (URISyntaxException e) {
+      throw new ApiConnectionException("Invalid Stripe URL: " + request.url(), e);
+    }
+    builder.setConfig(
+        RequestConfig.custom()
+            .setConnectTimeout(request.options().getConnectTimeout())
+            .setSocketTimeout(request.options().getReadTimeout())
+            .setConnectionRequestTimeout(connectionRequestTimeout)
+            .build());
+    request
+        .headers()
+        .map()
+        .forEach((name, values) -> builder.addHeader(name, String.join(",", values)));
+    builder.setHeader("User-Agent", buildUserAgentString(request));
+    builder.setHeader("X-Stripe-Client-User-Agent", buildXStripeClientUserAgentString());
+    HttpContent content = request.content();
+    if (content != null) {
+      builder.setEntity(
+          new ByteArrayEntity(
+              content.byteArrayContent(), ContentType.parse(content.contentType())));
+    }
+
+    try (CloseableHttpResponse response = client.execute(builder.build())) {
+      HttpEntity entity = response.getEntity();
+      String body = entity != null ? EntityUtils.toString(entity, StandardCharsets.UTF_8) : "";
+      return new StripeResponse(
+          response.getStatusLine().getStatusCode(), headersOf(response.getAllHeaders()), body);
+    } catch (IOException e) {
+      throw new ApiConnectionException(
+          "IOException during API request to Stripe: " + e.getMessage(), e);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    client.close();
+  }
+
+  private static HttpHeaders headersOf(Header[] headers) {
+    Map<String, List<String>> values = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    for (Header header : headers) {
+      values.computeIfAbsent(header.getName(), name -> new ArrayList<>()).add(header.getValue());
+    }
+    return HttpHeaders.of(values);
+  }
+}
@@ -1,7 +1,11 @@
 package neora.config;
 
 import jakarta.servlet.http.HttpServletRequest;
-import java.util.Optional;
+import java.util.Set;
+import neora.entity.User;
+import neora.model.RateLimitKey;
+import neora.model.RateLimitRule;
+import neora.model.Role;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -9,20 +13,26 @@ import org.springframework.stereotype.Component;
 @Component
 public class RateLimitKeyResolver {
 
-  public String resolve(HttpServletRequest request) {
+  public RateLimitKey resolve(HttpServletRequest request, RateLimitRule rule) {
     Authentication auth = SecurityContextHolder.getContext().getAuthentication();
 
     if (auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getPrincipal())) {
-      return "USER:" + auth.getName();
+      Set<Role> roles = auth.getPrincipal() instanceof User user ? user.getRoles() : Set.of();
+      return new RateLimitKey(rule.policyFor(roles), true, auth.getName());
     }
 
-    return "IP:" + resolveClientIp(request);
+    return new RateLimitKey(rule.policy(), false, resolveClientIp(request));
   }
 
   private String resolveClientIp(HttpServletRequest request) {
-    return Optional.ofNullable(request.getHeader("X-Forwarded-For"))
-        .map(v -> v.split(",")[0].trim())
-        .filter(v -> !v.isBlank())
-        .orElse(request.getRemoteAddr());
+    String forwarded = request.getHeader("X-Forwarded-For");
+    if (forwarded != null) {
+      int end = forwarded.indexOf(',');
+      String first = (end < 0 ? forwarded : forwarded.substring(0, end)).strip();
+      if (!first.isEmpty()) {
+        return first;
+      }
+    }
+    return request.getRemoteAddr();
   }
 }
@@ -2,28 +2,216 @@ package neora.config;
 
 import io.github.bucket4j.Bandwidth;
 import jakarta.servlet.http.HttpServletRequest;
-import java.time.Duration;
-import org.springframework.http.HttpMethod;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import lombok.extern.slf4j.Slf4j;
+import neora.model.RateLimitPolicy;
+import neora.model.RateLimitRule;
+import neora.model.Role;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
 import org.springframework.stereotype.Component;
 
+// Rules are compiled into a character trie over their path prefixes, so resolving a request walks
+// its path once and allocates nothing. The longest matching prefix wins; at the same prefix a rule
+// naming the method and query parameter wins over one naming fewer. Rules can be replaced at
+// runtime from rate-limit.reload.location, which RateLimitPolicyReloadJob polls for changes.
 @Component
+@Slf4j
 public class RateLimitPolicyResolver {
+  private static final String PREFIX = "rate-limit";
 
-  public Bandwidth resolve(HttpServletRequest request) {
+  private final Resource location;
+  private volatile Compiled compiled;
+  private long lastModified;
+
+  @Autowired
+  public RateLimitPolicyResolver(
+      RateLimitProperties properties,
+      ResourceLoader resourceLoader,
+      @Value("${rate-limit.reload.location:}") String location) {
+    this.compiled = compile(properties);
+    this.location = location.isBlank() ? null : resourceLoader.getResource(location);
+    reloadIfChanged();
+  }
+
+  public RateLimitPolicyResolver(RateLimitProperties properties) {
+    this.compiled = compile(properties);
+    this.location = null;
+  }
+
+  public RateLimitRule resolve(HttpServletRequest request) {
     String path = request.getRequestURI();
-    String method = request.getMethod();
+    Compiled current = compiled;
+    RateLimitRule resolved = current.fallback();
+    Node node = current.root();
+    for (int i = 0; i < path.length() && node != null; i++) {
+      node = node.child(path.charAt(i));
+      if (node != null) {
+        RateLimitRule rule = node.ruleFor(request);
+        if (rule != null) {
+          resolved = rule;
+        }
+      }
+    }
+    return resolved;
+  }
+
+  public void reload(RateLimitProperties properties) {
+    compiled = compile(properties);
+  }
 
-    if (path.startsWith("/api/v1/auth")) {
-      return Bandwidth.builder().capacity(10).refillIntervally(10, Duration.ofMinutes(1)).build();
+  // Keeps the current rules when the file cannot be read or describes invalid rules, so a bad
+  // edit never leaves the API without limits.
+  public synchronized void reloadIfChanged() {
+    if (location == null || !location.exists()) {
+      return;
     }
+    try {
+      long modified = location.lastModified();
+      if (modified == lastModified) {
+        return;
+      }
+      lastModified = modified;
+      Properties loaded = PropertiesLoaderUtils.loadProperties(location);
+      reload(
+          new Binder(new MapConfigurationPropertySource(loaded))
+              .bindOrCreate(PREFIX, RateLimitProperties.class));
+      log.info("Reloaded rate limit policies from {}", location);
+    } catch (IOException | RuntimeException e) {
+      log.error("Keeping current rate limit policies, {} is invalid: {}", location, e.getMessage());
+    }
+  }
 
-    if (path.startsWith("/api/v1/products") && HttpMethod.GET.matches(method)) {
-      return Bandwidth.builder()
-          .capacity(1000)
-          .refillIntervally(1000, Duration.ofMinutes(1))
-          .build();
+  private static Compiled compile(RateLimitProperties properties) {
+    Map<String, RateLimitRule> policies = new HashMap<>();
+    properties.policies().forEach((name, policy) -> policies.put(name, compile(name, policy)));
+    RateLimitRule fallback = policies.get(properties.defaultPolicy());
+    if (fallback == null) {
+      throw new IllegalStateException(
+          "Default rate limit policy '" + properties.defaultPolicy() + "' is not defined");
     }
 
-    return Bandwidth.builder().capacity(100).refillIntervally(100, Duration.ofMinutes(1)).build();
+    Node root = new Node();
+    for (RateLimitProperties.Rule rule : properties.rules()) {
+      RateLimitRule policy = policies.get(rule.policy());
+      if (policy == null || rule.path() == null || rule.path().isEmpty()) {
+        throw new IllegalStateException("Rate limit rule needs a path and a known policy: " + rule);
+      }
+      Node node = root;
+      for (int i = 0; i < rule.path().length(); i++) {
+        node = node.addChild(rule.path().charAt(i));
+      }
+      node.add(
+          new Candidate(
+              rule.method() == null || rule.method().isEmpty() ? null : rule.method().toUpperCase(),
+              rule.param() == null || rule.param().isEmpty() ? null : rule.param(),
+              new RateLimitRule(policy.policy(), policy.rolePolicies(), Math.max(1, rule.cost()))));
+    }
+    return new Compiled(root, fallback);
+  }
+
+  private static RateLimitRule compile(String name, RateLimitProperties.Policy policy) {
+    Map<Role, RateLimitPolicy> rolePolicies = new EnumMap<>(Role.class);
+    policy
+        .roles()
+        .forEach((role, limits) -> rolePolicies.put(role, compile(name + ":" + role, limits)));
+    return new RateLimitRule(compile(name, policy.limits()), rolePolicies, 1);
+  }
+
+  private static RateLimitPolicy compile(String id, List<RateLimitProperties.Limit> limits) {
+    if (limits.isEmpty()) {
+      throw new IllegalStateException("Rate limit policy '" + id + "' has no limits");
+    }
+    List<Bandwidth> bandwidths = new ArrayList<>();
+    for (RateLimitProperties.Limit limit : limits) {
+      bandwidths.add(
+          Bandwidth.builder()
+              .capacity(limit.capacity())
+              .refillIntervally(limit.capacity(), limit.period())
+              .build());
+    }
+    return new RateLimitPolicy(id, bandwidths);
+  }
+
+  private record Compiled(Node root, RateLimitRule fallback) {}
+
+  private record Candidate(String method, String param, RateLimitRule rule) {
+    private static final Comparator<Candidate> MOST_SPECIFIC_FIRST =
+        Comparator.comparingInt(Candidate::specificity).reversed();
+
+    int specificity() {
+      return (method == null ? 0 : 2) + (param == null ? 0 : 1);
+    }
+
+    boolean matches(HttpServletRequest request) {
+      return (method == null || method.equals(request.getMethod()))
+          && (param == null || request.getParameter(param) != null);
+    }
+  }
+
+  private static final class Node {
+    private char[] labels = new char[0];
+    private Node[] children = new Node[0];
+    private Candidate[] candidates = new Candidate[0];
+
+    Node child(char label) {
+      int index = Arrays.binarySearch(labels, label);
+      return index < 0 ? null : children[index];
+    }
+
+    Node addChild(char label) {
+      int index = Arrays.binarySearch(labels, label);
+      if (index >= 0) {
+        return children[index];
+      }
+      int insertAt = -index - 1;
+      char[] grownLabels = new char[labels.length + 1];
+      Node[] grownChildren = new Node[children.length + 1];
+      System.arraycopy(labels, 0, grownLabels, 0, insertAt);
+      System.arraycopy(children, 0, grownChildren, 0, insertAt);
+      System.arraycopy(labels, insertAt, grownLabels, insertAt + 1, labels.length - insertAt);
+      System.arraycopy(children, insertAt, grownChildren, insertAt + 1, children.length - insertAt);
+      Node child = new Node();
+      grownLabels[insertAt] = label;
+      grownChildren[insertAt] = child;
+      labels = grownLabels;
+      children = grownChildren;
+      return child;
+    }
+
+    void add(Candidate candidate) {
+      for (Candidate existing : candidates) {
+        if (Objects.equals(existing.method(), candidate.method())
+            && Objects.equals(existing.param(), candidate.param())) {
+          throw new IllegalStateException("Rate limit rules overlap: " + candidate);
+        }
+      }
+      candidates = Arrays.copyOf(candidates, candidates.length + 1);
+      candidates[candidates.length - 1] = candidate;
+      Arrays.sort(candidates, Candidate.MOST_SPECIFIC_FIRST);
+    }
+
+    RateLimitRule ruleFor(HttpServletRequest request) {
+      for (Candidate candidate : candidates) {
+        if (candidate.matches(request)) {
+          return candidate.rule();
+        }
+      }
+      return null;
+    }
   }
 }
@@ -0,0 +1,33 @@
+package neora.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import neora.model.Role;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("rate-limit")
+public record RateLimitProperties(
+    String defaultPolicy, Map<String, Policy> policies, List<Rule> rules) {
+
+  public RateLimitProperties {
+    policies = policies == null ? Map.of() : Map.copyOf(policies);
+    rules = rules == null ? List.of() : List.copyOf(rules);
+  }
+
+  // Every limit of a policy must have tokens left for a request to pass. Roles listed under roles
+  // replace the limits for authenticated users holding them.
+  public record Policy(List<Limit> limits, Map<Role, List<Limit>> roles) {
+
+    public Policy {
+      limits = limits == null ? List.of() : List.copyOf(limits);
+      roles = roles == null ? Map.of() : Map.copyOf(roles);
+    }
+  }
+
+  public record Limit(long capacity, Duration period) {}
+
+  // A rule applies to every path starting with its path and, when set, only to requests with that
+  // method or carrying that query parameter. Each matching request takes cost tokens.
+  public record Rule(String path, String method, String param, String policy, long cost) {}
+}
@@ -1,19 +1,28 @@
 package neora.config;
 
 import java.time.Duration;
+import neora.cache.CacheInvalidationBus;
+import neora.cache.ProductDetailCache;
+import neora.dto.ProductResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 
 @Configuration
 public class RedisConfig {
 
   @Bean
-  public RedisCacheManager cacheManager(RedisConnectionFactory redisConnectionFactory) {
+  public RedisCacheManager cacheManager(
+      RedisConnectionFactory redisConnectionFactory,
+      @Value("${cache.product.ttl:PT1H}") Duration productTtl) {
     RedisCacheConfiguration redisCacheConfiguration =
         RedisCacheConfiguration.defaultCacheConfig()
             .entryTtl(Duration.ofMinutes(10))
@@ -22,8 +31,32 @@ public class RedisConfig {
                 RedisSerializationContext.SerializationPair.fromSerializer(
                     new GenericJackson2JsonRedisSerializer()));
 
+    RedisCacheConfiguration productCacheConfiguration =
+        redisCacheConfiguration
+            .entryTtl(productTtl)
+            .serializeValuesWith(
+                RedisSerializationContext.SerializationPair.fromSerializer(
+                    new Jackson2JsonRedisSerializer<>(ProductResponse.class)));
+
     return RedisCacheManager.builder(redisConnectionFactory)
         .cacheDefaults(redisCacheConfiguration)
+        .withCacheConfiguration(ProductDetailCache.CACHE_NAME, productCacheConfiguration)
         .build();
   }
+
+  @Bean
+  public RedisMessageListenerContainer redisMessageListenerContainer(
+      RedisConnectionFactory redisConnectionFactory, CacheInvalidationBus invalidationBus) {
+    // Started by CacheInvalidationSubscriptionJob so that an unreachable Redis does not block boot.
+    RedisMessageListenerContainer container =
+        new RedisMessageListenerContainer() {
+          @Override
+          public boolean isAutoStartup() {
+            return false;
+          }
+        };
+    container.setConnectionFactory(redisConnectionFactory);
+    container.addMessageListener(invalidationBus, new ChannelTopic(CacheInvalidationBus.CHANNEL));
+    return container;
+  }
 }
@@ -0,0 +1,45 @@
+package neora.config;
+
+import java.time.Duration;
+import java.time.Instant;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Retry schedule of the queues drained in the background, the email outbox and the Stripe webhook
+// events. Failed items are retried with an exponential backoff from the initial delay, capped at
+// the maximum, and dead-lettered once their last attempt has failed.
+@RequiredArgsConstructor
+@Slf4j
+public class RetryPolicy {
+  private static final int MAX_ERROR_LENGTH = 1000;
+
+  private final int maxAttempts;
+  private final Duration initialBackoff;
+  private final Duration maxBackoff;
+
+  @FunctionalInterface
+  public interface FailureRecorder {
+    void record(boolean deadLetter, Instant nextAttemptAt, String error);
+  }
+
+  // Attempts are counted when an item is claimed, so they include the one that just failed.
+  public void onFailure(String item, int attempts, Exception failure, FailureRecorder recorder) {
+    String error = String.valueOf(failure.getMessage());
+    if (error.length() > MAX_ERROR_LENGTH) {
+      error = error.substring(0, MAX_ERROR_LENGTH);
+    }
+    if (attempts >= maxAttempts) {
+      log.error("Giving up on {} after {} attempts", item, attempts, failure);
+      recorder.record(true, Instant.now(), error);
+      return;
+    }
+    Duration backoff = backoffAfter(attempts);
+    log.warn("{} failed on attempt {}, retrying in {}: {}", item, attempts, backoff, error);
+    recorder.record(false, Instant.now().plus(backoff), error);
+  }
+
+  public Duration backoffAfter(int attempts) {
+    Duration backoff = initialBackoff.multipliedBy(1L << Math.min(Math.max(attempts - 1, 0), 30));
+    return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+  }
+}
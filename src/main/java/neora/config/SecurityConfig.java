@@ -6,6 +6,7 @@ import java.util.List;
 import lombok.RequiredArgsConstructor;
 import neora.model.Role;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -62,6 +63,8 @@ public class SecurityConfig {
                     .authenticated()
                     .requestMatchers("/api/v1/vendors")
                     .hasRole(Role.ADMIN.name())
+                    .requestMatchers("/actuator/**")
+                    .hasRole(Role.ADMIN.name())
                     .requestMatchers(HttpMethod.POST, "/api/v1/categories")
                     .hasRole(Role.ADMIN.name())
                     .requestMatchers(HttpMethod.GET, "/api/v1/categories")
@@ -75,8 +78,9 @@ public class SecurityConfig {
         .sessionManagement(
             session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
         .authenticationProvider(authenticationProvider)
-        .addFilterBefore(rateLimitingFilter, UsernamePasswordAuthenticationFilter.class)
         .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+        // Runs once the JWT has been read so that authenticated users get their role's quota.
+        .addFilterAfter(rateLimitingFilter, JwtAuthenticationFilter.class)
         .logout(
             logout ->
                 logout
@@ -89,6 +93,25 @@ public class SecurityConfig {
     return http.build();
   }
 
+  // Both filters are components only to be injected here; registered as servlet filters too they
+  // would run outside the security chain, before the request is authenticated.
+  @Bean
+  public FilterRegistrationBean<RateLimitingFilter> rateLimitingFilterRegistration(
+      RateLimitingFilter filter) {
+    FilterRegistrationBean<RateLimitingFilter> registration = new FilterRegistrationBean<>(filter);
+    registration.setEnabled(false);
+    return registration;
+  }
+
+  @Bean
+  public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthFilterRegistration(
+      JwtAuthenticationFilter filter) {
+    FilterRegistrationBean<JwtAuthenticationFilter> registration =
+        new FilterRegistrationBean<>(filter);
+    registration.setEnabled(false);
+    return registration;
+  }
+
   @Bean
   public CorsConfigurationSource corsConfigurationSource() {
     CorsConfiguration configuration = new CorsConfiguration();
@@ -1,17 +1,131 @@
 package neora.config;
 
 import com.stripe.Stripe;
-import jakarta.annotation.PostConstruct;
+import com.stripe.StripeClient;
+import com.stripe.net.Authenticator;
+import com.stripe.net.BearerTokenAuthenticator;
+import com.stripe.net.HttpClient;
+import com.stripe.net.LiveStripeResponseGetter;
+import com.stripe.net.StripeResponseGetterOptions;
+import java.net.PasswordAuthentication;
+import java.net.Proxy;
+import java.time.Duration;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class StripeConfig {
-  @Value("${stripe.secret.key}")
-  private String secretKey;
 
-  @PostConstruct
-  private void init() {
-    Stripe.apiKey = secretKey;
+  @Bean(destroyMethod = "close")
+  public PooledStripeHttpClient stripeHttpClient(
+      @Value("${stripe.http.max-connections:20}") int maxConnections,
+      @Value("${stripe.http.connection-request-timeout:PT1S}") Duration connectionRequestTimeout,
+      @Value("${stripe.http.idle-timeout:PT1M}") Duration idleTimeout) {
+    return new PooledStripeHttpClient(maxConnections, connectionRequestTimeout, idleTimeout);
+  }
+
+  @Bean
+  public StripeClient stripeClient(
+      HttpClient stripeHttpClient,
+      @Value("${stripe.secret.key}") String secretKey,
+      @Value("${stripe.api-base:" + Stripe.LIVE_API_BASE + "}") String apiBase,
+      @Value("${stripe.timeout.connect:PT2S}") Duration connectTimeout,
+      @Value("${stripe.timeout.read:PT10S}") Duration readTimeout,
+      @Value("${stripe.max-network-retries:1}") int maxNetworkRetries) {
+    ClientOptions options =
+        new ClientOptions(
+            new BearerTokenAuthenticator(secretKey),
+            apiBase,
+            (int) connectTimeout.toMillis(),
+            (int) readTimeout.toMillis(),
+            maxNetworkRetries);
+    return new StripeClient(new LiveStripeResponseGetter(options, stripeHttpClient));
+  }
+
+  private static final class ClientOptions extends StripeResponseGetterOptions {
+    private final Authenticator authenticator;
+    private final String apiBase;
+    private final int connectTimeout;
+    private final int readTimeout;
+    private final int maxNetworkRetries;
+
+    private ClientOptions(
+        Authenticator authenticator,
+        String apiBase,
+        int connectTimeout,
+        int readTimeout,
+        int maxNetworkRetries) {
+      this.authenticator = authenticator;
+      this.apiBase = apiBase;
+      this.connectTimeout = connectTimeout;
+      this.readTimeout = readTimeout;
+      this.maxNetworkRetries = maxNetworkRetries;
+    }
+
+    @Override
+    public Authenticator getAuthenticator() {
+      return authenticator;
+    }
+
+    @Override
+    public String getClientId() {
+      return null;
+    }
+
+    @Override
+    public int getConnectTimeout() {
+      return connectTimeout;
+    }
+
+    @Override
+    public Proxy getConnectionProxy() {
+      return null;
+    }
+
+    @Override
+    public int getMaxNetworkRetries() {
+      return maxNetworkRetries;
+    }
+
+    @Override
+    public PasswordAuthentication getProxyCredential() {
+      return null;
+    }
+
+    @Override
+    public String getApiBase() {
+      return apiBase;
+    }
+
+    @Override
+    public String getFilesBase() {
+      return Stripe.UPLOAD_API_BASE;
+    }
+
+    @Override
+    public String getConnectBase() {
+      return Stripe.CONNECT_API_BASE;
+    }
+
+    @Override
+    public String getMeterEventsBase() {
+      return Stripe.METER_EVENTS_API_BASE;
+    }
+
+    @Override
+    public int getReadTimeout() {
+      return readTimeout;
+    }
+
+    @Override
+    public String getStripeAccount() {
+      return null;
+    }
+
+    @Override
+    public String getStripeContext() {
+      return null;
+    }
   }
 }
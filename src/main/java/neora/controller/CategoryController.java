@@ -8,12 +8,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.time.Instant;
-import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import neora.dto.ApiRestResponse;
 import neora.dto.CategoryRequest;
-import neora.dto.CategoryResponse;
+import neora.dto.RawJson;
 import neora.interfaces.CategoryServiceInterface;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -76,10 +75,10 @@ public class CategoryController {
                     schema = @Schema(implementation = ApiRestResponse.class)))
       })
   @GetMapping
-  public ResponseEntity<ApiRestResponse<List<CategoryResponse>>> getAllCategories() {
+  public ResponseEntity<ApiRestResponse<RawJson>> getAllCategories() {
     log.info("Received request to get all categories");
-    List<CategoryResponse> categories = categoryService.getAllCategories();
-    log.info("Returning {} categories", categories.size());
+    RawJson categories = categoryService.getAllCategoriesJson();
+    log.info("Returning category tree");
     return ResponseEntity.ok(
         new ApiRestResponse<>(
             Instant.now(), HttpStatus.OK.value(), "Categories fetched successfully", categories));
@@ -90,7 +90,11 @@ public class ProductController {
   public ResponseEntity<ApiRestResponse<PagedResponse<AllProductsResponse>>> getAllProducts(
       @Parameter(description = "Filter by category ID") @RequestParam(required = false)
           UUID categoryId,
-      @Parameter(description = "Search term for product name") @RequestParam(required = false)
+      @Parameter(
+              description =
+                  "Search term matched against product name and description, ranked by relevance"
+                      + " unless a sort is given")
+          @RequestParam(required = false)
           String search,
       @Parameter(description = "Pagination information") Pageable pageable) {
     log.info(
@@ -114,6 +118,51 @@ public class ProductController {
             Instant.now(), HttpStatus.OK.value(), "Products fetched successfully", response));
   }
 
+  @Operation(
+      summary = "Get all products with a cursor",
+      description =
+          "Retrieves products page by page using an opaque cursor instead of a page number. Pass an"
+              + " empty cursor for the first page, then the returned next_cursor. No total count is"
+              + " computed.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Products fetched successfully",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ApiRestResponse.class))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid cursor or sort",
+            content = @Content)
+      })
+  @GetMapping(params = "cursor")
+  public ResponseEntity<ApiRestResponse<CursorPagedResponse<AllProductsResponse>>>
+      getAllProductsByCursor(
+          @Parameter(description = "Filter by category ID") @RequestParam(required = false)
+              UUID categoryId,
+          @Parameter(description = "Search term for product name") @RequestParam(required = false)
+              String search,
+          @Parameter(description = "Cursor returned by the previous page, empty for the first")
+              @RequestParam
+              String cursor,
+          @Parameter(description = "Page size and sort (createdAt, price or name)")
+              Pageable pageable) {
+    log.info(
+        "Received request to get all products by cursor. CategoryId: {}, Search: {}, Cursor: {}",
+        categoryId,
+        search,
+        cursor);
+    CursorPagedResponse<AllProductsResponse> response =
+        productService.getAllProductsByCursor(categoryId, search, cursor, pageable);
+    log.info("Returning {} products, last page: {}", response.content().size(), response.last());
+    return ResponseEntity.ok(
+        new ApiRestResponse<>(
+            Instant.now(), HttpStatus.OK.value(), "Products fetched successfully", response));
+  }
+
   @Operation(
       summary = "Get products by category",
       description = "Retrieves a paginated list of products for a specific category.")
@@ -152,6 +201,48 @@ public class ProductController {
             Instant.now(), HttpStatus.OK.value(), "Products fetched successfully", response));
   }
 
+  @Operation(
+      summary = "Get products by category with a cursor",
+      description =
+          "Retrieves products of a category page by page using an opaque cursor instead of a page"
+              + " number.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Products fetched successfully",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ApiRestResponse.class))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid cursor or sort",
+            content = @Content),
+        @ApiResponse(responseCode = "404", description = "Category not found", content = @Content)
+      })
+  @GetMapping(value = "/category", params = "cursor")
+  public ResponseEntity<ApiRestResponse<CursorPagedResponse<AllProductsResponse>>>
+      getProductsByCategoryByCursor(
+          @Parameter(description = "Filter by category ID", required = true) @RequestParam
+              UUID categoryId,
+          @Parameter(description = "Cursor returned by the previous page, empty for the first")
+              @RequestParam
+              String cursor,
+          @Parameter(description = "Page size and sort (createdAt, price or name)")
+              Pageable pageable) {
+    log.info(
+        "Received request to get products by category by cursor. CategoryId: {}, Cursor: {}",
+        categoryId,
+        cursor);
+    CursorPagedResponse<AllProductsResponse> response =
+        productService.getProductsByCategoryByCursor(categoryId, cursor, pageable);
+    log.info("Returning {} products for category {}", response.content().size(), categoryId);
+    return ResponseEntity.ok(
+        new ApiRestResponse<>(
+            Instant.now(), HttpStatus.OK.value(), "Products fetched successfully", response));
+  }
+
   @Operation(
       summary = "Get product by ID",
       description = "Retrieves details of a specific product by its ID.")
@@ -202,4 +293,34 @@ public class ProductController {
         new ApiRestResponse<>(
             Instant.now(), HttpStatus.OK.value(), "Product fetched successfully", product));
   }
+
+  @Operation(
+      summary = "Suggest products",
+      description =
+          "Returns typeahead suggestions matching the beginning of words in product names, slugs"
+              + " and category names, tolerating one typo. Served from memory.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Suggestions fetched successfully",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ApiRestResponse.class)))
+      })
+  @GetMapping("/suggestions")
+  public ResponseEntity<ApiRestResponse<List<ProductSuggestion>>> getSuggestions(
+      @Parameter(description = "Text typed so far", required = true) @RequestParam String query,
+      @Parameter(description = "Filter by category ID") @RequestParam(required = false)
+          UUID categoryId,
+      @Parameter(description = "Maximum number of suggestions (up to 20)")
+          @RequestParam(defaultValue = "10")
+          int limit) {
+    log.debug("Received request for suggestions. Query: {}, CategoryId: {}", query, categoryId);
+    List<ProductSuggestion> suggestions = productService.getSuggestions(query, categoryId, limit);
+    return ResponseEntity.ok(
+        new ApiRestResponse<>(
+            Instant.now(), HttpStatus.OK.value(), "Suggestions fetched successfully", suggestions));
+  }
 }
@@ -21,7 +21,7 @@ public class StripeController {
 
     try {
       webhookService.handleWebhook(payload, signatureHeader);
-      log.info("Webhook processed successfully");
+      log.info("Webhook accepted");
       return ResponseEntity.ok().build();
     } catch (IllegalArgumentException e) {
       log.error("Webhook processing failed: {}", e.getMessage());
@@ -0,0 +1,6 @@
+package neora.dto;
+
+import java.util.UUID;
+
+// A category with one of its parents, or with a null parent for a root category.
+public record CategoryEdge(UUID id, String name, UUID parentId) {}
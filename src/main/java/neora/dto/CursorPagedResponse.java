@@ -0,0 +1,25 @@
+package neora.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+public record CursorPagedResponse<T>(
+    @Schema(description = "List of content items", accessMode = Schema.AccessMode.READ_ONLY)
+        List<T> content,
+    @Schema(
+            description = "Maximum number of items per page",
+            example = "10",
+            accessMode = Schema.AccessMode.READ_ONLY)
+        int size,
+    @Schema(
+            description = "Opaque cursor to pass as 'cursor' to fetch the next page",
+            example = "cHJpY2U6QVNDOjEyM2U0NTY3LWU4OWItMTJkMy1hNDU2LTQyNjYxNDE3NDAwMDoyNTAw",
+            accessMode = Schema.AccessMode.READ_ONLY)
+        @JsonProperty("next_cursor")
+        String nextCursor,
+    @Schema(
+            description = "Is this the last page?",
+            example = "false",
+            accessMode = Schema.AccessMode.READ_ONLY)
+        boolean last) {}
@@ -0,0 +1,37 @@
+package neora.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.UUID;
+
+public record ProductSuggestion(
+    @Schema(
+            description = "Product unique id",
+            example = "02534fae-bd0a-45c8-a523-b6f030bcf480",
+            accessMode = Schema.AccessMode.READ_ONLY)
+        @JsonProperty("product_id")
+        UUID id,
+    @Schema(
+            description = "Product name",
+            example = "Gaming laptop 16 inch",
+            accessMode = Schema.AccessMode.READ_ONLY)
+        @JsonProperty("product_name")
+        String name,
+    @Schema(
+            description = "Product unique slug",
+            example = "gaming-laptop-16-inch",
+            accessMode = Schema.AccessMode.READ_ONLY)
+        @JsonProperty("product_slug")
+        String slug,
+    @Schema(
+            description = "Category unique id",
+            example = "a7a4a8eb-4bc7-4056-a6e0-e13c241ea1e5",
+            accessMode = Schema.AccessMode.READ_ONLY)
+        @JsonProperty("category_id")
+        UUID categoryId,
+    @Schema(
+            description = "Category name",
+            example = "Computers",
+            accessMode = Schema.AccessMode.READ_ONLY)
+        @JsonProperty("category_name")
+        String categoryName) {}
@@ -0,0 +1,29 @@
+package neora.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+
+// JSON encoded once and copied verbatim into every response that embeds it.
+@JsonSerialize(using = RawJson.Serializer.class)
+public record RawJson(SerializedString json) {
+
+  public RawJson(String json) {
+    this(new SerializedString(json));
+  }
+
+  static class Serializer extends StdSerializer<RawJson> {
+    Serializer() {
+      super(RawJson.class);
+    }
+
+    @Override
+    public void serialize(RawJson value, JsonGenerator gen, SerializerProvider provider)
+        throws IOException {
+      gen.writeRawValue(value.json());
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package neora.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.util.UUID;
+import lombok.*;
+
+// One row per (ancestor, descendant) pair of the category graph, including each category with
+// itself at depth 0, so a whole subtree is a single lookup on ancestor_id.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(CategoryClosure.Key.class)
+@Table(name = "category_closure")
+public class CategoryClosure {
+
+  @Id
+  @Column(name = "ancestor_id", updatable = false, nullable = false, columnDefinition = "UUID")
+  private UUID ancestorId;
+
+  @Id
+  @Column(name = "descendant_id", updatable = false, nullable = false, columnDefinition = "UUID")
+  private UUID descendantId;
+
+  @Column(nullable = false)
+  private Integer depth;
+
+  @Getter
+  @Setter
+  @NoArgsConstructor
+  @AllArgsConstructor
+  @EqualsAndHashCode
+  public static class Key implements Serializable {
+    private UUID ancestorId;
+    private UUID descendantId;
+  }
+}
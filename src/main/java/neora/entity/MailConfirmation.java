@@ -19,9 +19,15 @@ public class MailConfirmation {
   @Column(updatable = false, nullable = false, columnDefinition = "UUID")
   private UUID id;
 
-  @Column(nullable = false, unique = true)
+  // BCrypt hash of a bare UUID token, only set on rows created before selector/verifier tokens.
+  @Column(unique = true)
   private String token;
 
+  @Column(unique = true, length = 32)
+  private String selector;
+
+  private byte[] verifierHash;
+
   @OneToOne(optional = false, fetch = FetchType.LAZY)
   @JoinColumn(name = "user_id", nullable = false, unique = true)
   private User user;
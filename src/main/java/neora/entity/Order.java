@@ -43,6 +43,11 @@ public class Order {
 
   @Column private String stripePaymentIntentId;
 
+  // Set when the order was paid after its reservation lapsed and its stock was gone by then.
+  @Builder.Default
+  @Column(nullable = false)
+  private boolean stockShortage = false;
+
   @CreationTimestamp
   @Column(nullable = false, updatable = false)
   private Instant orderedAt;
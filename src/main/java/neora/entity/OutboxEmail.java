@@ -0,0 +1,57 @@
+package neora.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.*;
+import neora.model.OutboxStatus;
+import org.hibernate.annotations.CreationTimestamp;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "email_outbox")
+public class OutboxEmail {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  @Column(updatable = false, nullable = false, columnDefinition = "UUID")
+  private UUID id;
+
+  @Column(nullable = false)
+  private String sender;
+
+  @Column(nullable = false)
+  private String recipient;
+
+  @Column(nullable = false)
+  private String subject;
+
+  @Column(nullable = false, columnDefinition = "TEXT")
+  private String body;
+
+  @Builder.Default
+  @Column(nullable = false)
+  @Enumerated(EnumType.STRING)
+  private OutboxStatus status = OutboxStatus.PENDING;
+
+  @Builder.Default
+  @Column(nullable = false)
+  private Integer attempts = 0;
+
+  @Builder.Default
+  @Column(nullable = false)
+  private Instant nextAttemptAt = Instant.now();
+
+  @Column(columnDefinition = "TEXT")
+  private String lastError;
+
+  @CreationTimestamp
+  @Column(nullable = false, updatable = false)
+  private Instant createdAt;
+
+  @Column private Instant sentAt;
+}
@@ -0,0 +1,31 @@
+package neora.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "stock_levels")
+public class StockLevel {
+
+  @Id
+  @Column(name = "product_id", updatable = false, nullable = false, columnDefinition = "UUID")
+  private UUID productId;
+
+  @Builder.Default
+  @Column(nullable = false)
+  private Integer quantity = 0;
+
+  @Builder.Default
+  @Column(nullable = false)
+  private Integer reserved = 0;
+
+  @UpdateTimestamp @Column private Instant updatedAt;
+}
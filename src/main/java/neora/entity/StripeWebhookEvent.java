@@ -0,0 +1,55 @@
+package neora.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.*;
+import neora.model.WebhookEventStatus;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "stripe_webhook_events")
+public class StripeWebhookEvent {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  @Column(updatable = false, nullable = false, columnDefinition = "UUID")
+  private UUID id;
+
+  @Column(nullable = false, unique = true, updatable = false)
+  private String eventId;
+
+  @Column(nullable = false, length = 100, updatable = false)
+  private String type;
+
+  @Column(columnDefinition = "UUID", updatable = false)
+  private UUID orderId;
+
+  @Column(nullable = false, columnDefinition = "TEXT", updatable = false)
+  private String payload;
+
+  @Column(nullable = false)
+  @Enumerated(EnumType.STRING)
+  private WebhookEventStatus status;
+
+  @Column(nullable = false)
+  private Integer attempts;
+
+  @Column(nullable = false)
+  private Instant nextAttemptAt;
+
+  @Column(columnDefinition = "TEXT")
+  private String lastError;
+
+  @Column(nullable = false, updatable = false)
+  private Instant stripeCreatedAt;
+
+  @Column(nullable = false, updatable = false)
+  private Instant createdAt;
+
+  @Column private Instant processedAt;
+}
@@ -1,6 +1,9 @@
 package neora.entity;
 
 import jakarta.persistence.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.util.UUID;
 import lombok.*;
@@ -20,8 +23,12 @@ public class Token {
   @Column(updatable = false, nullable = false, columnDefinition = "UUID")
   private UUID id;
 
+  // SHA-256 of the JWT, so lookups hit a fixed-width unique index instead of the full token.
   @Column(nullable = false, unique = true)
-  private String jwtToken;
+  private byte[] tokenHash;
+
+  @Column(unique = true, columnDefinition = "UUID")
+  private UUID tokenId;
 
   @Enumerated(EnumType.STRING)
   @Column(nullable = false)
@@ -42,4 +49,12 @@ public class Token {
   @CreationTimestamp
   @Column(nullable = false, updatable = false)
   private Instant createdAt;
+
+  public static byte[] hash(String jwt) {
+    try {
+      return MessageDigest.getInstance("SHA-256").digest(jwt.getBytes(StandardCharsets.UTF_8));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
 }
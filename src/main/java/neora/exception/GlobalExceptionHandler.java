@@ -85,6 +85,23 @@ public class GlobalExceptionHandler {
     return buildErrorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
   }
 
+  @ExceptionHandler(InvalidCursorException.class)
+  public ResponseEntity<ErrorResponse> handleInvalidCursor(InvalidCursorException ex) {
+    return buildErrorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
+  }
+
+  @ExceptionHandler(PasswordHashingUnavailableException.class)
+  public ResponseEntity<ErrorResponse> handlePasswordHashingUnavailable(
+      PasswordHashingUnavailableException ex) {
+    return buildErrorResponse(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
+  @ExceptionHandler(PaymentProviderUnavailableException.class)
+  public ResponseEntity<ErrorResponse> handlePaymentProviderUnavailable(
+      PaymentProviderUnavailableException ex) {
+    return buildErrorResponse(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
   private ResponseEntity<ErrorResponse> buildErrorResponse(String message, HttpStatus status) {
     ErrorResponse error = new ErrorResponse(message, status.value(), Instant.now().toEpochMilli());
     return new ResponseEntity<>(error, status);
@@ -0,0 +1,7 @@
+package neora.exception;
+
+public class PasswordHashingUnavailableException extends RuntimeException {
+  public PasswordHashingUnavailableException(String message) {
+    super(message);
+  }
+}
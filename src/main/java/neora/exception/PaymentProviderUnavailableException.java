@@ -0,0 +1,7 @@
+package neora.exception;
+
+public class PaymentProviderUnavailableException extends RuntimeException {
+  public PaymentProviderUnavailableException(String message) {
+    super(message);
+  }
+}
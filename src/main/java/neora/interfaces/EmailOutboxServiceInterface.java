@@ -0,0 +1,7 @@
+package neora.interfaces;
+
+public interface EmailOutboxServiceInterface {
+  int dispatchPending();
+
+  int purgeSentEmails();
+}
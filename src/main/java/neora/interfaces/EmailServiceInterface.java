@@ -7,6 +7,8 @@ public interface EmailServiceInterface {
 
   void confirmEmail(String token);
 
+  int purgeExpiredConfirmations();
+
   void sendOrderPassedConfirmationEmail(String to, UUID orderId);
 
   void sendOrderCancelledConfirmationEmail(String to, UUID orderId);
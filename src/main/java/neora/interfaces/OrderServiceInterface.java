@@ -9,7 +9,7 @@ import neora.entity.User;
 public interface OrderServiceInterface {
   PaymentResponse initiateOrder(User user, OrderRequest request) throws StripeException;
 
-  void confirmPayment(UUID orderId);
+  void confirmPayment(UUID orderId, String paymentIntentId);
 
   void markPaymentAsFailed(UUID orderId);
 
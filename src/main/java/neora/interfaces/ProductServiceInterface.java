@@ -4,8 +4,10 @@ import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
 import neora.dto.AllProductsResponse;
+import neora.dto.CursorPagedResponse;
 import neora.dto.ProductRequest;
 import neora.dto.ProductResponse;
+import neora.dto.ProductSuggestion;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
@@ -16,9 +18,17 @@ public interface ProductServiceInterface {
 
   Page<AllProductsResponse> getAllProducts(UUID categoryId, String search, Pageable pageable);
 
+  CursorPagedResponse<AllProductsResponse> getAllProductsByCursor(
+      UUID categoryId, String search, String cursor, Pageable pageable);
+
   ProductResponse getProductById(UUID productId);
 
   ProductResponse getProductBySlug(String slug);
 
   Page<AllProductsResponse> getProductsByCategory(UUID categoryId, Pageable pageable);
+
+  CursorPagedResponse<AllProductsResponse> getProductsByCategoryByCursor(
+      UUID categoryId, String cursor, Pageable pageable);
+
+  List<ProductSuggestion> getSuggestions(String query, UUID categoryId, int limit);
 }
@@ -0,0 +1,13 @@
+package neora.interfaces;
+
+import neora.entity.Order;
+
+public interface StockReservationServiceInterface {
+  void reserve(Order order);
+
+  boolean commit(Order order);
+
+  void release(Order order);
+
+  int releaseExpired();
+}
@@ -13,4 +13,8 @@ public interface StockServiceInterface {
   Integer getCurrentStock(Product product);
 
   Map<UUID, Integer> getStocks(List<UUID> productIds);
+
+  List<UUID> findStockDrift();
+
+  void reconcileStock(UUID productId);
 }
@@ -6,4 +6,6 @@ public interface TokenManagementServiceInterface {
   void saveUserToken(User user, String jwt);
 
   void revokeAllUserTokens(User user);
+
+  int purgeExpiredTokens();
 }
@@ -0,0 +1,35 @@
+package neora.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import neora.cache.CacheInvalidationBus;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheInvalidationSubscriptionJob {
+
+  private final RedisMessageListenerContainer redisMessageListenerContainer;
+
+  // The container gives up after a failed first subscription, so it is (re)started from here
+  // instead of at boot. Until Redis is reachable, local caches only expire by TTL.
+  @Scheduled(fixedDelayString = "${cache.invalidation.resubscribe-interval:PT30S}")
+  public void ensureSubscribed() {
+    if (redisMessageListenerContainer.isListening()) {
+      return;
+    }
+    try {
+      redisMessageListenerContainer.stop();
+      redisMessageListenerContainer.start();
+      log.info("Subscribed to cache invalidation channel '{}'", CacheInvalidationBus.CHANNEL);
+    } catch (RuntimeException e) {
+      log.warn(
+          "Cache invalidation channel '{}' unavailable: {}",
+          CacheInvalidationBus.CHANNEL,
+          e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package neora.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import neora.interfaces.EmailOutboxServiceInterface;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxJob {
+
+  private final EmailOutboxServiceInterface emailOutboxService;
+
+  @Scheduled(fixedDelayString = "${mail.outbox.dispatch-interval:PT5S}")
+  public void dispatchPendingEmails() {
+    int sent = emailOutboxService.dispatchPending();
+    if (sent > 0) {
+      log.info("Sent {} email(s) from the outbox", sent);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${mail.outbox.purge-interval:PT1H}")
+  public void purgeSentEmails() {
+    int purged = emailOutboxService.purgeSentEmails();
+    if (purged > 0) {
+      log.info("Purged {} sent email(s) from the outbox", purged);
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package neora.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import neora.interfaces.EmailServiceInterface;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MailConfirmationPurgeJob {
+
+  private final EmailServiceInterface emailService;
+
+  @Scheduled(fixedDelayString = "${mail.confirmation.purge-interval:PT1H}")
+  public void purgeExpiredConfirmations() {
+    int purged = emailService.purgeExpiredConfirmations();
+    if (purged > 0) {
+      log.info("Purged {} expired mail confirmation(s)", purged);
+    }
+  }
+}
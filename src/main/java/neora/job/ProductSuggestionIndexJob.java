@@ -0,0 +1,25 @@
+package neora.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import neora.cache.ProductSuggestionIndex;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSuggestionIndexJob {
+
+  private final ProductSuggestionIndex productSuggestionIndex;
+
+  // First run happens at startup; later runs catch up on changes missed while Redis was down.
+  @Scheduled(fixedDelayString = "${search.suggestions.rebuild-interval:PT15M}")
+  public void rebuild() {
+    try {
+      productSuggestionIndex.rebuild();
+    } catch (Exception e) {
+      log.error("Failed to rebuild the product suggestion index", e);
+    }
+  }
+}
@@ -0,0 +1,18 @@
+package neora.job;
+
+import lombok.RequiredArgsConstructor;
+import neora.config.RateLimitPolicyResolver;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class RateLimitPolicyReloadJob {
+
+  private final RateLimitPolicyResolver policyResolver;
+
+  @Scheduled(fixedDelayString = "${rate-limit.reload.interval:PT30S}")
+  public void reloadPolicies() {
+    policyResolver.reloadIfChanged();
+  }
+}
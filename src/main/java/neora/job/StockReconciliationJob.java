@@ -0,0 +1,37 @@
+package neora.job;
+
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import neora.interfaces.StockServiceInterface;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockReconciliationJob {
+
+  private final StockServiceInterface stockService;
+
+  @Scheduled(cron = "${stock.reconciliation.cron:0 0 3 * * *}")
+  public void reconcile() {
+    log.info("Starting stock level reconciliation against stock movements");
+    List<UUID> driftedProducts = stockService.findStockDrift();
+
+    if (driftedProducts.isEmpty()) {
+      log.info("Stock levels are consistent with stock movements");
+      return;
+    }
+
+    log.warn("Found {} product(s) with stock level drift", driftedProducts.size());
+    for (UUID productId : driftedProducts) {
+      try {
+        stockService.reconcileStock(productId);
+      } catch (Exception e) {
+        log.error("Failed to reconcile stock level for product ID: {}", productId, e);
+      }
+    }
+  }
+}
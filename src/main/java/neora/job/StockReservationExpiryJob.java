@@ -0,0 +1,23 @@
+package neora.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import neora.interfaces.StockReservationServiceInterface;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationExpiryJob {
+
+  private final StockReservationServiceInterface stockReservationService;
+
+  @Scheduled(fixedDelayString = "${stock.reservation.expiry-interval:PT1M}")
+  public void releaseExpiredReservations() {
+    int released = stockReservationService.releaseExpired();
+    if (released > 0) {
+      log.info("Released expired stock reservations for {} product(s)", released);
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package neora.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import neora.service.StripeWebhookService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StripeWebhookJob {
+
+  private final StripeWebhookService webhookService;
+
+  @Scheduled(fixedDelayString = "${stripe.webhook.dispatch-interval:PT1S}")
+  public void processPendingEvents() {
+    int processed = webhookService.processPending();
+    if (processed > 0) {
+      log.info("Applied {} Stripe event(s)", processed);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${stripe.webhook.purge-interval:PT1H}")
+  public void purgeHandledEvents() {
+    int purged = webhookService.purgeHandledEvents();
+    if (purged > 0) {
+      log.info("Purged {} handled Stripe event(s)", purged);
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package neora.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import neora.interfaces.TokenManagementServiceInterface;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenPurgeJob {
+
+  private final TokenManagementServiceInterface tokenManagementService;
+
+  @Scheduled(fixedDelayString = "${token.purge.interval:PT1H}")
+  public void purgeExpiredTokens() {
+    int purged = tokenManagementService.purgeExpiredTokens();
+    if (purged > 0) {
+      log.info("Purged {} expired or revoked token(s)", purged);
+    }
+  }
+}
@@ -1,8 +1,12 @@
 package neora.mapper;
 
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.UUID;
+import neora.dto.CategoryEdge;
 import neora.dto.CategoryRequest;
 import neora.dto.CategoryResponse;
 import neora.entity.Category;
@@ -15,15 +19,32 @@ public class CategoryMapper {
     return Category.builder().name(dto.name()).build();
   }
 
-  public CategoryResponse mapToCategoryResponse(Category category) {
-    if (category == null) {
-      return null;
+  // Assembles the whole graph in memory; a category with several parents appears under each.
+  public List<CategoryResponse> toCategoryTree(List<CategoryEdge> edges) {
+    Map<UUID, String> names = new HashMap<>();
+    Map<UUID, List<UUID>> children = new HashMap<>();
+    List<UUID> roots = new ArrayList<>();
+    for (CategoryEdge edge : edges) {
+      names.put(edge.id(), edge.name());
+      if (edge.parentId() == null) {
+        roots.add(edge.id());
+      } else {
+        children.computeIfAbsent(edge.parentId(), id -> new ArrayList<>()).add(edge.id());
+      }
     }
-    List<CategoryResponse> children =
-        Optional.ofNullable(category.getChildrenCategory()).orElse(Collections.emptySet()).stream()
-            .map(this::mapToCategoryResponse)
-            .toList();
+    return toCategoryResponses(roots, names, children);
+  }
 
-    return new CategoryResponse(category.getId(), category.getName(), List.copyOf(children));
+  private List<CategoryResponse> toCategoryResponses(
+      List<UUID> ids, Map<UUID, String> names, Map<UUID, List<UUID>> children) {
+    return ids.stream()
+        .map(
+            id ->
+                new CategoryResponse(
+                    id,
+                    names.get(id),
+                    toCategoryResponses(children.getOrDefault(id, List.of()), names, children)))
+        .sorted(Comparator.comparing(CategoryResponse::name))
+        .toList();
   }
 }
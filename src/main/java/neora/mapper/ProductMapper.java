@@ -47,6 +47,20 @@ public class ProductMapper {
         vendorSummary);
   }
 
+  public ProductResponse withLiveData(ProductResponse product, Integer stock, Double vendorRating) {
+    VendorSummary vendor = product.vendor();
+    return new ProductResponse(
+        product.id(),
+        product.name(),
+        product.price(),
+        product.description(),
+        stock,
+        product.images(),
+        vendor == null
+            ? null
+            : new VendorSummary(vendor.id(), vendor.name(), vendorRating, vendor.image()));
+  }
+
   public List<ProductImageResponse> mapImageResponses(List<ProductImage> images) {
     if (images == null || images.isEmpty()) {
       return Collections.emptyList();
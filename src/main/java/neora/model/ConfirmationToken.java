@@ -0,0 +1,57 @@
+package neora.model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Optional;
+
+// Email confirmation token split into a selector, stored in clear to find the row through an
+// index, and a verifier of which only a SHA-256 hash is stored. Both are random, so a fast hash is
+// enough and confirming a token costs one lookup and one digest.
+public record ConfirmationToken(String selector, String verifier) {
+  private static final SecureRandom RANDOM = new SecureRandom();
+  private static final int SELECTOR_BYTES = 12;
+  private static final int VERIFIER_BYTES = 32;
+  private static final String SEPARATOR = ".";
+
+  public static ConfirmationToken generate() {
+    return new ConfirmationToken(randomString(SELECTOR_BYTES), randomString(VERIFIER_BYTES));
+  }
+
+  public static Optional<ConfirmationToken> parse(String token) {
+    if (token == null) {
+      return Optional.empty();
+    }
+    int separator = token.indexOf(SEPARATOR);
+    if (separator <= 0 || separator == token.length() - 1) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        new ConfirmationToken(token.substring(0, separator), token.substring(separator + 1)));
+  }
+
+  public byte[] verifierHash() {
+    try {
+      return MessageDigest.getInstance("SHA-256").digest(verifier.getBytes(StandardCharsets.UTF_8));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  public boolean matches(byte[] storedHash) {
+    return storedHash != null && MessageDigest.isEqual(verifierHash(), storedHash);
+  }
+
+  @Override
+  public String toString() {
+    return selector + SEPARATOR + verifier;
+  }
+
+  private static String randomString(int bytes) {
+    byte[] random = new byte[bytes];
+    RANDOM.nextBytes(random);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+  }
+}
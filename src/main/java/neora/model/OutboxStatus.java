@@ -0,0 +1,7 @@
+package neora.model;
+
+public enum OutboxStatus {
+  PENDING,
+  SENT,
+  DEAD
+}
@@ -0,0 +1,79 @@
+package neora.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Set;
+import java.util.UUID;
+import neora.entity.Product;
+import neora.exception.InvalidCursorException;
+import org.springframework.data.domain.Sort;
+
+// Position in a product listing ordered by (sortProperty, id). The id breaks ties so that
+// products sharing the same sort value are neither skipped nor repeated between pages.
+public record ProductCursor(
+    String sortProperty, Sort.Direction direction, UUID lastId, String lastValue) {
+
+  private static final String DEFAULT_SORT_PROPERTY = "createdAt";
+  private static final Set<String> SORTABLE_PROPERTIES = Set.of("createdAt", "price", "name");
+  private static final String SEPARATOR = ":";
+
+  public static ProductCursor first(Sort sort) {
+    Sort.Order order = sort.stream().findFirst().orElse(Sort.Order.desc(DEFAULT_SORT_PROPERTY));
+    if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+      throw new InvalidCursorException(
+          "Cursor pagination cannot sort by '" + order.getProperty() + "'.");
+    }
+    return new ProductCursor(order.getProperty(), order.getDirection(), null, null);
+  }
+
+  public static ProductCursor decode(String cursor) {
+    try {
+      String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      String[] parts = decoded.split(SEPARATOR, 4);
+      ProductCursor position =
+          new ProductCursor(
+              parts[0], Sort.Direction.fromString(parts[1]), UUID.fromString(parts[2]), parts[3]);
+      if (!SORTABLE_PROPERTIES.contains(position.sortProperty())) {
+        throw new IllegalArgumentException("Unsupported sort property " + position.sortProperty());
+      }
+      position.typedLastValue();
+      return position;
+    } catch (RuntimeException e) {
+      throw new InvalidCursorException("Invalid pagination cursor.");
+    }
+  }
+
+  public String encode() {
+    String raw = sortProperty + SEPARATOR + direction + SEPARATOR + lastId + SEPARATOR + lastValue;
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public ProductCursor after(Product product) {
+    String value =
+        switch (sortProperty) {
+          case "price" -> product.getPrice().toString();
+          case "name" -> product.getName();
+          default -> product.getCreatedAt().toString();
+        };
+    return new ProductCursor(sortProperty, direction, product.getId(), value);
+  }
+
+  public boolean isFirstPage() {
+    return lastId == null;
+  }
+
+  public Comparable<?> typedLastValue() {
+    return switch (sortProperty) {
+      case "price" -> Integer.valueOf(lastValue);
+      case "name" -> lastValue;
+      default -> Instant.parse(lastValue);
+    };
+  }
+
+  public Sort toSort() {
+    return Sort.by(direction, sortProperty).and(Sort.by(direction, "id"));
+  }
+}
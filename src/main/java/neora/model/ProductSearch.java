@@ -0,0 +1,25 @@
+package neora.model;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+// Full-text form of a user search term: every word becomes a prefix match ("lap" finds "laptop")
+// and all of them must match. The LIKE pattern keeps the previous substring behaviour on names.
+public record ProductSearch(String tsQuery, String pattern) {
+
+  public static Optional<ProductSearch> of(String search) {
+    if (search == null) {
+      return Optional.empty();
+    }
+    String tsQuery =
+        Arrays.stream(search.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+            .filter(word -> !word.isEmpty())
+            .map(word -> word + ":*")
+            .collect(Collectors.joining(" & "));
+    if (tsQuery.isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(new ProductSearch(tsQuery, "%" + search.toLowerCase() + "%"));
+  }
+}
@@ -0,0 +1,16 @@
+package neora.model;
+
+// Identifies one bucket: the policy it applies and the client it is counted for, either an
+// authenticated user name or a client address. The name carries a digest of the policy's limits,
+// so that a policy reloaded with other limits starts fresh buckets rather than reusing ones
+// stored with the old configuration.
+public record RateLimitKey(RateLimitPolicy policy, boolean user, String client) {
+
+  public String bucketName() {
+    return policy.id()
+        + "@"
+        + Integer.toHexString(policy.bandwidths().hashCode())
+        + (user ? ":USER:" : ":IP:")
+        + client;
+  }
+}
@@ -0,0 +1,13 @@
+package neora.model;
+
+import io.github.bucket4j.Bandwidth;
+import java.util.List;
+
+// A bucket configuration compiled once from configuration, usually a short burst limit alongside a
+// sustained one. A request is only let through when every bandwidth has tokens left.
+public record RateLimitPolicy(String id, List<Bandwidth> bandwidths) {
+
+  public RateLimitPolicy {
+    bandwidths = List.copyOf(bandwidths);
+  }
+}
@@ -0,0 +1,24 @@
+package neora.model;
+
+import java.util.Map;
+import java.util.Set;
+
+// What a matched endpoint costs and which bucket configuration pays for it. Authenticated users
+// holding a role with its own quota get that quota instead; with several such roles the most
+// privileged one, declared last in Role, applies.
+public record RateLimitRule(
+    RateLimitPolicy policy, Map<Role, RateLimitPolicy> rolePolicies, long cost) {
+  private static final Role[] ROLES = Role.values();
+
+  public RateLimitPolicy policyFor(Set<Role> roles) {
+    if (!rolePolicies.isEmpty()) {
+      for (int i = ROLES.length - 1; i >= 0; i--) {
+        RateLimitPolicy rolePolicy = rolePolicies.get(ROLES[i]);
+        if (rolePolicy != null && roles.contains(ROLES[i])) {
+          return rolePolicy;
+        }
+      }
+    }
+    return policy;
+  }
+}
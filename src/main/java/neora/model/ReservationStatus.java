@@ -0,0 +1,8 @@
+package neora.model;
+
+public enum ReservationStatus {
+  ACTIVE,
+  CONSUMED,
+  RELEASED,
+  EXPIRED
+}
@@ -0,0 +1,8 @@
+package neora.model;
+
+public enum WebhookEventStatus {
+  PENDING,
+  PROCESSED,
+  IGNORED,
+  FAILED
+}
@@ -1,10 +1,12 @@
 package neora.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import neora.entity.CartItem;
 import neora.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -12,8 +14,12 @@ import org.springframework.stereotype.Repository;
 public interface CartItemRepository extends JpaRepository<CartItem, UUID> {
   Optional<CartItem> findByCartIdAndProductId(UUID cartId, UUID productId);
 
+  @EntityGraph(attributePaths = {"product", "product.images"})
   List<CartItem> findByCartId(UUID cartId);
 
+  @EntityGraph(attributePaths = {"product", "cart"})
+  List<CartItem> findAllByIdIn(Collection<UUID> ids);
+
   void deleteByCartId(UUID cartId);
 
   List<CartItem> findAllByCartUser(User user);
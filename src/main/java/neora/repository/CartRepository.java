@@ -1,7 +1,10 @@
 package neora.repository;
 
+import java.util.Optional;
 import java.util.UUID;
 import neora.entity.Cart;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface CartRepository extends JpaRepository<Cart, UUID> {}
+public interface CartRepository extends JpaRepository<Cart, UUID> {
+  Optional<Cart> findByUserId(UUID userId);
+}
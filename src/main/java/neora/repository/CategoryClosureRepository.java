@@ -0,0 +1,31 @@
+package neora.repository;
+
+import java.util.UUID;
+import neora.entity.CategoryClosure;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CategoryClosureRepository
+    extends JpaRepository<CategoryClosure, CategoryClosure.Key> {
+
+  // A new category inherits every ancestor of its parents, one level deeper than the closest path.
+  @Modifying
+  @Query(
+      value =
+          """
+      INSERT INTO category_closure (ancestor_id, descendant_id, depth)
+      SELECT :categoryId, :categoryId, 0
+      UNION ALL
+      SELECT cc.ancestor_id, :categoryId, MIN(cc.depth) + 1
+      FROM category_closure cc
+      WHERE cc.descendant_id = ANY(CAST(:parentIds AS uuid[]))
+      GROUP BY cc.ancestor_id
+  """,
+      nativeQuery = true)
+  void insertForCategory(
+      @Param("categoryId") UUID categoryId, @Param("parentIds") UUID[] parentIds);
+}
@@ -2,11 +2,16 @@ package neora.repository;
 
 import java.util.List;
 import java.util.UUID;
+import neora.dto.CategoryEdge;
 import neora.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface CategoryRepository extends JpaRepository<Category, UUID> {
   boolean existsByName(String name);
 
-  List<Category> findByParentCategoryIsNull();
+  @Query(
+      "SELECT new neora.dto.CategoryEdge(c.id, c.name, p.id)"
+          + " FROM Category c LEFT JOIN c.parentCategory p")
+  List<CategoryEdge> findAllEdges();
 }
@@ -1,13 +1,28 @@
 package neora.repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import neora.entity.MailConfirmation;
 import neora.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface MailConfirmationRepository extends JpaRepository<MailConfirmation, UUID> {
   Optional<MailConfirmation> findByToken(String token);
 
+  Optional<MailConfirmation> findBySelector(String selector);
+
+  List<MailConfirmation> findAllBySelectorIsNullAndExpiresAtAfter(Instant now);
+
   void deleteByUser(User user);
+
+  @Transactional
+  @Modifying
+  @Query("delete from MailConfirmation m where m.expiresAt < :now")
+  int deleteExpired(@Param("now") Instant now);
 }
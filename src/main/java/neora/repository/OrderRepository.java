@@ -1,5 +1,6 @@
 package neora.repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 import neora.entity.Order;
@@ -7,7 +8,11 @@ import neora.entity.Product;
 import neora.entity.User;
 import neora.model.OrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, UUID> {
@@ -16,4 +21,14 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
   List<Order> findByUserAndStatus(User user, OrderStatus status);
 
   boolean existsByUserAndOrderItemsProductAndStatus(User user, Product product, OrderStatus status);
+
+  @Transactional
+  @Modifying
+  @Query(
+      "UPDATE Order o SET o.stripePaymentIntentId = :paymentIntentId, o.updatedAt = :now"
+          + " WHERE o.id = :orderId")
+  int attachPaymentIntent(
+      @Param("orderId") UUID orderId,
+      @Param("paymentIntentId") String paymentIntentId,
+      @Param("now") Instant now);
 }
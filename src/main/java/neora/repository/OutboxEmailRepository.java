@@ -0,0 +1,70 @@
+package neora.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import neora.entity.OutboxEmail;
+import neora.model.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, UUID> {
+  // Claims due emails by pushing their next attempt to the end of a lease and counting the
+  // attempt. Other dispatchers skip them while they are being sent, and they become due again if
+  // this one dies before recording the outcome.
+  @Transactional
+  @Query(
+      value =
+          """
+      UPDATE email_outbox SET next_attempt_at = :leaseUntil, attempts = attempts + 1
+      WHERE id IN (
+          SELECT id FROM email_outbox
+          WHERE status = 'PENDING' AND next_attempt_at <= :now
+          ORDER BY next_attempt_at
+          LIMIT :batchSize
+          FOR UPDATE SKIP LOCKED)
+      RETURNING *
+      """,
+      nativeQuery = true)
+  List<OutboxEmail> claimDue(
+      @Param("now") Instant now,
+      @Param("leaseUntil") Instant leaseUntil,
+      @Param("batchSize") int batchSize);
+
+  @Transactional
+  @Modifying
+  @Query(
+      """
+      UPDATE OutboxEmail e
+      SET e.status = neora.model.OutboxStatus.SENT, e.sentAt = :sentAt, e.lastError = null
+      WHERE e.id IN :ids
+      """)
+  int markSent(@Param("ids") Collection<UUID> ids, @Param("sentAt") Instant sentAt);
+
+  @Transactional
+  @Modifying
+  @Query(
+      """
+      UPDATE OutboxEmail e
+      SET e.status = :status, e.nextAttemptAt = :nextAttemptAt, e.lastError = :error
+      WHERE e.id = :id
+      """)
+  int markFailed(
+      @Param("id") UUID id,
+      @Param("status") OutboxStatus status,
+      @Param("nextAttemptAt") Instant nextAttemptAt,
+      @Param("error") String error);
+
+  @Transactional
+  @Modifying
+  @Query(
+      value = "DELETE FROM email_outbox WHERE status = 'SENT' AND sent_at < :cutoff",
+      nativeQuery = true)
+  int deleteSentBefore(@Param("cutoff") Instant cutoff);
+}
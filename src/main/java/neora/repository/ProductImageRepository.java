@@ -1,9 +1,25 @@
 package neora.repository;
 
+import java.util.List;
 import java.util.UUID;
+import neora.dto.ProductPrimaryImage;
 import neora.entity.ProductImage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ProductImageRepository extends JpaRepository<ProductImage, UUID> {}
+public interface ProductImageRepository extends JpaRepository<ProductImage, UUID> {
+  @Query(
+      """
+    SELECT new neora.dto.ProductPrimaryImage(pi.product.id, pi.imageUrl)
+    FROM ProductImage pi
+    WHERE pi.product.id IN :productIds
+      AND pi.displayOrder = (
+          SELECT MIN(other.displayOrder)
+          FROM ProductImage other
+          WHERE other.product = pi.product
+      )
+  """)
+  List<ProductPrimaryImage> getPrimaryImagesForProducts(List<UUID> productIds);
+}
@@ -1,13 +1,17 @@
 package neora.repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import neora.entity.Category;
+import neora.dto.ProductSuggestion;
 import neora.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -15,5 +19,46 @@ public interface ProductRepository
     extends JpaRepository<Product, UUID>, JpaSpecificationExecutor<Product> {
   Optional<Product> findBySlug(String slug);
 
-  Page<Product> findAllProductsByCategory(Category category, Pageable pageable);
+  @Query("SELECT p.id FROM Product p WHERE p.slug = :slug")
+  Optional<UUID> findIdBySlug(@Param("slug") String slug);
+
+  @EntityGraph(attributePaths = {"images", "vendor", "vendor.vendorImage"})
+  Optional<Product> findWithDetailsById(UUID id);
+
+  @Query(
+      "SELECT new neora.dto.ProductSuggestion(p.id, p.name, p.slug, c.id, c.name)"
+          + " FROM Product p JOIN p.category c")
+  List<ProductSuggestion> findAllSuggestions();
+
+  @Query(
+      "SELECT new neora.dto.ProductSuggestion(p.id, p.name, p.slug, c.id, c.name)"
+          + " FROM Product p JOIN p.category c WHERE p.id = :id")
+  Optional<ProductSuggestion> findSuggestionById(@Param("id") UUID id);
+
+  // Served by the GIN indexes on search_vector and lower(name), ordered by relevance.
+  @Query(
+      value =
+          """
+          SELECT p.* FROM products p
+          WHERE (CAST(:categoryId AS uuid) IS NULL OR p.category_id IN (
+                SELECT cc.descendant_id FROM category_closure cc
+                WHERE cc.ancestor_id = CAST(:categoryId AS uuid)))
+            AND (p.search_vector @@ to_tsquery('simple', :query) OR lower(p.name) LIKE :pattern)
+          ORDER BY ts_rank(p.search_vector, to_tsquery('simple', :query)) DESC,
+                   p.created_at DESC, p.id
+          """,
+      countQuery =
+          """
+          SELECT count(*) FROM products p
+          WHERE (CAST(:categoryId AS uuid) IS NULL OR p.category_id IN (
+                SELECT cc.descendant_id FROM category_closure cc
+                WHERE cc.ancestor_id = CAST(:categoryId AS uuid)))
+            AND (p.search_vector @@ to_tsquery('simple', :query) OR lower(p.name) LIKE :pattern)
+          """,
+      nativeQuery = true)
+  Page<Product> searchRanked(
+      @Param("categoryId") UUID categoryId,
+      @Param("query") String query,
+      @Param("pattern") String pattern,
+      Pageable pageable);
 }
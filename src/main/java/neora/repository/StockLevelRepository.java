@@ -0,0 +1,78 @@
+package neora.repository;
+
+import java.util.List;
+import java.util.UUID;
+import neora.dto.ProductStock;
+import neora.entity.StockLevel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StockLevelRepository extends JpaRepository<StockLevel, UUID> {
+  @Query(
+      """
+      SELECT new neora.dto.ProductStock(sl.productId, sl.quantity - sl.reserved)
+      FROM StockLevel sl
+      WHERE sl.productId IN :productIds
+  """)
+  List<ProductStock> getStockForProducts(List<UUID> productIds);
+
+  @Query("SELECT sl.quantity - sl.reserved FROM StockLevel sl WHERE sl.productId = :productId")
+  Integer getStockForProduct(@Param("productId") UUID productId);
+
+  // Upsert keeps the row lock until commit, which serializes writers of the same product.
+  @Modifying
+  @Query(
+      value =
+          """
+      INSERT INTO stock_levels (product_id, quantity, updated_at)
+      VALUES (:productId, :delta, CURRENT_TIMESTAMP)
+      ON CONFLICT (product_id)
+      DO UPDATE SET quantity = stock_levels.quantity + EXCLUDED.quantity,
+                    updated_at = EXCLUDED.updated_at
+  """,
+      nativeQuery = true)
+  void applyDelta(@Param("productId") UUID productId, @Param("delta") int delta);
+
+  @Modifying
+  @Query(
+      value =
+          """
+      UPDATE stock_levels
+      SET quantity = :quantity, updated_at = CURRENT_TIMESTAMP
+      WHERE product_id = :productId
+  """,
+      nativeQuery = true)
+  void setQuantity(@Param("productId") UUID productId, @Param("quantity") int quantity);
+
+  // Locks the stock rows in product id order. Callers take these locks before updating several
+  // products, since the planner is free to choose the row order of an UPDATE ... FROM, and
+  // transactions locking overlapping products in different orders would deadlock.
+  @Query(
+      value =
+          """
+      SELECT product_id FROM stock_levels
+      WHERE product_id = ANY(CAST(:productIds AS uuid[]))
+      ORDER BY product_id
+      FOR UPDATE
+  """,
+      nativeQuery = true)
+  List<UUID> lockForUpdate(@Param("productIds") UUID[] productIds);
+
+  // Conditional on availability so concurrent checkouts can never reserve more than is on hand.
+  @Modifying
+  @Query(
+      value =
+          """
+      UPDATE stock_levels sl
+      SET reserved = sl.reserved + r.quantity, updated_at = CURRENT_TIMESTAMP
+      FROM unnest(CAST(:productIds AS uuid[]), CAST(:quantities AS int[])) AS r(product_id, quantity)
+      WHERE sl.product_id = r.product_id
+        AND sl.quantity - sl.reserved >= r.quantity
+  """,
+      nativeQuery = true)
+  int reserve(@Param("productIds") UUID[] productIds, @Param("quantities") Integer[] quantities);
+}
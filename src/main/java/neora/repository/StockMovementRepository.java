@@ -2,7 +2,6 @@ package neora.repository;
 
 import java.util.List;
 import java.util.UUID;
-import neora.dto.ProductStock;
 import neora.entity.StockMovement;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -11,21 +10,25 @@ import org.springframework.stereotype.Repository;
 
 @Repository
 public interface StockMovementRepository extends JpaRepository<StockMovement, UUID> {
-  @Query(
-      """
-      SELECT new neora.dto.ProductStock(
-          sm.product.id,
-          CAST(SUM(CASE WHEN sm.type = 'IN' THEN sm.quantity ELSE -sm.quantity END) AS int)
-      )
-      FROM StockMovement sm
-      WHERE sm.product.id IN :productIds
-      GROUP BY sm.product.id
-  """)
-  List<ProductStock> getStockForProducts(List<UUID> productIds);
-
   @Query(
       "SELECT SUM(CASE WHEN sm.type = neora.model.StockType.IN THEN sm.quantity "
           + "ELSE -sm.quantity END) "
           + "FROM StockMovement sm WHERE sm.product.id = :productId")
   Integer getStockForProduct(@Param("productId") UUID productId);
+
+  @Query(
+      value =
+          """
+      SELECT COALESCE(sl.product_id, agg.product_id)
+      FROM stock_levels sl
+      FULL OUTER JOIN (
+          SELECT sm.product_id,
+                 SUM(CASE WHEN sm.type = 'IN' THEN sm.quantity ELSE -sm.quantity END) AS total
+          FROM stock_movements sm
+          GROUP BY sm.product_id
+      ) agg ON agg.product_id = sl.product_id
+      WHERE COALESCE(sl.quantity, 0) <> COALESCE(agg.total, 0)
+  """,
+      nativeQuery = true)
+  List<UUID> findProductIdsWithStockDrift();
 }
@@ -0,0 +1,77 @@
+package neora.repository;
+
+import jakarta.persistence.LockModeType;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import neora.entity.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, UUID> {
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query(
+      """
+      SELECT sr FROM StockReservation sr
+      JOIN FETCH sr.product
+      WHERE sr.order.id = :orderId AND sr.status = neora.model.ReservationStatus.ACTIVE
+      ORDER BY sr.id
+  """)
+  List<StockReservation> findActiveByOrderIdForUpdate(@Param("orderId") UUID orderId);
+
+  // Status transition and reserved counter update happen in one statement, so a reservation
+  // is released exactly once even when expiry races with payment confirmation.
+  @Modifying
+  @Query(
+      value =
+          """
+      WITH closed AS (
+          UPDATE stock_reservations
+          SET status = :status, updated_at = CURRENT_TIMESTAMP
+          WHERE order_id = :orderId AND status = 'ACTIVE'
+          RETURNING product_id, quantity
+      )
+      UPDATE stock_levels sl
+      SET reserved = sl.reserved - released.total, updated_at = CURRENT_TIMESTAMP
+      FROM (SELECT product_id, SUM(quantity) AS total FROM closed GROUP BY product_id) released
+      WHERE sl.product_id = released.product_id
+  """,
+      nativeQuery = true)
+  int closeActiveByOrderId(@Param("orderId") UUID orderId, @Param("status") String status);
+
+  // Locks the overdue reservations in id order so that expiry, like commit and release, holds
+  // the reservation rows before it locks any stock rows.
+  @Query(
+      value =
+          """
+      SELECT product_id FROM stock_reservations
+      WHERE status = 'ACTIVE' AND expires_at < :now
+      ORDER BY id
+      FOR UPDATE
+  """,
+      nativeQuery = true)
+  List<UUID> lockOverdueProductIds(@Param("now") Instant now);
+
+  @Modifying
+  @Query(
+      value =
+          """
+      WITH expired AS (
+          UPDATE stock_reservations
+          SET status = 'EXPIRED', updated_at = CURRENT_TIMESTAMP
+          WHERE status = 'ACTIVE' AND expires_at < :now
+          RETURNING product_id, quantity
+      )
+      UPDATE stock_levels sl
+      SET reserved = sl.reserved - released.total, updated_at = CURRENT_TIMESTAMP
+      FROM (SELECT product_id, SUM(quantity) AS total FROM expired GROUP BY product_id) released
+      WHERE sl.product_id = released.product_id
+  """,
+      nativeQuery = true)
+  int expireOverdue(@Param("now") Instant now);
+}
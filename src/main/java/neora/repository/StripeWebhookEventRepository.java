@@ -0,0 +1,107 @@
+package neora.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import neora.entity.StripeWebhookEvent;
+import neora.model.WebhookEventStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface StripeWebhookEventRepository extends JpaRepository<StripeWebhookEvent, UUID> {
+  // Stripe delivers an event at least once; redeliveries hit the unique event id and are dropped
+  // without raising an error. Returns 0 for a duplicate.
+  @Transactional
+  @Modifying
+  @Query(
+      value =
+          """
+      INSERT INTO stripe_webhook_events
+          (event_id, type, order_id, payload, status, attempts, next_attempt_at,
+           stripe_created_at, created_at, processed_at)
+      VALUES
+          (:eventId, :type, :orderId, :payload, :status, 0, :now,
+           :stripeCreatedAt, :now, :processedAt)
+      ON CONFLICT (event_id) DO NOTHING
+      """,
+      nativeQuery = true)
+  int insertIfAbsent(
+      @Param("eventId") String eventId,
+      @Param("type") String type,
+      @Param("orderId") UUID orderId,
+      @Param("payload") String payload,
+      @Param("status") String status,
+      @Param("stripeCreatedAt") Instant stripeCreatedAt,
+      @Param("now") Instant now,
+      @Param("processedAt") Instant processedAt);
+
+  // Claims due events, at most the oldest pending one per order so that events of an order are
+  // applied in the order Stripe created them. Claiming counts the attempt and leases the event,
+  // so it becomes due again if its worker dies before recording the outcome.
+  @Transactional
+  @Query(
+      value =
+          """
+      UPDATE stripe_webhook_events SET next_attempt_at = :leaseUntil, attempts = attempts + 1
+      WHERE id IN (
+          SELECT e.id FROM stripe_webhook_events e
+          WHERE e.status = 'PENDING' AND e.next_attempt_at <= :now
+            AND NOT EXISTS (
+                SELECT 1 FROM stripe_webhook_events earlier
+                WHERE earlier.order_id = e.order_id
+                  AND earlier.status = 'PENDING'
+                  AND (earlier.stripe_created_at, earlier.id) < (e.stripe_created_at, e.id))
+          ORDER BY e.stripe_created_at
+          LIMIT :batchSize
+          FOR UPDATE SKIP LOCKED)
+      RETURNING *
+      """,
+      nativeQuery = true)
+  List<StripeWebhookEvent> claimDue(
+      @Param("now") Instant now,
+      @Param("leaseUntil") Instant leaseUntil,
+      @Param("batchSize") int batchSize);
+
+  @Transactional
+  @Modifying
+  @Query(
+      """
+      UPDATE StripeWebhookEvent e
+      SET e.status = neora.model.WebhookEventStatus.PROCESSED, e.processedAt = :processedAt,
+          e.lastError = null
+      WHERE e.id = :id
+      """)
+  int markProcessed(@Param("id") UUID id, @Param("processedAt") Instant processedAt);
+
+  @Transactional
+  @Modifying
+  @Query(
+      """
+      UPDATE StripeWebhookEvent e
+      SET e.status = :status, e.nextAttemptAt = :nextAttemptAt, e.lastError = :error
+      WHERE e.id = :id
+      """)
+  int markFailed(
+      @Param("id") UUID id,
+      @Param("status") WebhookEventStatus status,
+      @Param("nextAttemptAt") Instant nextAttemptAt,
+      @Param("error") String error);
+
+  // Processed events are kept long enough to recognise Stripe's redeliveries, which stop after
+  // three days.
+  @Transactional
+  @Modifying
+  @Query(
+      value =
+          """
+      DELETE FROM stripe_webhook_events
+      WHERE status IN ('PROCESSED', 'IGNORED') AND created_at < :cutoff
+      """,
+      nativeQuery = true)
+  int deleteHandledBefore(@Param("cutoff") Instant cutoff);
+}
@@ -1,16 +1,48 @@
 package neora.repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import neora.entity.Token;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface TokenRepository extends JpaRepository<Token, UUID> {
+  // Revokes every live token of the user in one statement and returns their ids so that caches
+  // can be told about them.
+  @Transactional
   @Query(
-      "select t from Token t inner join User u on t.user.id = u.id where u.id = :userId and (t.expired = false or t.revoked = false)")
-  List<Token> findAllValidTokensByUserId(UUID userId);
+      value =
+          """
+      UPDATE tokens SET expired = true, revoked = true
+      WHERE user_id = :userId AND (expired = false OR revoked = false)
+      RETURNING token_id
+      """,
+      nativeQuery = true)
+  List<UUID> revokeAllByUserId(@Param("userId") UUID userId);
 
-  Optional<Token> findByJwtToken(String jwtToken);
+  Optional<Token> findByTokenHash(byte[] tokenHash);
+
+  Optional<Token> findByTokenId(UUID tokenId);
+
+  // Deletes one batch of dead tokens. SKIP LOCKED leaves rows being revoked concurrently for a
+  // later run instead of waiting on them.
+  @Transactional
+  @Modifying
+  @Query(
+      value =
+          """
+      DELETE FROM tokens
+      WHERE id IN (
+          SELECT id FROM tokens
+          WHERE revoked OR expired OR created_at < :cutoff
+          LIMIT :batchSize
+          FOR UPDATE SKIP LOCKED)
+      """,
+      nativeQuery = true)
+  int deleteExpiredBatch(@Param("cutoff") Instant cutoff, @Param("batchSize") int batchSize);
 }
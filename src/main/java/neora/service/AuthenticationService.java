@@ -4,7 +4,6 @@ import jakarta.transaction.Transactional;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Locale;
-import java.util.UUID;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import neora.dto.AuthenticationRequest;
@@ -19,6 +18,7 @@ import neora.exception.ResourceAlreadyExistsException;
 import neora.interfaces.AuthenticationServiceInterface;
 import neora.interfaces.TokenManagementServiceInterface;
 import neora.mapper.UserMapper;
+import neora.model.ConfirmationToken;
 import neora.repository.MailConfirmationRepository;
 import neora.repository.UserRepository;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -53,11 +53,12 @@ public class AuthenticationService implements AuthenticationServiceInterface {
     var savedUser = userRepository.save(user);
     log.info("User registered successfully with ID: {}", savedUser.getId());
 
-    String token = UUID.randomUUID().toString();
+    ConfirmationToken token = ConfirmationToken.generate();
 
     MailConfirmation mailConfirmation =
         MailConfirmation.builder()
-            .token(passwordEncoder.encode(token))
+            .selector(token.selector())
+            .verifierHash(token.verifierHash())
             .user(savedUser)
             .expiresAt(Instant.now().plus(24, ChronoUnit.HOURS))
             .build();
@@ -65,8 +66,8 @@ public class AuthenticationService implements AuthenticationServiceInterface {
     mailConfirmationRepository.save(mailConfirmation);
     log.debug("Mail confirmation token generated for user ID: {}", savedUser.getId());
 
-    emailService.sendRegistrationConfirmationEmail(user.getEmail(), token);
-    log.info("Confirmation email sent to: {}", user.getEmail());
+    emailService.sendRegistrationConfirmationEmail(user.getEmail(), token.toString());
+    log.info("Confirmation email queued for: {}", user.getEmail());
 
     return new RegisterResponse(
         "User registered successfully. Please confirm your email", user.getId());
@@ -96,7 +96,11 @@ public class CartService implements CartServiceInterface {
     // This method is often used internally, so DEBUG level is appropriate
     // to avoid spamming logs if called frequently.
     log.trace("Retrieving cart for user ID: {}", user.getId());
-    return user.getCart();
+    // Principals built from token claims carry no cart, so it is looked up by user id instead.
+    if (user.getCart() != null) {
+      return user.getCart();
+    }
+    return cartRepository.findByUserId(user.getId()).orElse(null);
   }
 
   @Override
@@ -2,19 +2,24 @@ package neora.service;
 
 import java.util.List;
 import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import neora.cache.CategoryTreeCache;
 import neora.dto.CategoryRequest;
 import neora.dto.CategoryResponse;
+import neora.dto.RawJson;
 import neora.entity.Category;
 import neora.exception.ResourceAlreadyExistsException;
 import neora.exception.ResourceNotFoundException;
 import neora.interfaces.CategoryServiceInterface;
 import neora.mapper.CategoryMapper;
+import neora.repository.CategoryClosureRepository;
 import neora.repository.CategoryRepository;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @AllArgsConstructor
@@ -22,8 +27,11 @@ import org.springframework.stereotype.Service;
 public class CategoryService implements CategoryServiceInterface {
   private final CategoryRepository categoryRepository;
   private final CategoryMapper categoryMapper;
+  private final CategoryClosureRepository categoryClosureRepository;
+  private final CategoryTreeCache categoryTreeCache;
 
   @Override
+  @Transactional
   public Category createCategory(CategoryRequest categoryRequest) {
     log.info("Attempting to create category with name: {}", categoryRequest.name());
     Category category = categoryMapper.categoryToEntity(categoryRequest);
@@ -47,7 +55,12 @@ public class CategoryService implements CategoryServiceInterface {
     }
 
     try {
-      Category savedCategory = categoryRepository.save(category);
+      Category savedCategory = categoryRepository.saveAndFlush(category);
+      Set<UUID> parentIds =
+          categoryRequest.parentIds() == null ? Set.of() : categoryRequest.parentIds();
+      categoryClosureRepository.insertForCategory(
+          savedCategory.getId(), parentIds.toArray(UUID[]::new));
+      categoryTreeCache.invalidate();
       log.info("Category created successfully with ID: {}", savedCategory.getId());
       return savedCategory;
     } catch (DataIntegrityViolationException e) {
@@ -61,15 +74,14 @@ public class CategoryService implements CategoryServiceInterface {
   @Override
   public List<CategoryResponse> getAllCategories() {
     log.info("Fetching all root categories");
-
-    List<Category> rootCategories = categoryRepository.findByParentCategoryIsNull();
-
-    List<CategoryResponse> response =
-        rootCategories.stream()
-            .map(categoryMapper::mapToCategoryResponse)
-            .collect(Collectors.toList());
-
+    List<CategoryResponse> response = categoryTreeCache.get().categories();
     log.info("Found {} root categories", response.size());
     return response;
   }
+
+  @Override
+  public RawJson getAllCategoriesJson() {
+    log.debug("Fetching encoded category tree");
+    return categoryTreeCache.get().json();
+  }
 }
@@ -2,47 +2,134 @@ package neora.service;
 
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import lombok.AllArgsConstructor;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.extern.slf4j.Slf4j;
 import neora.dto.CloudinaryResponse;
 import neora.interfaces.CloudinaryServiceInterface;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+// Images are handed to Cloudinary as files so that they are streamed from disk rather than copied
+// into the heap, and the images of one product are uploaded side by side on a bounded pool.
 @Service
-@AllArgsConstructor
-public class CloudinaryService implements CloudinaryServiceInterface {
+@Slf4j
+public class CloudinaryService implements CloudinaryServiceInterface, DisposableBean {
+  public static final String EXECUTOR_NAME = "image-uploads";
 
   private final Cloudinary cloudinary;
+  private final ExecutorService uploadExecutor;
+
+  public CloudinaryService(
+      Cloudinary cloudinary,
+      MeterRegistry meterRegistry,
+      @Value("${cloudinary.upload.workers:8}") int workers) {
+    this.cloudinary = cloudinary;
+    this.uploadExecutor =
+        ExecutorServiceMetrics.monitor(
+            meterRegistry,
+            Executors.newFixedThreadPool(
+                workers, new CustomizableThreadFactory(EXECUTOR_NAME + "-")),
+            EXECUTOR_NAME);
+  }
 
   @Override
   public CloudinaryResponse upload(MultipartFile file, String folder) throws IOException {
-    Map result =
-        cloudinary
-            .uploader()
-            .upload(
-                file.getBytes(),
-                ObjectUtils.asMap("resource_type", "auto", "folder", folder, "tags", folder));
-
-    return new CloudinaryResponse(
-        (String) result.get("public_id"), (String) result.get("secure_url"));
+    // The Cloudinary client only streams uploads given as files. Transferring to a File goes
+    // through Part.write, which renames the multipart temp file into place when the part is on
+    // disk; transferTo(Path) would copy it instead.
+    String extension = StringUtils.getFilenameExtension(file.getOriginalFilename());
+    Path path = Files.createTempFile("upload-", extension != null ? "." + extension : null);
+    try {
+      file.transferTo(path.toFile());
+      Map result =
+          cloudinary
+              .uploader()
+              .upload(
+                  path.toFile(),
+                  ObjectUtils.asMap("resource_type", "auto", "folder", folder, "tags", folder));
+
+      return new CloudinaryResponse(
+          (String) result.get("public_id"), (String) result.get("secure_url"));
+    } finally {
+      Files.deleteIfExists(path);
+    }
   }
 
+  // Waits for every upload before returning so that, if one of them failed, the images already
+  // stored can be deleted again instead of being left without a product.
   @Override
   public List<CloudinaryResponse> uploadMultiple(List<MultipartFile> files, String folder)
       throws IOException {
+    List<CompletableFuture<CloudinaryResponse>> uploads =
+        files.stream()
+            .map(
+                file ->
+                    CompletableFuture.supplyAsync(
+                        () -> {
+                          try {
+                            return upload(file, folder);
+                          } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                          }
+                        },
+                        uploadExecutor))
+            .toList();
+
     List<CloudinaryResponse> responses = new ArrayList<>();
-    for (MultipartFile file : files) {
-      responses.add(upload(file, folder));
+    RuntimeException failure = null;
+    for (CompletableFuture<CloudinaryResponse> upload : uploads) {
+      try {
+        responses.add(upload.join());
+      } catch (CompletionException e) {
+        if (failure == null) {
+          failure = e;
+        }
+      }
+    }
+    if (failure == null) {
+      return responses;
     }
-    return responses;
+
+    log.warn("Image upload to {} failed, deleting {} uploaded images", folder, responses.size());
+    for (CloudinaryResponse response : responses) {
+      try {
+        delete(response.publicId());
+      } catch (IOException | RuntimeException e) {
+        log.error("Could not delete uploaded image {}", response.publicId(), e);
+      }
+    }
+    if (failure.getCause() instanceof UncheckedIOException e) {
+      throw e.getCause();
+    }
+    if (failure.getCause() instanceof RuntimeException e) {
+      throw e;
+    }
+    throw failure;
   }
 
   @Override
   public Map<String, Object> delete(String publicId) throws IOException {
     return cloudinary.uploader().destroy(publicId, ObjectUtils.emptyMap());
   }
+
+  @Override
+  public void destroy() {
+    uploadExecutor.shutdown();
+  }
 }
@@ -0,0 +1,123 @@
+package neora.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import neora.config.RetryPolicy;
+import neora.entity.OutboxEmail;
+import neora.interfaces.EmailOutboxServiceInterface;
+import neora.model.OutboxStatus;
+import neora.repository.OutboxEmailRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+
+// Drains the email outbox in batches. Each batch goes out over a single SMTP connection, and no
+// database connection is held while the mail server is talked to.
+// Failed emails are retried as set by RetryPolicy and end up DEAD for inspection.
+@Service
+@Slf4j
+public class EmailOutboxService implements EmailOutboxServiceInterface {
+  private final OutboxEmailRepository outboxEmailRepository;
+  private final JavaMailSender mailSender;
+  private final int batchSize;
+  private final Duration lease;
+  private final RetryPolicy retryPolicy;
+  private final Duration retention;
+
+  public EmailOutboxService(
+      OutboxEmailRepository outboxEmailRepository,
+      JavaMailSender mailSender,
+      @Value("${mail.outbox.batch-size:50}") int batchSize,
+      @Value("${mail.outbox.lease:PT5M}") Duration lease,
+      @Value("${mail.outbox.max-attempts:8}") int maxAttempts,
+      @Value("${mail.outbox.initial-backoff:PT30S}") Duration initialBackoff,
+      @Value("${mail.outbox.max-backoff:PT1H}") Duration maxBackoff,
+      @Value("${mail.outbox.retention:P7D}") Duration retention) {
+    this.outboxEmailRepository = outboxEmailRepository;
+    this.mailSender = mailSender;
+    this.batchSize = batchSize;
+    this.lease = lease;
+    this.retryPolicy = new RetryPolicy(maxAttempts, initialBackoff, maxBackoff);
+    this.retention = retention;
+  }
+
+  @Override
+  public int dispatchPending() {
+    int sent = 0;
+    List<OutboxEmail> batch;
+    do {
+      Instant now = Instant.now();
+      batch = outboxEmailRepository.claimDue(now, now.plus(lease), batchSize);
+      if (!batch.isEmpty()) {
+        sent += send(batch);
+      }
+    } while (batch.size() == batchSize);
+    return sent;
+  }
+
+  @Override
+  public int purgeSentEmails() {
+    return outboxEmailRepository.deleteSentBefore(Instant.now().minus(retention));
+  }
+
+  private int send(List<OutboxEmail> batch) {
+    SimpleMailMessage[] messages =
+        batch.stream().map(this::toMessage).toArray(SimpleMailMessage[]::new);
+    Map<Object, Exception> failures = Map.of();
+    MailException batchFailure = null;
+    try {
+      mailSender.send(messages);
+    } catch (MailSendException e) {
+      failures = e.getFailedMessages();
+      if (failures.isEmpty()) {
+        batchFailure = e;
+      }
+    } catch (MailException e) {
+      batchFailure = e;
+    }
+
+    List<UUID> sent = new ArrayList<>();
+    for (int i = 0; i < batch.size(); i++) {
+      Exception failure = batchFailure != null ? batchFailure : failures.get(messages[i]);
+      if (failure == null) {
+        sent.add(batch.get(i).getId());
+      } else {
+        retryLater(batch.get(i), failure);
+      }
+    }
+    if (!sent.isEmpty()) {
+      outboxEmailRepository.markSent(sent, Instant.now());
+    }
+    return sent.size();
+  }
+
+  private void retryLater(OutboxEmail email, Exception failure) {
+    retryPolicy.onFailure(
+        "email " + email.getId() + " to " + email.getRecipient(),
+        email.getAttempts(),
+        failure,
+        (deadLetter, nextAttemptAt, error) ->
+            outboxEmailRepository.markFailed(
+                email.getId(),
+                deadLetter ? OutboxStatus.DEAD : OutboxStatus.PENDING,
+                nextAttemptAt,
+                error));
+  }
+
+  private SimpleMailMessage toMessage(OutboxEmail email) {
+    SimpleMailMessage message = new SimpleMailMessage();
+    message.setFrom(email.getSender());
+    message.setTo(email.getRecipient());
+    message.setSubject(email.getSubject());
+    message.setText(email.getBody());
+    return message;
+  }
+}
@@ -1,18 +1,23 @@
 package neora.service;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.regex.Pattern;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import neora.entity.MailConfirmation;
+import neora.entity.OutboxEmail;
 import neora.entity.User;
 import neora.exception.InvalidTokenException;
 import neora.interfaces.CartServiceInterface;
 import neora.interfaces.EmailServiceInterface;
+import neora.model.ConfirmationToken;
 import neora.repository.MailConfirmationRepository;
+import neora.repository.OutboxEmailRepository;
 import neora.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -20,7 +25,7 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 @Slf4j
 public class EmailService implements EmailServiceInterface {
-  private final JavaMailSender mailSender;
+  private final OutboxEmailRepository outboxEmailRepository;
   private final MailConfirmationRepository mailConfirmationRepository;
   private final UserRepository userRepository;
   private final PasswordEncoder passwordEncoder;
@@ -30,33 +35,28 @@ public class EmailService implements EmailServiceInterface {
   private String apiUrl;
 
   private static final String email = "no-reply@neora.com";
+  private static final Pattern LEGACY_TOKEN =
+      Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+
+  private volatile boolean legacyConfirmationsLeft = true;
 
   @Override
   public void sendRegistrationConfirmationEmail(String to, String token) {
-    log.info("Sending registration confirmation email to: {}", to);
+    log.info("Queuing registration confirmation email to: {}", to);
     String confirmationLink = apiUrl + "api/v1/email/confirm?token=" + token;
 
-    SimpleMailMessage message = new SimpleMailMessage();
-    message.setFrom(email);
-    message.setTo(to);
-    message.setSubject("Confirmez votre compte");
-    message.setText("Cliquez sur ce lien pour confirmer votre compte :\n" + confirmationLink);
-
-    try {
-      mailSender.send(message);
-      log.info("Registration confirmation email sent successfully to: {}", to);
-    } catch (Exception e) {
-      log.error("Failed to send registration confirmation email to: {}", to, e);
-    }
+    enqueue(
+        email,
+        to,
+        "Confirmez votre compte",
+        "Cliquez sur ce lien pour confirmer votre compte :\n" + confirmationLink);
   }
 
   @Override
   public void confirmEmail(String token) {
     log.info("Attempting to confirm email with token");
     MailConfirmation mailConfirmation =
-        mailConfirmationRepository.findAll().stream()
-            .filter(t -> passwordEncoder.matches(token, t.getToken()))
-            .findFirst()
+        findConfirmation(token)
             .orElseThrow(
                 () -> {
                   log.warn("Email confirmation failed: Invalid token provided");
@@ -81,41 +81,65 @@ public class EmailService implements EmailServiceInterface {
     log.debug("Deleted confirmation token for user ID: {}", user.getId());
   }
 
+  private Optional<MailConfirmation> findConfirmation(String token) {
+    Optional<ConfirmationToken> parsed = ConfirmationToken.parse(token);
+    if (parsed.isPresent()) {
+      return mailConfirmationRepository
+          .findBySelector(parsed.get().selector())
+          .filter(confirmation -> parsed.get().matches(confirmation.getVerifierHash()));
+    }
+    // Links sent before selector/verifier tokens carry a bare UUID checked against BCrypt hashes.
+    // Such rows are no longer created and expire within a day, so the unexpired ones are few and
+    // all of them are checked; once none is left the path is closed for good. Only well-formed
+    // UUIDs are hashed, and the endpoint is rate limited under the auth policy.
+    if (!legacyConfirmationsLeft || token == null || !LEGACY_TOKEN.matcher(token).matches()) {
+      return Optional.empty();
+    }
+    List<MailConfirmation> legacy =
+        mailConfirmationRepository.findAllBySelectorIsNullAndExpiresAtAfter(Instant.now());
+    if (legacy.isEmpty()) {
+      log.info("No legacy email confirmations left, bare UUID tokens are now rejected");
+      legacyConfirmationsLeft = false;
+      return Optional.empty();
+    }
+    return legacy.stream()
+        .filter(confirmation -> passwordEncoder.matches(token, confirmation.getToken()))
+        .findFirst();
+  }
+
+  @Override
+  public int purgeExpiredConfirmations() {
+    return mailConfirmationRepository.deleteExpired(Instant.now());
+  }
+
   @Override
   public void sendOrderPassedConfirmationEmail(String to, UUID orderId) {
-    log.info("Sending order confirmation email for order ID: {} to: {}", orderId, to);
+    log.info("Queuing order confirmation email for order ID: {} to: {}", orderId, to);
     String orderLink = apiUrl + "api/v1/orders/" + orderId;
 
-    SimpleMailMessage message = new SimpleMailMessage();
-    message.setFrom(email);
-    message.setTo(to);
-    message.setSubject("Order passed succesfully");
-    message.setText("Your order has been passed succesfully: \n " + orderLink);
-
-    try {
-      mailSender.send(message);
-      log.info("Order confirmation email sent successfully for order ID: {}", orderId);
-    } catch (Exception e) {
-      log.error("Failed to send order confirmation email for order ID: {}", orderId, e);
-    }
+    enqueue(
+        email,
+        to,
+        "Order passed succesfully",
+        "Your order has been passed succesfully: \n " + orderLink);
   }
 
   @Override
   public void sendOrderCancelledConfirmationEmail(String to, UUID orderId) {
-    log.info("Sending order cancellation email for order ID: {} to: {}", orderId, to);
+    log.info("Queuing order cancellation email for order ID: {} to: {}", orderId, to);
     String orderLink = apiUrl + "api/v1/orders/" + orderId;
 
-    SimpleMailMessage message = new SimpleMailMessage();
-    message.setFrom("no-replyaxelttest@app.com");
-    message.setTo(to);
-    message.setSubject("Order cancelled succesfully");
-    message.setText("Your order has been cancelled succesfully: \n " + orderLink);
-
-    try {
-      mailSender.send(message);
-      log.info("Order cancellation email sent successfully for order ID: {}", orderId);
-    } catch (Exception e) {
-      log.error("Failed to send order cancellation email for order ID: {}", orderId, e);
-    }
+    enqueue(
+        "no-replyaxelttest@app.com",
+        to,
+        "Order cancelled succesfully",
+        "Your order has been cancelled succesfully: \n " + orderLink);
+  }
+
+  // Emails are written to the outbox in the caller's transaction, so they are only sent once it
+  // commits and EmailOutboxJob delivers them without holding up the request.
+  private void enqueue(String from, String to, String subject, String body) {
+    outboxEmailRepository.save(
+        OutboxEmail.builder().sender(from).recipient(to).subject(subject).body(body).build());
   }
 }
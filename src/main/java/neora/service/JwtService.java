@@ -1,14 +1,23 @@
 package neora.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+import neora.entity.User;
+import neora.model.Role;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseCookie;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,70 +25,137 @@ import org.springframework.stereotype.Service;
 
 @Service
 public class JwtService {
-
-  @Value("${jwt.secret}")
-  private String secretKey;
-
-  @Value("${jwt.expiration}")
-  private Long jwtExpiration;
-
-  @Value("${jwt.refresh.expiration}")
-  private Long jwtRefreshExpiration;
-
+  public static final String USER_ID_CLAIM = "uid";
+  public static final String ROLES_CLAIM = "roles";
   private static final String sameSiteStrict = "Strict";
 
+  private final Long jwtExpiration;
+  private final Long jwtRefreshExpiration;
+  private final String signingKeyId;
+  private final Key signingKey;
+  private final Map<String, Key> verificationKeys;
+  private final JwtParser parser;
+
+  // Keys are decoded once and the parser is immutable, so both are shared by every request.
+  // Retired keys are listed as kid:secret pairs and only verify tokens signed before a rotation.
+  public JwtService(
+      @Value("${jwt.secret}") String secretKey,
+      @Value("${jwt.key-id:primary}") String signingKeyId,
+      @Value("${jwt.retired-keys:}") List<String> retiredKeys,
+      @Value("${jwt.expiration}") Long jwtExpiration,
+      @Value("${jwt.refresh.expiration}") Long jwtRefreshExpiration) {
+    this.jwtExpiration = jwtExpiration;
+    this.jwtRefreshExpiration = jwtRefreshExpiration;
+    this.signingKeyId = signingKeyId;
+    this.signingKey = decodeKey(secretKey);
+
+    Map<String, Key> keys = new HashMap<>();
+    for (String retiredKey : retiredKeys) {
+      String[] parts = retiredKey.trim().split(":", 2);
+      if (parts.length != 2) {
+        throw new IllegalArgumentException("Retired JWT keys must be formatted as kid:secret");
+      }
+      keys.put(parts[0], decodeKey(parts[1]));
+    }
+    keys.put(signingKeyId, signingKey);
+    this.verificationKeys = Map.copyOf(keys);
+    this.parser =
+        Jwts.parserBuilder()
+            .setSigningKeyResolver(
+                new SigningKeyResolverAdapter() {
+                  @Override
+                  public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                    return resolveVerificationKey(header.getKeyId());
+                  }
+                })
+            .build();
+  }
+
   public String extractUsername(String token) {
     return extractClaim(token, Claims::getSubject);
   }
 
   public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-    final Claims claims = extractAllClaims(token);
+    final Claims claims = parseClaims(token);
     return claimsResolver.apply(claims);
   }
 
   public String generateToken(UserDetails userDetails) {
-    return buildToken(new HashMap<>(), userDetails, jwtExpiration);
+    return buildToken(principalClaims(userDetails), userDetails, jwtExpiration);
   }
 
   public String generateRefreshToken(UserDetails userDetails) {
-    return buildToken(new HashMap<>(), userDetails, jwtRefreshExpiration);
+    return buildToken(principalClaims(userDetails), userDetails, jwtRefreshExpiration);
+  }
+
+  // The user id and roles travel in the token so that authenticated requests can build their
+  // principal without loading the user.
+  private Map<String, Object> principalClaims(UserDetails userDetails) {
+    Map<String, Object> claims = new HashMap<>();
+    if (userDetails instanceof User user) {
+      claims.put(USER_ID_CLAIM, user.getId().toString());
+      claims.put(ROLES_CLAIM, user.getRoles().stream().map(Role::name).sorted().toList());
+    }
+    return claims;
   }
 
   public String buildToken(
       Map<String, Object> extraClaims, UserDetails userDetails, long expiration) {
     return Jwts.builder()
+        .setHeaderParam(JwsHeader.KEY_ID, signingKeyId)
         .setClaims(extraClaims)
         .setSubject(userDetails.getUsername())
+        .setId(UUID.randomUUID().toString())
         .setIssuedAt(new Date(System.currentTimeMillis()))
         .setExpiration(new Date(System.currentTimeMillis() + expiration))
-        .signWith(getSignInKey())
+        .signWith(signingKey)
         .compact();
   }
 
+  public UUID extractTokenId(String token) {
+    return extractClaim(token, claims -> UUID.fromString(claims.getId()));
+  }
+
   public boolean isTokenValid(String token, UserDetails userDetails) {
-    final String username = extractUsername(token);
-    return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+    final Claims claims = parseClaims(token);
+    return claims.getSubject().equals(userDetails.getUsername())
+        && !claims.getExpiration().before(new Date());
   }
 
-  private boolean isTokenExpired(String token) {
-    return extractExpiration(token).before(new Date());
+  public boolean hasPrincipalClaims(Claims claims) {
+    return claims.getId() != null
+        && claims.get(USER_ID_CLAIM) != null
+        && claims.get(ROLES_CLAIM) != null;
+  }
+
+  public User toPrincipal(Claims claims) {
+    List<?> roles = claims.get(ROLES_CLAIM, List.class);
+    return User.builder()
+        .id(UUID.fromString(claims.get(USER_ID_CLAIM, String.class)))
+        .email(claims.getSubject())
+        .roles(
+            roles.stream().map(role -> Role.valueOf(role.toString())).collect(Collectors.toSet()))
+        .build();
   }
 
-  private Date extractExpiration(String token) {
-    return extractClaim(token, Claims::getExpiration);
+  public Claims parseClaims(String token) {
+    return parser.parseClaimsJws(token).getBody();
   }
 
-  private Claims extractAllClaims(String token) {
-    return Jwts.parserBuilder()
-        .setSigningKey(getSignInKey())
-        .build()
-        .parseClaimsJws(token)
-        .getBody();
+  // Tokens issued before key ids were added carry no kid and were signed with the current key.
+  private Key resolveVerificationKey(String keyId) {
+    if (keyId == null) {
+      return signingKey;
+    }
+    Key key = verificationKeys.get(keyId);
+    if (key == null) {
+      throw new SignatureException("Unknown signing key id: " + keyId);
+    }
+    return key;
   }
 
-  private Key getSignInKey() {
-    byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-    return Keys.hmacShaKeyFor(keyBytes);
+  private static Key decodeKey(String secret) {
+    return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
   }
 
   public ResponseCookie generateAccessTokenCookie(String token) {
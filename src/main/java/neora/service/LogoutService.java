@@ -5,6 +5,8 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import neora.cache.TokenRevocationCache;
+import neora.entity.Token;
 import neora.repository.TokenRepository;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseCookie;
@@ -20,6 +22,7 @@ public class LogoutService implements LogoutHandler {
 
   private final TokenRepository tokenRepository;
   private final JwtService jwtService;
+  private final TokenRevocationCache tokenRevocationCache;
 
   @Override
   public void logout(
@@ -47,12 +50,15 @@ public class LogoutService implements LogoutHandler {
       return;
     }
 
-    var storedToken = tokenRepository.findByJwtToken(jwt).orElse(null);
+    var storedToken = tokenRepository.findByTokenHash(Token.hash(jwt)).orElse(null);
     if (storedToken != null) {
       log.info("Logging out user with token for user ID: {}", storedToken.getUser().getId());
       storedToken.setExpired(true);
       storedToken.setRevoked(true);
       tokenRepository.save(storedToken);
+      if (storedToken.getTokenId() != null) {
+        tokenRevocationCache.revoke(storedToken.getTokenId());
+      }
       SecurityContextHolder.clearContext();
       log.info("User logged out successfully");
     } else {
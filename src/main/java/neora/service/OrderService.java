@@ -2,10 +2,9 @@ package neora.service;
 
 import com.stripe.exception.StripeException;
 import com.stripe.model.PaymentIntent;
-import com.stripe.model.Refund;
-import com.stripe.param.RefundCreateParams;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
@@ -13,12 +12,12 @@ import lombok.extern.slf4j.Slf4j;
 import neora.dto.*;
 import neora.entity.*;
 import neora.exception.EmptyCartException;
-import neora.exception.InsufficientStockException;
 import neora.exception.ResourceNotFoundException;
 import neora.exception.UnauthorizedAccess;
 import neora.interfaces.EmailServiceInterface;
 import neora.interfaces.OrderServiceInterface;
 import neora.interfaces.ShippingAddressServiceInterface;
+import neora.interfaces.StockReservationServiceInterface;
 import neora.interfaces.StockServiceInterface;
 import neora.mapper.OrderItemMapper;
 import neora.mapper.OrderMapper;
@@ -29,6 +28,7 @@ import neora.repository.CartItemRepository;
 import neora.repository.OrderRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @AllArgsConstructor
@@ -38,16 +38,30 @@ public class OrderService implements OrderServiceInterface {
   private final OrderRepository orderRepository;
   private final OrderItemMapper orderItemMapper;
   private final StockServiceInterface stockService;
+  private final StockReservationServiceInterface stockReservationService;
   private final OrderMapper orderMapper;
   private final StripeService stripeService;
   private final ShippingAddressServiceInterface shippingAddressService;
   private final EmailServiceInterface emailService;
+  private final TransactionTemplate transactionTemplate;
 
+  // Checkout runs in three steps so that no connection or row lock is held while Stripe answers:
+  // the order and its reservation are committed first, the PaymentIntent is created outside any
+  // transaction, and its id is attached afterwards with a single update. If Stripe fails, the
+  // order is marked PAYMENT_FAILED and its stock released, leaving it open to retryPayment.
   @Override
-  @Transactional
   public PaymentResponse initiateOrder(User user, OrderRequest request) throws StripeException {
+    PendingPayment pending = transactionTemplate.execute(status -> createOrder(user, request));
+    PaymentIntent intent = createPaymentIntent(pending);
+    log.info("Stripe PaymentIntent created with ID: {}", intent.getId());
+
+    attachPaymentIntent(pending.order(), intent);
+    return new PaymentResponse(pending.response(), intent.getClientSecret());
+  }
+
+  private PendingPayment createOrder(User user, OrderRequest request) {
     log.info("Initiating order for user ID: {}", user.getId());
-    List<CartItem> foundItems = cartItemRepository.findAllById(request.productIds());
+    List<CartItem> foundItems = cartItemRepository.findAllByIdIn(request.productIds());
 
     if (foundItems.isEmpty()) {
       log.warn("Order initiation failed: No products found in cart for user ID: {}", user.getId());
@@ -56,17 +70,6 @@ public class OrderService implements OrderServiceInterface {
 
     for (CartItem cartItem : foundItems) {
       validateCartItemOwnership(user, cartItem);
-
-      int currentStock = stockService.getCurrentStock(cartItem.getProduct());
-      if (currentStock < cartItem.getQuantity()) {
-        log.warn(
-            "Order initiation failed: Insufficient stock for product '{}'. Requested: {}, Available: {}",
-            cartItem.getProduct().getName(),
-            cartItem.getQuantity(),
-            currentStock);
-        throw new InsufficientStockException(
-            "Insufficient stock for product: " + cartItem.getProduct().getName());
-      }
     }
 
     ShippingAddress shippingAddress =
@@ -91,21 +94,16 @@ public class OrderService implements OrderServiceInterface {
     orderRepository.save(order);
     log.info("Order created with ID: {} and status PENDING", order.getId());
 
+    stockReservationService.reserve(order);
+
     BigDecimal total = getOrderTotalAmount(orderItems);
     log.debug("Total order amount calculated: {}", total);
-
-    PaymentIntent intent = stripeService.createPaymentIntent(order, total);
-    log.info("Stripe PaymentIntent created with ID: {}", intent.getId());
-
-    order.setStripePaymentIntentId(intent.getId());
-    Order savedOrder = orderRepository.save(order);
-
-    return new PaymentResponse(buildOrderResponse(savedOrder), intent.getClientSecret());
+    return new PendingPayment(order, total, buildOrderResponse(order));
   }
 
   @Override
   @Transactional
-  public void confirmPayment(UUID orderId) {
+  public void confirmPayment(UUID orderId, String paymentIntentId) {
     log.info("Confirming payment for order ID: {}", orderId);
     Order order =
         orderRepository
@@ -116,6 +114,13 @@ public class OrderService implements OrderServiceInterface {
                   return new ResourceNotFoundException("Order not found");
                 });
 
+    // Checkout stores the id once Stripe has created the intent, but that step can fail after the
+    // intent exists; refunds need the id, so the webhook fills it in.
+    if (order.getStripePaymentIntentId() == null && paymentIntentId != null) {
+      log.warn("Order ID: {} had no PaymentIntent id, storing {}", orderId, paymentIntentId);
+      order.setStripePaymentIntentId(paymentIntentId);
+    }
+
     if (order.getStatus() == OrderStatus.PAID) {
       log.info("Order ID: {} is already PAID, skipping confirmation", orderId);
       return;
@@ -127,11 +132,13 @@ public class OrderService implements OrderServiceInterface {
 
     emailService.sendOrderPassedConfirmationEmail(order.getUser().getEmail(), order.getId());
 
-    for (OrderItem orderItem : order.getOrderItems()) {
-      stockService.createStockMovement(
-          orderItem.getProduct(), orderItem.getQuantity(), StockType.OUT, StockReason.SALE);
+    if (stockReservationService.commit(order)) {
+      log.debug("Stock movements created for order ID: {}", orderId);
+    } else {
+      order.setStockShortage(true);
+      log.error(
+          "Order ID: {} is PAID but its stock is short, flagged for manual handling", orderId);
     }
-    log.debug("Stock movements created for order ID: {}", orderId);
 
     List<CartItem> itemsToRemove = cartItemRepository.findAllByCartUser(order.getUser());
     cartItemRepository.deleteAll(itemsToRemove);
@@ -151,14 +158,36 @@ public class OrderService implements OrderServiceInterface {
                   return new ResourceNotFoundException("Order not found");
                 });
 
+    // A failure reported for an earlier payment attempt must not undo a later successful one.
+    if (order.getStatus() == OrderStatus.PAID) {
+      log.info("Order ID: {} is already PAID, ignoring payment failure", orderId);
+      return;
+    }
+
     order.setStatus(OrderStatus.PAYMENT_FAILED);
     orderRepository.save(order);
+    stockReservationService.release(order);
     log.info("Order ID: {} status updated to PAYMENT_FAILED", orderId);
   }
 
   @Override
-  @Transactional
   public PaymentResponse retryPayment(User user, UUID orderId) throws StripeException {
+    PendingPayment pending = transactionTemplate.execute(status -> reopenOrder(user, orderId));
+    PaymentIntent intent = createPaymentIntent(pending);
+    log.info("New Stripe PaymentIntent created with ID: {}", intent.getId());
+
+    Order order = pending.order();
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          attachPaymentIntent(order, intent);
+          emailService.sendOrderPassedConfirmationEmail(order.getUser().getEmail(), orderId);
+        });
+    log.info("Order ID: {} is PENDING with new PaymentIntent", orderId);
+
+    return new PaymentResponse(pending.response(), intent.getClientSecret());
+  }
+
+  private PendingPayment reopenOrder(User user, UUID orderId) {
     log.info("Retrying payment for order ID: {} by user ID: {}", orderId, user.getId());
     Order order =
         orderRepository
@@ -182,19 +211,32 @@ public class OrderService implements OrderServiceInterface {
       throw new IllegalStateException("Order is already paid");
     }
 
-    BigDecimal total = getOrderTotalAmount(new HashSet<>(order.getOrderItems()));
-
-    PaymentIntent intent = stripeService.createPaymentIntent(order, total);
-    log.info("New Stripe PaymentIntent created with ID: {}", intent.getId());
+    stockReservationService.release(order);
+    stockReservationService.reserve(order);
 
-    order.setStripePaymentIntentId(intent.getId());
     order.setStatus(OrderStatus.PENDING);
     orderRepository.save(order);
-    log.info("Order ID: {} status updated to PENDING with new PaymentIntent", orderId);
 
-    emailService.sendOrderPassedConfirmationEmail(order.getUser().getEmail(), order.getId());
+    BigDecimal total = getOrderTotalAmount(new HashSet<>(order.getOrderItems()));
+    return new PendingPayment(order, total, buildOrderResponse(order));
+  }
 
-    return new PaymentResponse(buildOrderResponse(order), intent.getClientSecret());
+  private PaymentIntent createPaymentIntent(PendingPayment pending) throws StripeException {
+    UUID orderId = pending.order().getId();
+    try {
+      return stripeService.createPaymentIntent(pending.order(), pending.total());
+    } catch (StripeException | RuntimeException e) {
+      log.error("PaymentIntent creation failed for order ID: {}, releasing its stock", orderId, e);
+      transactionTemplate.executeWithoutResult(status -> markPaymentAsFailed(orderId));
+      throw e;
+    }
+  }
+
+  // A failure here leaves the order without its PaymentIntent id until the payment_intent.succeeded
+  // webhook stores it; the webhooks find the order through the intent metadata.
+  private void attachPaymentIntent(Order order, PaymentIntent intent) {
+    order.setStripePaymentIntentId(intent.getId());
+    orderRepository.attachPaymentIntent(order.getId(), intent.getId(), Instant.now());
   }
 
   @Override
@@ -222,9 +264,7 @@ public class OrderService implements OrderServiceInterface {
     switch (order.getStatus()) {
       case PAID -> {
         log.info("Order ID: {} is PAID, initiating refund", order.getId());
-        RefundCreateParams params =
-            RefundCreateParams.builder().setPaymentIntent(order.getStripePaymentIntentId()).build();
-        Refund.create(params);
+        stripeService.refundPayment(order.getStripePaymentIntentId());
         log.info("Refund initiated for order ID: {}", order.getId());
 
         order.setStatus(OrderStatus.REFUNDED);
@@ -238,6 +278,7 @@ public class OrderService implements OrderServiceInterface {
       }
       case PENDING -> {
         order.setStatus(OrderStatus.CANCELLED);
+        stockReservationService.release(order);
         log.info("Order ID: {} status updated to CANCELLED", order.getId());
       }
       case CANCELLED, REFUNDED -> {
@@ -335,4 +376,6 @@ public class OrderService implements OrderServiceInterface {
   private Set<UUID> extractProductIds(Collection<OrderItem> orderItems) {
     return orderItems.stream().map(item -> item.getProduct().getId()).collect(Collectors.toSet());
   }
+
+  private record PendingPayment(Order order, BigDecimal total, OrderResponse response) {}
 }
@@ -4,9 +4,14 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import neora.cache.ProductDetailCache;
+import neora.cache.ProductSuggestionIndex;
 import neora.dto.*;
 import neora.entity.Category;
 import neora.entity.Product;
@@ -18,6 +23,8 @@ import neora.interfaces.ProductServiceInterface;
 import neora.interfaces.RatingServiceInterface;
 import neora.interfaces.StockServiceInterface;
 import neora.mapper.ProductMapper;
+import neora.model.ProductCursor;
+import neora.model.ProductSearch;
 import neora.model.StockReason;
 import neora.model.StockType;
 import neora.repository.CategoryRepository;
@@ -36,6 +43,8 @@ import org.springframework.web.multipart.MultipartFile;
 @AllArgsConstructor
 @Slf4j
 public class ProductService implements ProductServiceInterface {
+  private static final int MAX_SUGGESTIONS = 20;
+
   private final ProductRepository productRepository;
   private final CategoryRepository categoryRepository;
   private final VendorRepository vendorRepository;
@@ -45,6 +54,8 @@ public class ProductService implements ProductServiceInterface {
   private final ProductImageRepository productImageRepository;
   private final RatingServiceInterface ratingService;
   private final SlugService slugService;
+  private final ProductDetailCache productDetailCache;
+  private final ProductSuggestionIndex productSuggestionIndex;
 
   @Override
   @Transactional
@@ -115,6 +126,9 @@ public class ProductService implements ProductServiceInterface {
         productRequest.stock(),
         savedProduct.getId());
 
+    productDetailCache.evict(savedProduct.getId());
+    productSuggestionIndex.refresh(savedProduct.getId());
+
     return productMapper.toResponse(savedProduct, productRequest.stock());
   }
 
@@ -126,46 +140,61 @@ public class ProductService implements ProductServiceInterface {
         categoryId,
         search,
         pageable.getPageNumber());
-    Specification<Product> spec =
-        Specification.allOf(
-            ProductSpecification.hasCategory(categoryId),
-            ProductSpecification.nameContains(search));
-
-    Page<Product> products = productRepository.findAll(spec, pageable);
+    Optional<ProductSearch> fullText = ProductSearch.of(search);
+    Page<Product> products;
+    if (fullText.isPresent() && pageable.getSort().isUnsorted()) {
+      products =
+          productRepository.searchRanked(
+              categoryId, fullText.get().tsQuery(), fullText.get().pattern(), pageable);
+    } else {
+      Specification<Product> spec =
+          Specification.allOf(
+              ProductSpecification.inCategoryTree(categoryId),
+              ProductSpecification.nameContains(search));
+      products = productRepository.findAll(spec, pageable);
+    }
     log.info(
         "Found {} products on page {}", products.getNumberOfElements(), pageable.getPageNumber());
 
     return getAllProductsResponses(products);
   }
 
+  @Override
+  public CursorPagedResponse<AllProductsResponse> getAllProductsByCursor(
+      UUID categoryId, String search, String cursor, Pageable pageable) {
+    log.info(
+        "Fetching products with categoryId: {}, search: '{}', after cursor: '{}'",
+        categoryId,
+        search,
+        cursor);
+    Specification<Product> spec =
+        Specification.allOf(
+            ProductSpecification.inCategoryTree(categoryId),
+            ProductSpecification.nameContains(search));
+    return getCursorPage(spec, cursor, pageable);
+  }
+
   @Override
   public ProductResponse getProductById(UUID productId) {
     log.info("Fetching product with ID: {}", productId);
-    Product product =
-        productRepository
-            .findById(productId)
-            .orElseThrow(
-                () -> {
-                  log.error("Product not found for ID: {}", productId);
-                  return new ResourceNotFoundException("Product not found.");
-                });
-    log.info("Found product: {}", product.getName());
-    return productMapper.toResponse(product, stockService.getCurrentStock(product));
+    return withLiveData(productDetailCache.get(productId, () -> loadProduct(productId)));
   }
 
   @Override
   public ProductResponse getProductBySlug(String slug) {
     log.info("Fetching product with slug: {}", slug);
-    Product product =
-        productRepository
-            .findBySlug(slug)
-            .orElseThrow(
-                () -> {
-                  log.error("Product not found for slug: {}", slug);
-                  return new ResourceNotFoundException("Product not found.");
-                });
-    log.info("Found product: {}", product.getName());
-    return productMapper.toResponse(product, stockService.getCurrentStock(product));
+    UUID productId =
+        productDetailCache.resolveSlug(
+            slug,
+            () ->
+                productRepository
+                    .findIdBySlug(slug)
+                    .orElseThrow(
+                        () -> {
+                          log.error("Product not found for slug: {}", slug);
+                          return new ResourceNotFoundException("Product not found.");
+                        }));
+    return withLiveData(productDetailCache.get(productId, () -> loadProduct(productId)));
   }
 
   @Override
@@ -181,7 +210,8 @@ public class ProductService implements ProductServiceInterface {
 
                   return new ResourceNotFoundException("Category not found");
                 });
-    Page<Product> products = productRepository.findAllProductsByCategory(category, pageable);
+    Page<Product> products =
+        productRepository.findAll(ProductSpecification.inCategoryTree(category.getId()), pageable);
     log.info(
         "Found {} products in category '{}' on page {}",
         products.getNumberOfElements(),
@@ -190,26 +220,110 @@ public class ProductService implements ProductServiceInterface {
     return getAllProductsResponses(products);
   }
 
+  @Override
+  public CursorPagedResponse<AllProductsResponse> getProductsByCategoryByCursor(
+      UUID categoryId, String cursor, Pageable pageable) {
+    log.info("Fetching products for category ID: {}, after cursor: '{}'", categoryId, cursor);
+    Category category =
+        categoryRepository
+            .findById(categoryId)
+            .orElseThrow(
+                () -> {
+                  log.error("Category not found for ID: {}", categoryId);
+                  return new ResourceNotFoundException("Category not found");
+                });
+    return getCursorPage(ProductSpecification.inCategoryTree(category.getId()), cursor, pageable);
+  }
+
+  @Override
+  public List<ProductSuggestion> getSuggestions(String query, UUID categoryId, int limit) {
+    int boundedLimit = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+    List<ProductSuggestion> suggestions =
+        productSuggestionIndex.suggest(query, categoryId, boundedLimit);
+    log.debug("Found {} suggestions for query '{}'", suggestions.size(), query);
+    return suggestions;
+  }
+
+  private ProductResponse loadProduct(UUID productId) {
+    Product product =
+        productRepository
+            .findWithDetailsById(productId)
+            .orElseThrow(
+                () -> {
+                  log.error("Product not found for ID: {}", productId);
+                  return new ResourceNotFoundException("Product not found.");
+                });
+    log.info("Found product: {}", product.getName());
+    return productMapper.toResponse(product, null);
+  }
+
+  private ProductResponse withLiveData(ProductResponse product) {
+    Integer stock =
+        productDetailCache.getStock(
+            product.id(),
+            () -> stockService.getCurrentStock(productRepository.getReferenceById(product.id())));
+    Double vendorRating =
+        product.vendor() == null
+            ? null
+            : productDetailCache.getVendorRating(
+                product.vendor().id(), () -> ratingService.getVendorRating(product.vendor().id()));
+    return productMapper.withLiveData(product, stock, vendorRating);
+  }
+
+  private CursorPagedResponse<AllProductsResponse> getCursorPage(
+      Specification<Product> spec, String cursor, Pageable pageable) {
+    ProductCursor position =
+        cursor.isBlank() ? ProductCursor.first(pageable.getSort()) : ProductCursor.decode(cursor);
+    int size = pageable.getPageSize();
+
+    // One extra row tells whether a next page exists without running a count query.
+    List<Product> products =
+        productRepository.findBy(
+            spec.and(ProductSpecification.after(position)),
+            query -> query.sortBy(position.toSort()).limit(size + 1).all());
+
+    boolean last = products.size() <= size;
+    List<Product> content = last ? products : products.subList(0, size);
+    String nextCursor = last ? null : position.after(content.get(size - 1)).encode();
+    log.info("Found {} products after cursor, last page: {}", content.size(), last);
+
+    List<AllProductsResponse> responses =
+        content.isEmpty()
+            ? List.of()
+            : content.stream().map(toAllProductsResponse(content)).toList();
+    return new CursorPagedResponse<>(responses, size, nextCursor, last);
+  }
+
   private Page<AllProductsResponse> getAllProductsResponses(Page<Product> products) {
     if (products.isEmpty()) {
       return Page.empty();
     }
-    List<UUID> productIds = products.map(Product::getId).toList();
-    log.debug("Fetching stock and ratings for {} product IDs", productIds.size());
+    return products.map(toAllProductsResponse(products.getContent()));
+  }
+
+  private Function<Product, AllProductsResponse> toAllProductsResponse(List<Product> products) {
+    List<UUID> productIds = products.stream().map(Product::getId).toList();
+    log.debug("Fetching stock, ratings and primary images for {} product IDs", productIds.size());
 
     Map<UUID, Integer> stockMap = stockService.getStocks(productIds);
     Map<UUID, Double> ratingMap = ratingService.getRatings(productIds);
-    log.debug("Successfully fetched stock and ratings");
-
-    return products.map(
-        product ->
-            new AllProductsResponse(
-                product.getId(),
-                product.getName(),
-                product.getPrice(),
-                product.getSlug(),
-                stockMap.getOrDefault(product.getId(), 0),
-                product.getPrimaryImage().getImageUrl(),
-                ratingMap.getOrDefault(product.getId(), 5.0)));
+    Map<UUID, String> imageMap =
+        productImageRepository.getPrimaryImagesForProducts(productIds).stream()
+            .collect(
+                Collectors.toMap(
+                    ProductPrimaryImage::getProductId,
+                    ProductPrimaryImage::getImageUrl,
+                    (first, second) -> first));
+    log.debug("Successfully fetched stock, ratings and primary images");
+
+    return product ->
+        new AllProductsResponse(
+            product.getId(),
+            product.getName(),
+            product.getPrice(),
+            product.getSlug(),
+            stockMap.getOrDefault(product.getId(), 0),
+            imageMap.get(product.getId()),
+            ratingMap.getOrDefault(product.getId(), 5.0));
   }
 }
@@ -1,6 +1,5 @@
 package neora.service;
 
-import io.github.bucket4j.Bucket;
 import io.github.bucket4j.ConsumptionProbe;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
@@ -8,6 +7,8 @@ import neora.config.BucketCache;
 import neora.config.RateLimitKeyResolver;
 import neora.config.RateLimitPolicyResolver;
 import neora.dto.RateLimitResult;
+import neora.model.RateLimitKey;
+import neora.model.RateLimitRule;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -19,11 +20,9 @@ public class RateLimitingService {
   private final BucketCache bucketCache;
 
   public RateLimitResult check(HttpServletRequest request) {
-    String key = keyResolver.resolve(request);
-    var bandwidth = policyResolver.resolve(request);
-    Bucket bucket = bucketCache.get(key + ":" + bandwidth.hashCode(), bandwidth);
-
-    ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+    RateLimitRule rule = policyResolver.resolve(request);
+    RateLimitKey key = keyResolver.resolve(request, rule);
+    ConsumptionProbe probe = bucketCache.tryConsume(key, rule.cost());
 
     if (probe.isConsumed()) {
       return RateLimitResult.allowed(probe.getRemainingTokens());
@@ -7,6 +7,7 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import neora.cache.ProductDetailCache;
 import neora.dto.PagedResponse;
 import neora.dto.ProductAverageRating;
 import neora.dto.RatingRequest;
@@ -41,6 +42,7 @@ public class RatingService implements RatingServiceInterface {
   private final RatingMapper ratingMapper;
   private final PageMapper pageMapper;
   private final RatingRepository ratingRepository;
+  private final ProductDetailCache productDetailCache;
 
   @Override
   @Transactional
@@ -80,6 +82,7 @@ public class RatingService implements RatingServiceInterface {
     productRating.setRating(ratingValue);
 
     ProductRating savedRating = productRatingRepository.save(productRating);
+    productDetailCache.evictVendorRating(product.getVendor().getId());
     log.info(
         "Rating saved successfully for product ID: {} by user ID: {}",
         product.getId(),
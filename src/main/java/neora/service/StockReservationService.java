@@ -0,0 +1,199 @@
+package neora.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import neora.cache.ProductDetailCache;
+import neora.entity.Order;
+import neora.entity.OrderItem;
+import neora.entity.Product;
+import neora.entity.StockReservation;
+import neora.exception.InsufficientStockException;
+import neora.interfaces.StockReservationServiceInterface;
+import neora.interfaces.StockServiceInterface;
+import neora.model.ReservationStatus;
+import neora.model.StockReason;
+import neora.model.StockType;
+import neora.repository.StockLevelRepository;
+import neora.repository.StockReservationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationService implements StockReservationServiceInterface {
+
+  private final StockReservationRepository stockReservationRepository;
+  private final StockLevelRepository stockLevelRepository;
+  private final StockServiceInterface stockService;
+  private final ProductDetailCache productDetailCache;
+
+  @Value("${stock.reservation.ttl:PT15M}")
+  private Duration reservationTtl;
+
+  @Override
+  @Transactional
+  public void reserve(Order order) {
+    log.info("Reserving stock for order ID: {}", order.getId());
+
+    Map<UUID, Integer> quantities = quantitiesOf(order);
+    Map<UUID, Product> products = new HashMap<>();
+    for (OrderItem item : order.getOrderItems()) {
+      products.putIfAbsent(item.getProduct().getId(), item.getProduct());
+    }
+
+    UUID[] productIds = quantities.keySet().toArray(UUID[]::new);
+    stockLevelRepository.lockForUpdate(productIds);
+    Map<UUID, Integer> available = stockService.getStocks(List.of(productIds));
+    Optional<Product> missing =
+        quantities.entrySet().stream()
+            .filter(line -> available.getOrDefault(line.getKey(), 0) < line.getValue())
+            .map(line -> products.get(line.getKey()))
+            .findFirst();
+    if (missing.isPresent()) {
+      log.warn(
+          "Stock reservation failed for order ID: {}: Insufficient stock for product '{}'",
+          order.getId(),
+          missing.get().getName());
+      throw new InsufficientStockException(
+          "Insufficient stock for product: " + missing.get().getName());
+    }
+
+    // The rows are locked and checked above, so the conditional update only guards against
+    // writers that bypass the locks.
+    int reserved =
+        stockLevelRepository.reserve(productIds, quantities.values().toArray(Integer[]::new));
+    if (reserved != quantities.size()) {
+      throw new InsufficientStockException("Insufficient stock for order: " + order.getId());
+    }
+
+    Instant expiresAt = Instant.now().plus(reservationTtl);
+    List<StockReservation> reservations =
+        quantities.entrySet().stream()
+            .map(
+                line ->
+                    StockReservation.builder()
+                        .order(order)
+                        .product(products.get(line.getKey()))
+                        .quantity(line.getValue())
+                        .expiresAt(expiresAt)
+                        .build())
+            .toList();
+    stockReservationRepository.saveAll(reservations);
+    quantities.keySet().forEach(productDetailCache::evictStock);
+    log.info(
+        "Reserved stock for {} product(s) on order ID: {} until {}",
+        reservations.size(),
+        order.getId(),
+        expiresAt);
+  }
+
+  // Returns false when the reservation had lapsed and the stock has been taken by other orders
+  // meanwhile; nothing is sold then, and the order is left for manual handling.
+  @Override
+  @Transactional
+  public boolean commit(Order order) {
+    log.info("Committing stock reservations for order ID: {}", order.getId());
+    List<StockReservation> reservations =
+        stockReservationRepository.findActiveByOrderIdForUpdate(order.getId());
+
+    if (reservations.isEmpty()) {
+      return commitWithoutReservation(order);
+    }
+
+    lockStockOf(reservations);
+    stockReservationRepository.closeActiveByOrderId(
+        order.getId(), ReservationStatus.CONSUMED.name());
+    for (StockReservation reservation : reservations) {
+      stockService.createStockMovement(
+          reservation.getProduct(), reservation.getQuantity(), StockType.OUT, StockReason.SALE);
+    }
+    log.debug("Stock reservations converted to sale movements for order ID: {}", order.getId());
+    return true;
+  }
+
+  // The reservation expired or was released before the payment went through, so its stock may
+  // have been reserved by someone else. The rows are locked before checking availability so the
+  // sale is only recorded if it can still be served.
+  private boolean commitWithoutReservation(Order order) {
+    log.warn("No active reservation for order ID: {}, checking stock again", order.getId());
+    Map<UUID, Integer> quantities = quantitiesOf(order);
+    List<UUID> productIds = new ArrayList<>(quantities.keySet());
+    stockLevelRepository.lockForUpdate(productIds.toArray(UUID[]::new));
+    Map<UUID, Integer> available = stockService.getStocks(productIds);
+
+    for (Map.Entry<UUID, Integer> line : quantities.entrySet()) {
+      if (available.getOrDefault(line.getKey(), 0) < line.getValue()) {
+        log.error(
+            "Insufficient stock for product ID: {} to fulfil paid order ID: {}",
+            line.getKey(),
+            order.getId());
+        return false;
+      }
+    }
+
+    for (OrderItem orderItem : order.getOrderItems()) {
+      stockService.createStockMovement(
+          orderItem.getProduct(), orderItem.getQuantity(), StockType.OUT, StockReason.SALE);
+    }
+    return true;
+  }
+
+  @Override
+  @Transactional
+  public void release(Order order) {
+    List<StockReservation> reservations =
+        stockReservationRepository.findActiveByOrderIdForUpdate(order.getId());
+    if (reservations.isEmpty()) {
+      log.info("No active stock reservations to release for order ID: {}", order.getId());
+      return;
+    }
+
+    lockStockOf(reservations);
+    int released =
+        stockReservationRepository.closeActiveByOrderId(
+            order.getId(), ReservationStatus.RELEASED.name());
+    reservations.forEach(
+        reservation -> productDetailCache.evictStock(reservation.getProduct().getId()));
+    log.info(
+        "Released stock reservations for {} product(s) on order ID: {}", released, order.getId());
+  }
+
+  @Override
+  @Transactional
+  public int releaseExpired() {
+    Instant now = Instant.now();
+    List<UUID> productIds =
+        stockReservationRepository.lockOverdueProductIds(now).stream().distinct().toList();
+    if (productIds.isEmpty()) {
+      return 0;
+    }
+
+    stockLevelRepository.lockForUpdate(productIds.toArray(UUID[]::new));
+    stockReservationRepository.expireOverdue(now);
+    productIds.forEach(productDetailCache::evictStock);
+    return productIds.size();
+  }
+
+  // Every path takes the reservation rows first and the stock rows second, each in id order, so
+  // commit, release, expiry and checkout never wait on each other in a cycle.
+  private void lockStockOf(List<StockReservation> reservations) {
+    stockLevelRepository.lockForUpdate(
+        reservations.stream()
+            .map(reservation -> reservation.getProduct().getId())
+            .distinct()
+            .toArray(UUID[]::new));
+  }
+
+  private static Map<UUID, Integer> quantitiesOf(Order order) {
+    Map<UUID, Integer> quantities = new LinkedHashMap<>();
+    for (OrderItem item : order.getOrderItems()) {
+      quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+    }
+    return quantities;
+  }
+}
@@ -5,24 +5,37 @@ import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import neora.cache.ProductDetailCache;
 import neora.dto.ProductStock;
 import neora.entity.Product;
 import neora.entity.StockMovement;
 import neora.interfaces.StockServiceInterface;
 import neora.model.StockReason;
 import neora.model.StockType;
+import neora.repository.StockLevelRepository;
 import neora.repository.StockMovementRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @AllArgsConstructor
+@Slf4j
 public class StockService implements StockServiceInterface {
 
   private final StockMovementRepository stockMovementRepository;
+  private final StockLevelRepository stockLevelRepository;
+  private final ProductDetailCache productDetailCache;
 
   @Override
+  @Transactional
   public void createStockMovement(
       Product product, Integer quantity, StockType type, StockReason reason) {
+    // The balance row is locked first so the reconciliation job never observes a movement
+    // whose delta has not been applied yet.
+    int delta = type == StockType.IN ? quantity : -quantity;
+    stockLevelRepository.applyDelta(product.getId(), delta);
+
     StockMovement stockMovement =
         StockMovement.builder()
             .product(product)
@@ -31,17 +44,35 @@ public class StockService implements StockServiceInterface {
             .reason(reason)
             .build();
     stockMovementRepository.save(stockMovement);
+    productDetailCache.evictStock(product.getId());
   }
 
   @Override
   public Integer getCurrentStock(Product product) {
-    Integer totalStock = stockMovementRepository.getStockForProduct(product.getId());
+    Integer totalStock = stockLevelRepository.getStockForProduct(product.getId());
     return (totalStock != null) ? totalStock : 0;
   }
 
   @Override
   public Map<UUID, Integer> getStocks(List<UUID> productIds) {
-    return stockMovementRepository.getStockForProducts(productIds).stream()
+    return stockLevelRepository.getStockForProducts(productIds).stream()
         .collect(Collectors.toMap(ProductStock::getProductId, ProductStock::getStock));
   }
+
+  @Override
+  public List<UUID> findStockDrift() {
+    return stockMovementRepository.findProductIdsWithStockDrift();
+  }
+
+  @Override
+  @Transactional
+  public void reconcileStock(UUID productId) {
+    stockLevelRepository.applyDelta(productId, 0);
+
+    Integer expected = stockMovementRepository.getStockForProduct(productId);
+    int quantity = (expected != null) ? expected : 0;
+    stockLevelRepository.setQuantity(productId, quantity);
+    productDetailCache.evictStock(productId);
+    log.warn("Stock level for product ID: {} reconciled to {}", productId, quantity);
+  }
 }
@@ -1,17 +1,57 @@
 package neora.service;
 
+import com.stripe.StripeClient;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.ApiException;
+import com.stripe.exception.RateLimitException;
 import com.stripe.exception.StripeException;
 import com.stripe.model.PaymentIntent;
+import com.stripe.model.Refund;
 import com.stripe.param.PaymentIntentCreateParams;
+import com.stripe.param.RefundCreateParams;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
+import neora.config.CircuitBreaker;
 import neora.entity.Order;
+import neora.exception.PaymentProviderUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+// Every Stripe call goes through a bulkhead bounding how many request threads may wait on Stripe
+// at once, then through a circuit breaker, so that a Stripe brownout turns payments away at once
+// instead of holding every request thread. Call latencies are recorded per operation.
 @Service
 @Slf4j
 public class StripeService {
+  public static final String METRIC_NAME = "stripe.requests";
+  private static final String UNAVAILABLE = "Payment provider is unavailable, please retry later";
+
+  private final StripeClient stripeClient;
+  private final MeterRegistry meterRegistry;
+  private final Semaphore bulkhead;
+  private final long bulkheadMaxWaitMillis;
+  private final CircuitBreaker circuitBreaker;
+
+  public StripeService(
+      StripeClient stripeClient,
+      MeterRegistry meterRegistry,
+      @Value("${stripe.bulkhead.max-concurrent-calls:20}") int maxConcurrentCalls,
+      @Value("${stripe.bulkhead.max-wait:PT0.5S}") Duration bulkheadMaxWait,
+      @Value("${stripe.circuit-breaker.failure-threshold:5}") int failureThreshold,
+      @Value("${stripe.circuit-breaker.open-duration:PT30S}") Duration openDuration) {
+    this.stripeClient = stripeClient;
+    this.meterRegistry = meterRegistry;
+    this.bulkhead = new Semaphore(maxConcurrentCalls);
+    this.bulkheadMaxWaitMillis = bulkheadMaxWait.toMillis();
+    this.circuitBreaker = new CircuitBreaker(failureThreshold, openDuration);
+  }
 
   public PaymentIntent createPaymentIntent(Order order, BigDecimal amount) throws StripeException {
     log.info("Creating Stripe PaymentIntent for order ID: {}", order.getId());
@@ -30,8 +70,87 @@ public class StripeService {
                     .build())
             .build();
 
-    PaymentIntent intent = PaymentIntent.create(params);
+    PaymentIntent intent =
+        call("payment_intent.create", () -> stripeClient.v1().paymentIntents().create(params));
     log.info("Successfully created PaymentIntent with ID: {}", intent.getId());
     return intent;
   }
+
+  public Refund refundPayment(String paymentIntentId) throws StripeException {
+    log.info("Creating Stripe Refund for PaymentIntent ID: {}", paymentIntentId);
+    RefundCreateParams params =
+        RefundCreateParams.builder().setPaymentIntent(paymentIntentId).build();
+    return call("refund.create", () -> stripeClient.v1().refunds().create(params));
+  }
+
+  private <T> T call(String operation, StripeCall<T> call) throws StripeException {
+    if (!acquireBulkhead()) {
+      log.warn("Stripe bulkhead is full, rejecting {}", operation);
+      throw rejected(operation, "bulkhead_full");
+    }
+    try {
+      if (!circuitBreaker.tryAcquire()) {
+        log.warn("Stripe circuit is open, rejecting {}", operation);
+        throw rejected(operation, "circuit_open");
+      }
+      Timer.Sample sample = Timer.start(meterRegistry);
+      String outcome = "error";
+      try {
+        T result = call.execute();
+        circuitBreaker.onSuccess();
+        outcome = "success";
+        return result;
+      } catch (StripeException e) {
+        // Declined or invalid requests show Stripe is answering; only outages trip the breaker.
+        if (isOutage(e)) {
+          circuitBreaker.onFailure();
+        } else {
+          circuitBreaker.onSuccess();
+          outcome = "client_error";
+        }
+        throw e;
+      } catch (RuntimeException e) {
+        circuitBreaker.onFailure();
+        throw e;
+      } finally {
+        sample.stop(
+            Timer.builder(METRIC_NAME)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+      }
+    } finally {
+      bulkhead.release();
+    }
+  }
+
+  private boolean acquireBulkhead() {
+    try {
+      return bulkhead.tryAcquire(bulkheadMaxWaitMillis, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private PaymentProviderUnavailableException rejected(String operation, String reason) {
+    Counter.builder(METRIC_NAME + ".rejected")
+        .tag("operation", operation)
+        .tag("reason", reason)
+        .register(meterRegistry)
+        .increment();
+    return new PaymentProviderUnavailableException(UNAVAILABLE);
+  }
+
+  private static boolean isOutage(StripeException e) {
+    return e instanceof ApiConnectionException
+        || e instanceof ApiException
+        || e instanceof RateLimitException;
+  }
+
+  @FunctionalInterface
+  private interface StripeCall<T> {
+    T execute() throws StripeException;
+  }
 }
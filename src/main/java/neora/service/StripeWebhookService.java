@@ -7,22 +7,76 @@ import com.stripe.model.Event;
 import com.stripe.model.EventDataObjectDeserializer;
 import com.stripe.model.PaymentIntent;
 import com.stripe.net.Webhook;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import lombok.RequiredArgsConstructor;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import lombok.extern.slf4j.Slf4j;
+import neora.config.RetryPolicy;
+import neora.entity.StripeWebhookEvent;
 import neora.interfaces.OrderServiceInterface;
+import neora.model.WebhookEventStatus;
+import neora.repository.StripeWebhookEventRepository;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+// Webhooks are acknowledged as soon as their event is stored; StripeWebhookJob applies them to
+// orders afterwards on a small worker pool. Each event is marked processed in the transaction that
+// applies it, so an event is applied at most once however often Stripe redelivers it.
 @Service
-@RequiredArgsConstructor
 @Slf4j
-public class StripeWebhookService {
+public class StripeWebhookService implements DisposableBean {
+  public static final String EXECUTOR_NAME = "stripe-webhooks";
+  private static final String PAYMENT_SUCCEEDED = "payment_intent.succeeded";
+  private static final String PAYMENT_FAILED = "payment_intent.payment_failed";
+
   private final OrderServiceInterface orderService;
+  private final StripeWebhookEventRepository eventRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final ExecutorService workers;
+  private final String stripeWebhookSecret;
+  private final int batchSize;
+  private final Duration lease;
+  private final RetryPolicy retryPolicy;
+  private final Duration retention;
 
-  @Value("${stripe.webhook.secret}")
-  private String stripeWebhookSecret;
+  public StripeWebhookService(
+      OrderServiceInterface orderService,
+      StripeWebhookEventRepository eventRepository,
+      TransactionTemplate transactionTemplate,
+      MeterRegistry meterRegistry,
+      @Value("${stripe.webhook.secret}") String stripeWebhookSecret,
+      @Value("${stripe.webhook.workers:4}") int workers,
+      @Value("${stripe.webhook.batch-size:50}") int batchSize,
+      @Value("${stripe.webhook.lease:PT5M}") Duration lease,
+      @Value("${stripe.webhook.max-attempts:10}") int maxAttempts,
+      @Value("${stripe.webhook.initial-backoff:PT10S}") Duration initialBackoff,
+      @Value("${stripe.webhook.max-backoff:PT30M}") Duration maxBackoff,
+      @Value("${stripe.webhook.retention:P30D}") Duration retention) {
+    this.orderService = orderService;
+    this.eventRepository = eventRepository;
+    this.transactionTemplate = transactionTemplate;
+    this.stripeWebhookSecret = stripeWebhookSecret;
+    this.batchSize = batchSize;
+    this.lease = lease;
+    this.retryPolicy = new RetryPolicy(maxAttempts, initialBackoff, maxBackoff);
+    this.retention = retention;
+    this.workers =
+        ExecutorServiceMetrics.monitor(
+            meterRegistry,
+            Executors.newFixedThreadPool(
+                workers, new CustomizableThreadFactory(EXECUTOR_NAME + "-")),
+            EXECUTOR_NAME);
+  }
 
   public void handleWebhook(String payload, String signatureHeader) {
     log.info("Received Stripe webhook event");
@@ -35,51 +89,125 @@ public class StripeWebhookService {
       throw new IllegalArgumentException("Invalid Stripe signature", e);
     }
 
+    UUID orderId = isHandled(event.getType()) ? getOrderId(event) : null;
+    Instant now = Instant.now();
+    WebhookEventStatus status =
+        orderId != null ? WebhookEventStatus.PENDING : WebhookEventStatus.IGNORED;
+    int inserted =
+        eventRepository.insertIfAbsent(
+            event.getId(),
+            event.getType(),
+            orderId,
+            payload,
+            status.name(),
+            Instant.ofEpochSecond(event.getCreated()),
+            now,
+            orderId != null ? null : now);
+    if (inserted == 0) {
+      log.info("Stripe event {} was already received, ignoring redelivery", event.getId());
+    } else {
+      log.info("Stored Stripe event {} of type {} as {}", event.getId(), event.getType(), status);
+    }
+  }
+
+  public int processPending() {
+    int processed = 0;
+    List<StripeWebhookEvent> batch;
+    do {
+      Instant now = Instant.now();
+      batch = eventRepository.claimDue(now, now.plus(lease), batchSize);
+      // A batch holds at most one event per order, so its events can be applied in parallel.
+      List<CompletableFuture<Boolean>> results =
+          batch.stream()
+              .map(event -> CompletableFuture.supplyAsync(() -> process(event), workers))
+              .toList();
+      for (CompletableFuture<Boolean> result : results) {
+        processed += result.join() ? 1 : 0;
+      }
+    } while (batch.size() == batchSize);
+    return processed;
+  }
+
+  public int purgeHandledEvents() {
+    return eventRepository.deleteHandledBefore(Instant.now().minus(retention));
+  }
+
+  @Override
+  public void destroy() {
+    workers.shutdown();
+  }
+
+  private boolean process(StripeWebhookEvent event) {
+    try {
+      transactionTemplate.executeWithoutResult(
+          status -> {
+            apply(event);
+            eventRepository.markProcessed(event.getId(), Instant.now());
+          });
+      return true;
+    } catch (RuntimeException e) {
+      retryLater(event, e);
+      return false;
+    }
+  }
+
+  private void apply(StripeWebhookEvent event) {
     switch (event.getType()) {
-      case "payment_intent.succeeded" -> {
-        log.info("Processing payment_intent.succeeded event");
-        handlePaymentSucceeded(event);
+      case PAYMENT_SUCCEEDED -> {
+        log.info("Payment succeeded for order ID: {}. Confirming order.", event.getOrderId());
+        orderService.confirmPayment(event.getOrderId(), getPaymentIntentId(event));
       }
-      case "payment_intent.payment_failed" -> {
-        log.info("Processing payment_intent.payment_failed event");
-        handlePaymentFailed(event);
+      case PAYMENT_FAILED -> {
+        log.info("Payment failed for order ID: {}. Marking order as failed.", event.getOrderId());
+        orderService.markPaymentAsFailed(event.getOrderId());
       }
       default -> log.debug("Unhandled event type: {}", event.getType());
     }
   }
 
-  private void handlePaymentSucceeded(Event event) {
-    getPaymentIntent(event)
-        .ifPresentOrElse(
-            intent -> {
-              String orderId = intent.getMetadata().get("order_id");
-              if (orderId != null) {
-                log.info("Payment succeeded for order ID: {}. Confirming order.", orderId);
-                orderService.confirmPayment(UUID.fromString(orderId));
-              } else {
-                log.warn(
-                    "Payment succeeded but no order_id found in metadata. PaymentIntent ID: {}",
-                    intent.getId());
-              }
-            },
-            () -> log.warn("Could not deserialize PaymentIntent from event {}", event.getId()));
+  private void retryLater(StripeWebhookEvent event, RuntimeException failure) {
+    retryPolicy.onFailure(
+        "Stripe event " + event.getEventId() + " for order " + event.getOrderId(),
+        event.getAttempts(),
+        failure,
+        (deadLetter, nextAttemptAt, error) ->
+            eventRepository.markFailed(
+                event.getId(),
+                deadLetter ? WebhookEventStatus.FAILED : WebhookEventStatus.PENDING,
+                nextAttemptAt,
+                error));
   }
 
-  private void handlePaymentFailed(Event event) {
-    getPaymentIntent(event)
-        .ifPresentOrElse(
-            intent -> {
-              String orderId = intent.getMetadata().get("order_id");
-              if (orderId != null) {
-                log.info("Payment failed for order ID: {}. Marking order as failed.", orderId);
-                orderService.markPaymentAsFailed(UUID.fromString(orderId));
-              } else {
-                log.warn(
-                    "Payment failed but no order_id found in metadata. PaymentIntent ID: {}",
-                    intent.getId());
-              }
-            },
-            () -> log.warn("Could not deserialize PaymentIntent from event {}", event.getId()));
+  private static boolean isHandled(String type) {
+    return PAYMENT_SUCCEEDED.equals(type) || PAYMENT_FAILED.equals(type);
+  }
+
+  private UUID getOrderId(Event event) {
+    Optional<PaymentIntent> intent = getPaymentIntent(event);
+    if (intent.isEmpty()) {
+      log.warn("Could not deserialize PaymentIntent from event {}", event.getId());
+      return null;
+    }
+    String orderId = intent.get().getMetadata().get("order_id");
+    if (orderId == null) {
+      log.warn(
+          "No order_id found in metadata. PaymentIntent ID: {}, event: {}",
+          intent.get().getId(),
+          event.getId());
+      return null;
+    }
+    try {
+      return UUID.fromString(orderId);
+    } catch (IllegalArgumentException e) {
+      log.warn("Malformed order_id {} in Stripe event {}", orderId, event.getId());
+      return null;
+    }
+  }
+
+  private String getPaymentIntentId(StripeWebhookEvent event) {
+    return getPaymentIntent(GSON.fromJson(event.getPayload(), Event.class))
+        .map(PaymentIntent::getId)
+        .orElse(null);
   }
 
   private Optional<PaymentIntent> getPaymentIntent(Event event) {
@@ -1,40 +1,65 @@
 package neora.service;
 
-import lombok.AllArgsConstructor;
+import java.time.Instant;
+import java.util.Objects;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import neora.cache.TokenRevocationCache;
 import neora.entity.Token;
 import neora.entity.User;
 import neora.interfaces.TokenManagementServiceInterface;
 import neora.model.TokenType;
 import neora.repository.TokenRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
+@Slf4j
 public class TokenManagementService implements TokenManagementServiceInterface {
 
   private final TokenRepository tokenRepository;
+  private final JwtService jwtService;
+  private final TokenRevocationCache tokenRevocationCache;
+
+  @Value("${jwt.expiration}")
+  private long jwtExpiration;
+
+  @Value("${token.purge.batch-size:1000}")
+  private int purgeBatchSize;
 
   @Override
   public void saveUserToken(User user, String jwt) {
-    var token = Token.builder().user(user).jwtToken(jwt).tokenType(TokenType.BEARER).build();
+    var token =
+        Token.builder()
+            .user(user)
+            .tokenHash(Token.hash(jwt))
+            .tokenId(jwtService.extractTokenId(jwt))
+            .tokenType(TokenType.BEARER)
+            .build();
 
     tokenRepository.save(token);
   }
 
   @Override
   public void revokeAllUserTokens(User user) {
-    var validToken = tokenRepository.findAllValidTokensByUserId(user.getId());
-
-    if (validToken == null || validToken.isEmpty()) {
-      return;
-    }
-
-    validToken.forEach(
-        t -> {
-          t.setExpired(true);
-          t.setRevoked(true);
-        });
+    tokenRepository.revokeAllByUserId(user.getId()).stream()
+        .filter(Objects::nonNull)
+        .forEach(tokenRevocationCache::revoke);
+  }
 
-    tokenRepository.saveAll(validToken);
+  // Rows past the access token lifetime can no longer authenticate anything. Each batch commits on
+  // its own so the purge never holds row locks for long.
+  @Override
+  public int purgeExpiredTokens() {
+    Instant cutoff = Instant.now().minusMillis(jwtExpiration);
+    int purged = 0;
+    int deleted;
+    do {
+      deleted = tokenRepository.deleteExpiredBatch(cutoff, purgeBatchSize);
+      purged += deleted;
+    } while (deleted == purgeBatchSize);
+    log.debug("Purged {} expired or revoked tokens", purged);
+    return purged;
   }
 }
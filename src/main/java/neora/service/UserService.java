@@ -30,7 +30,8 @@ public class UserService implements UserServiceInterface {
       throw new InvalidPasswordException("Current password is invalid");
     }
 
-    if (passwordEncoder.matches(dto.newPassword(), user.getPassword())) {
+    // The current password has just been verified, so comparing against it avoids a second hash.
+    if (dto.newPassword().equals(dto.currentPassword())) {
       log.warn(
           "Password change failed: New password is the same as the old one for user: {}",
           identifier);
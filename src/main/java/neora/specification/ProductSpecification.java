@@ -1,7 +1,15 @@
 package neora.specification;
 
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import java.util.UUID;
+import neora.entity.CategoryClosure;
 import neora.entity.Product;
+import neora.model.ProductCursor;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 public class ProductSpecification {
@@ -11,9 +19,19 @@ public class ProductSpecification {
     throw new IllegalStateException("Utility class");
   }
 
-  public static Specification<Product> hasCategory(UUID categoryId) {
-    return (root, query, cb) ->
-        categoryId == null ? null : cb.equal(root.get("category").get("id"), categoryId);
+  // Matches the category and all of its descendants through the closure table.
+  public static Specification<Product> inCategoryTree(UUID categoryId) {
+    return (root, query, cb) -> {
+      if (categoryId == null) {
+        return null;
+      }
+      Subquery<UUID> descendants = query.subquery(UUID.class);
+      Root<CategoryClosure> closure = descendants.from(CategoryClosure.class);
+      descendants
+          .select(closure.get("descendantId"))
+          .where(cb.equal(closure.get("ancestorId"), categoryId));
+      return root.get("category").get("id").in(descendants);
+    };
   }
 
   public static Specification<Product> nameContains(String search) {
@@ -22,4 +40,32 @@ public class ProductSpecification {
             ? null
             : cb.like(cb.lower(root.get("name")), "%" + search.toLowerCase() + "%");
   }
+
+  public static Specification<Product> after(ProductCursor cursor) {
+    return (root, query, cb) ->
+        cursor.isFirstPage()
+            ? null
+            : seek(
+                cb,
+                root.get(cursor.sortProperty()),
+                cursor.typedLastValue(),
+                root.get("id"),
+                cursor.lastId(),
+                cursor.direction());
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Predicate seek(
+      CriteriaBuilder cb,
+      Path key,
+      Comparable value,
+      Path<UUID> id,
+      UUID lastId,
+      Sort.Direction direction) {
+    if (direction.isAscending()) {
+      return cb.or(
+          cb.greaterThan(key, value), cb.and(cb.equal(key, value), cb.greaterThan(id, lastId)));
+    }
+    return cb.or(cb.lessThan(key, value), cb.and(cb.equal(key, value), cb.lessThan(id, lastId)));
+  }
 }
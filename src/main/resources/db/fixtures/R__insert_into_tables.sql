@@ -39,6 +39,19 @@ VALUES
     ('f2f4fd38-7dc6-4b2d-b860-958fcdbe68a8', '046a27cd-4810-4db6-aca3-7ca4336166e7'),
     ('84d0b829-ba3f-4c07-8441-279bc706b161', '96ad91c0-c2ad-49c8-aee7-aea5e25d190a');
 
+-- CATEGORY_CLOSURE
+INSERT INTO category_closure (ancestor_id, descendant_id, depth)
+WITH RECURSIVE paths (ancestor_id, descendant_id, depth) AS (
+    SELECT id, id, 0 FROM categories
+    UNION ALL
+    SELECT paths.ancestor_id, category_parent.child_id, paths.depth + 1
+    FROM paths
+    JOIN category_parent ON category_parent.parent_id = paths.descendant_id
+)
+SELECT ancestor_id, descendant_id, MIN(depth)
+FROM paths
+GROUP BY ancestor_id, descendant_id;
+
 -- PRODUCTS
 INSERT INTO products (id, name, price, description, slug, vendor_id, category_id)
 VALUES
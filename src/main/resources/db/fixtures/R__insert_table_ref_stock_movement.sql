@@ -3,3 +3,11 @@ VALUES
     (150, 'IN', 'NEW', '11111111-aaaa-aaaa-aaaa-aaaaaaaaaaaa'),
     (80, 'IN', 'NEW', '22222222-aaaa-aaaa-aaaa-aaaaaaaaaaaa'),
     (130, 'IN', 'NEW', '33333333-aaaa-aaaa-aaaa-aaaaaaaaaaaa');
+
+INSERT INTO stock_levels (product_id, quantity, updated_at)
+SELECT product_id,
+       SUM(CASE WHEN type = 'IN' THEN quantity ELSE -quantity END),
+       CURRENT_TIMESTAMP
+FROM stock_movements
+GROUP BY product_id
+ON CONFLICT (product_id) DO UPDATE SET quantity = EXCLUDED.quantity, updated_at = EXCLUDED.updated_at;
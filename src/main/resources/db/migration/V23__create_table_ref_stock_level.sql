@@ -0,0 +1,12 @@
+CREATE TABLE stock_levels (
+    product_id UUID PRIMARY KEY REFERENCES products(id) ON DELETE CASCADE,
+    quantity INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP
+);
+
+INSERT INTO stock_levels (product_id, quantity, updated_at)
+SELECT product_id,
+       SUM(CASE WHEN type = 'IN' THEN quantity ELSE -quantity END),
+       CURRENT_TIMESTAMP
+FROM stock_movements
+GROUP BY product_id;
@@ -0,0 +1,21 @@
+ALTER TABLE stock_levels ADD COLUMN reserved INTEGER NOT NULL DEFAULT 0;
+
+ALTER TABLE stock_levels
+    ADD CONSTRAINT stock_levels_reserved_positive CHECK (reserved >= 0);
+
+CREATE TABLE stock_reservations (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    order_id UUID NOT NULL REFERENCES orders(id) ON DELETE CASCADE,
+    product_id UUID NOT NULL REFERENCES products(id) ON DELETE CASCADE,
+    quantity INTEGER NOT NULL CHECK (quantity > 0),
+    status VARCHAR(20) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP
+);
+
+CREATE INDEX idx_stock_reservations_order_id ON stock_reservations(order_id);
+
+CREATE INDEX idx_stock_reservations_active_expires_at
+    ON stock_reservations(expires_at)
+    WHERE status = 'ACTIVE';
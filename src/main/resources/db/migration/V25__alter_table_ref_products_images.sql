@@ -0,0 +1 @@
+CREATE INDEX idx_products_images_product_id_display_order ON products_images(product_id, display_order);
@@ -0,0 +1,2 @@
+CREATE INDEX idx_products_category_id_created_at_id ON products(category_id, created_at, id);
+CREATE INDEX idx_products_created_at_id ON products(created_at, id);
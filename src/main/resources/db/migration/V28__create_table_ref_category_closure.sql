@@ -0,0 +1,20 @@
+CREATE TABLE category_closure (
+    ancestor_id UUID NOT NULL REFERENCES categories(id) ON DELETE CASCADE,
+    descendant_id UUID NOT NULL REFERENCES categories(id) ON DELETE CASCADE,
+    depth INTEGER NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id)
+);
+
+CREATE INDEX idx_category_closure_descendant_id ON category_closure(descendant_id);
+
+INSERT INTO category_closure (ancestor_id, descendant_id, depth)
+WITH RECURSIVE paths (ancestor_id, descendant_id, depth) AS (
+    SELECT id, id, 0 FROM categories
+    UNION ALL
+    SELECT paths.ancestor_id, category_parent.child_id, paths.depth + 1
+    FROM paths
+    JOIN category_parent ON category_parent.parent_id = paths.descendant_id
+)
+SELECT ancestor_id, descendant_id, MIN(depth)
+FROM paths
+GROUP BY ancestor_id, descendant_id;
@@ -0,0 +1,3 @@
+ALTER TABLE tokens ADD COLUMN token_id UUID;
+
+CREATE UNIQUE INDEX idx_tokens_token_id ON tokens(token_id);
@@ -0,0 +1,10 @@
+ALTER TABLE tokens ADD COLUMN token_hash BYTEA;
+
+UPDATE tokens SET token_hash = sha256(convert_to(jwt_token, 'UTF8'));
+
+ALTER TABLE tokens ALTER COLUMN token_hash SET NOT NULL;
+ALTER TABLE tokens DROP COLUMN jwt_token;
+
+CREATE UNIQUE INDEX idx_tokens_token_hash ON tokens(token_hash);
+CREATE INDEX idx_tokens_user_id_revoked_expired ON tokens(user_id, revoked, expired);
+CREATE INDEX idx_tokens_created_at ON tokens(created_at);
@@ -0,0 +1,6 @@
+ALTER TABLE mail_confirmations ALTER COLUMN token DROP NOT NULL;
+ALTER TABLE mail_confirmations ADD COLUMN selector VARCHAR(32);
+ALTER TABLE mail_confirmations ADD COLUMN verifier_hash BYTEA;
+
+CREATE UNIQUE INDEX idx_mail_confirmations_selector ON mail_confirmations(selector);
+CREATE INDEX idx_mail_confirmations_expires_at ON mail_confirmations(expires_at);
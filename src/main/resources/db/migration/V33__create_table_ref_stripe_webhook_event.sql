@@ -0,0 +1,26 @@
+CREATE TABLE stripe_webhook_events (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    event_id VARCHAR(255) NOT NULL,
+    type VARCHAR(100) NOT NULL,
+    order_id UUID,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    last_error TEXT,
+    stripe_created_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    processed_at TIMESTAMP
+);
+
+CREATE UNIQUE INDEX idx_stripe_webhook_events_event_id ON stripe_webhook_events(event_id);
+
+CREATE INDEX idx_stripe_webhook_events_pending_next_attempt_at
+    ON stripe_webhook_events(next_attempt_at)
+    WHERE status = 'PENDING';
+
+CREATE INDEX idx_stripe_webhook_events_pending_order
+    ON stripe_webhook_events(order_id, stripe_created_at)
+    WHERE status = 'PENDING';
+
+CREATE INDEX idx_stripe_webhook_events_created_at ON stripe_webhook_events(created_at);
@@ -0,0 +1 @@
+ALTER TABLE orders ADD COLUMN stock_shortage BOOLEAN NOT NULL DEFAULT false;
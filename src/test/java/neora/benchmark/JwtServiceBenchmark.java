@@ -0,0 +1,55 @@
+package neora.benchmark;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import neora.entity.User;
+import neora.model.Role;
+import neora.service.JwtService;
+import org.openjdk.jmh.annotations.*;
+
+// Token issuance and verification throughput, run with the benchmark profile.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+  private static final String SECRET =
+      "278b8af3fcf8ca684592eca83d65b4ce7652afadd8f824ec92170580b236020a";
+
+  private JwtService jwtService;
+  private User user;
+  private String token;
+
+  @Setup
+  public void setUp() {
+    jwtService = new JwtService(SECRET, "primary", List.of(), 900_000L, 604_800_000L);
+    user =
+        User.builder()
+            .id(UUID.randomUUID())
+            .email("benchmark@example.com")
+            .roles(EnumSet.of(Role.USER))
+            .build();
+    token = jwtService.generateToken(user);
+  }
+
+  @Benchmark
+  public String generateToken() {
+    return jwtService.generateToken(user);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Object parseClaims() {
+    return jwtService.parseClaims(token);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public User toPrincipal() {
+    return jwtService.toPrincipal(jwtService.parseClaims(token));
+  }
+}
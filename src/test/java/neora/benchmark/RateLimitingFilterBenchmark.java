@@ -0,0 +1,80 @@
+package neora.benchmark;
+
+import jakarta.servlet.FilterChain;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import neora.config.BucketCache;
+import neora.config.RateLimitKeyResolver;
+import neora.config.RateLimitPolicyResolver;
+import neora.config.RateLimitProperties;
+import neora.config.RateLimitProperties.Limit;
+import neora.config.RateLimitProperties.Policy;
+import neora.config.RateLimitProperties.Rule;
+import neora.config.RateLimitingFilter;
+import neora.service.RateLimitingService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+// Rate limiting filter throughput against local buckets, run with the benchmark profile. Capacities
+// are large enough that every request is let through.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimitingFilterBenchmark {
+  private static final long CAPACITY = 1_000_000_000;
+  private static final Duration MINUTE = Duration.ofMinutes(1);
+  private static final FilterChain CHAIN = (request, response) -> {};
+
+  private RateLimitingFilter filter;
+
+  @Setup
+  public void setUp() {
+    Policy generous = new Policy(List.of(new Limit(CAPACITY, MINUTE)), null);
+    RateLimitProperties properties =
+        new RateLimitProperties(
+            "standard",
+            Map.of("standard", generous, "auth", generous, "catalog", generous),
+            List.of(
+                new Rule("/api/v1/auth", null, null, "auth", 1),
+                new Rule("/api/v1/products", "GET", null, "catalog", 1),
+                new Rule("/api/v1/products", "GET", "search", "catalog", 10),
+                new Rule("/api/v1/orders", "POST", null, "standard", 10)));
+    BucketCache bucketCache =
+        new BucketCache(
+            () -> {
+              throw new IllegalStateException("No Redis in the benchmark");
+            },
+            20,
+            Duration.ofSeconds(1),
+            Duration.ofDays(1));
+    filter =
+        new RateLimitingFilter(
+            new RateLimitingService(
+                new RateLimitKeyResolver(), new RateLimitPolicyResolver(properties), bucketCache));
+  }
+
+  @State(Scope.Thread)
+  public static class Exchange {
+    private final MockHttpServletRequest request =
+        new MockHttpServletRequest("GET", "/api/v1/products/7f3c2a1e");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Setup
+    public void setUp() {
+      request.addHeader("X-Forwarded-For", "203.0.113." + Thread.currentThread().getId());
+    }
+  }
+
+  @Benchmark
+  @Threads(4)
+  public MockHttpServletResponse doFilter(Exchange exchange) throws Exception {
+    filter.doFilter(exchange.request, exchange.response, CHAIN);
+    return exchange.response;
+  }
+}
@@ -0,0 +1,107 @@
+package neora.integration.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.Cookie;
+import java.util.UUID;
+import neora.config.JwtAuthenticationFilter;
+import neora.config.PostgresTestContainer;
+import neora.entity.Cart;
+import neora.entity.User;
+import neora.interfaces.TokenManagementServiceInterface;
+import neora.repository.UserRepository;
+import neora.service.CartService;
+import neora.service.JwtService;
+import neora.service.LogoutService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(
+    properties = {
+      "spring.profiles.active=test",
+      "spring.jpa.properties.hibernate.generate_statistics=true",
+      "stock.reservation.expiry-interval=PT1H"
+    })
+class JwtAuthenticationFilterIntegrationTest extends PostgresTestContainer {
+  private static final UUID USER_ID = UUID.fromString("22222222-2222-2222-2222-222222222222");
+
+  @Autowired private JwtAuthenticationFilter jwtAuthenticationFilter;
+  @Autowired private JwtService jwtService;
+  @Autowired private TokenManagementServiceInterface tokenManagementService;
+  @Autowired private LogoutService logoutService;
+  @Autowired private CartService cartService;
+  @Autowired private UserRepository userRepository;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+  private String jwt;
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    User user = userRepository.findById(USER_ID).orElseThrow();
+    jwt = jwtService.generateToken(user);
+    tokenManagementService.saveUserToken(user, jwt);
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void should_authenticate_from_claims_without_loading_the_user() throws Exception {
+    // Act
+    statistics.clear();
+    Authentication first = authenticate(jwt);
+    long firstStatements = statistics.getPrepareStatementCount();
+    statistics.clear();
+    Authentication second = authenticate(jwt);
+
+    // Assert
+    assertEquals(1, firstStatements);
+    assertEquals(0, statistics.getPrepareStatementCount());
+    User principal = (User) second.getPrincipal();
+    assertEquals(USER_ID, principal.getId());
+    assertFalse(second.getAuthorities().isEmpty());
+    assertEquals(first.getAuthorities(), second.getAuthorities());
+
+    Cart cart = cartService.getUserCart(principal);
+    assertEquals(USER_ID, cart.getUser().getId());
+  }
+
+  @Test
+  void should_reject_token_after_logout() throws Exception {
+    // Arrange
+    assertNotNull(authenticate(jwt));
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setCookies(new Cookie("access_token", jwt));
+
+    // Act
+    logoutService.logout(request, new MockHttpServletResponse(), null);
+
+    // Assert
+    assertNull(authenticate(jwt));
+  }
+
+  private Authentication authenticate(String token) throws Exception {
+    SecurityContextHolder.clearContext();
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setCookies(new Cookie("access_token", token));
+    jwtAuthenticationFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    return SecurityContextHolder.getContext().getAuthentication();
+  }
+}
@@ -0,0 +1,128 @@
+package neora.integration.config;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.http.Cookie;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import neora.cache.TokenRevocationCache;
+import neora.config.BucketCache;
+import neora.config.JwtAuthenticationFilter;
+import neora.config.RateLimitKeyResolver;
+import neora.config.RateLimitPolicyResolver;
+import neora.config.RateLimitProperties;
+import neora.config.RateLimitingFilter;
+import neora.config.SecurityConfig;
+import neora.controller.OrderController;
+import neora.entity.User;
+import neora.interfaces.OrderServiceInterface;
+import neora.model.Role;
+import neora.repository.TokenRepository;
+import neora.service.JwtService;
+import neora.service.RateLimitingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.authentication.logout.LogoutHandler;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+// Runs the real security filter chain so that the rate limiter sees the user authenticated by the
+// JWT filter, as it does in production.
+@WebMvcTest(
+    controllers = OrderController.class,
+    properties = {
+      "rate-limit.policies.standard.limits[0].capacity=1",
+      "rate-limit.policies.standard.limits[0].period=PT1H"
+    })
+@Import({
+  SecurityConfig.class,
+  JwtAuthenticationFilter.class,
+  RateLimitingFilter.class,
+  RateLimitingService.class,
+  RateLimitKeyResolver.class,
+  RateLimitPolicyResolver.class,
+  RateLimitingFilterIntegrationTest.LocalBuckets.class
+})
+class RateLimitingFilterIntegrationTest {
+  @Autowired private MockMvc mockMvc;
+
+  @MockitoBean private OrderServiceInterface orderService;
+  @MockitoBean private JwtService jwtService;
+  @MockitoBean private TokenRevocationCache tokenRevocationCache;
+  @MockitoBean private TokenRepository tokenRepository;
+  @MockitoBean private UserDetailsService userDetailsService;
+  @MockitoBean private AuthenticationProvider authenticationProvider;
+  @MockitoBean private LogoutHandler logoutHandler;
+
+  @TestConfiguration
+  @EnableConfigurationProperties(RateLimitProperties.class)
+  static class LocalBuckets {
+    @Bean
+    BucketCache bucketCache() {
+      return new BucketCache(
+          () -> {
+            throw new IllegalStateException("No Redis in tests");
+          },
+          20,
+          Duration.ofSeconds(1),
+          Duration.ofHours(1));
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    when(orderService.getUserOrders(any())).thenReturn(List.of());
+    when(tokenRevocationCache.isActive(any())).thenReturn(true);
+    when(jwtService.hasPrincipalClaims(any())).thenReturn(true);
+  }
+
+  private Cookie tokenFor(Role role) {
+    String token = "token-" + role;
+    Claims claims = Jwts.claims();
+    claims.setSubject(role.name().toLowerCase() + "@example.com");
+    claims.setId(UUID.randomUUID().toString());
+    User user =
+        User.builder().id(UUID.randomUUID()).email(claims.getSubject()).roles(Set.of(role)).build();
+    when(jwtService.parseClaims(token)).thenReturn(claims);
+    when(jwtService.toPrincipal(claims)).thenReturn(user);
+    return new Cookie("access_token", token);
+  }
+
+  @Test
+  void should_apply_the_default_quota_to_users() throws Exception {
+    // Arrange
+    Cookie token = tokenFor(Role.USER);
+    mockMvc.perform(get("/api/v1/orders").cookie(token)).andExpect(status().isOk());
+
+    // Act & Assert
+    mockMvc.perform(get("/api/v1/orders").cookie(token)).andExpect(status().isTooManyRequests());
+  }
+
+  @Test
+  void should_apply_the_admin_quota_to_admin_tokens() throws Exception {
+    // Arrange
+    Cookie token = tokenFor(Role.ADMIN);
+    mockMvc.perform(get("/api/v1/orders").cookie(token)).andExpect(status().isOk());
+
+    // Act & Assert
+    mockMvc
+        .perform(get("/api/v1/orders").cookie(token))
+        .andExpect(status().isOk())
+        .andExpect(header().string("X-Rate-Limit-Remaining", "998"));
+  }
+}
@@ -0,0 +1,114 @@
+package neora.integration.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import neora.config.PostgresTestContainer;
+import neora.entity.OutboxEmail;
+import neora.interfaces.EmailOutboxServiceInterface;
+import neora.interfaces.EmailServiceInterface;
+import neora.model.OutboxStatus;
+import neora.repository.OutboxEmailRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(
+    properties = {
+      "spring.profiles.active=test",
+      "stock.reservation.expiry-interval=PT1H",
+      "mail.outbox.dispatch-interval=PT1H",
+      "mail.outbox.batch-size=2",
+      "management.health.mail.enabled=false"
+    })
+class EmailOutboxServiceIntegrationTest extends PostgresTestContainer {
+
+  @Autowired private EmailServiceInterface emailService;
+  @Autowired private EmailOutboxServiceInterface emailOutboxService;
+  @Autowired private OutboxEmailRepository outboxEmailRepository;
+  @Autowired private TransactionTemplate transactionTemplate;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @MockitoBean private JavaMailSender mailSender;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate.update("DELETE FROM email_outbox");
+  }
+
+  @Nested
+  class Enqueue {
+    @Test
+    void should_drop_emails_of_a_rolled_back_transaction() {
+      // Act
+      transactionTemplate.executeWithoutResult(
+          status -> {
+            emailService.sendOrderPassedConfirmationEmail("a@example.com", UUID.randomUUID());
+            status.setRollbackOnly();
+          });
+
+      // Assert
+      assertEquals(0, outboxEmailRepository.count());
+      verifyNoInteractions(mailSender);
+    }
+  }
+
+  @Nested
+  class DispatchPending {
+    @Test
+    void should_send_every_due_email_in_batches() {
+      // Arrange
+      for (int i = 0; i < 5; i++) {
+        emailService.sendOrderPassedConfirmationEmail(i + "@example.com", UUID.randomUUID());
+      }
+
+      // Act
+      int sent = emailOutboxService.dispatchPending();
+
+      // Assert
+      assertEquals(5, sent);
+      verify(mailSender, times(3)).send(any(SimpleMailMessage[].class));
+      List<OutboxEmail> emails = outboxEmailRepository.findAll();
+      assertTrue(emails.stream().allMatch(email -> email.getStatus() == OutboxStatus.SENT));
+      assertTrue(emails.stream().allMatch(email -> email.getAttempts() == 1));
+      assertTrue(emails.stream().allMatch(email -> email.getSentAt() != null));
+    }
+
+    @Test
+    void should_schedule_a_retry_when_the_mail_server_fails() {
+      // Arrange
+      emailService.sendOrderCancelledConfirmationEmail("a@example.com", UUID.randomUUID());
+      doThrow(new MailSendException("Connection refused"))
+          .when(mailSender)
+          .send(any(SimpleMailMessage[].class));
+
+      // Act
+      int sent = emailOutboxService.dispatchPending();
+      int retried = emailOutboxService.dispatchPending();
+
+      // Assert
+      assertEquals(0, sent);
+      assertEquals(0, retried);
+      verify(mailSender, times(1)).send(any(SimpleMailMessage[].class));
+      OutboxEmail email = outboxEmailRepository.findAll().get(0);
+      assertEquals(OutboxStatus.PENDING, email.getStatus());
+      assertEquals(1, email.getAttempts());
+      assertEquals("Connection refused", email.getLastError());
+      assertTrue(email.getNextAttemptAt().isAfter(Instant.now()));
+    }
+  }
+}
@@ -0,0 +1,125 @@
+package neora.integration.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.stripe.exception.StripeException;
+import com.stripe.model.PaymentIntent;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import neora.config.PostgresTestContainer;
+import neora.dto.OrderRequest;
+import neora.dto.ShippingAddressRequest;
+import neora.entity.*;
+import neora.interfaces.OrderServiceInterface;
+import neora.interfaces.StockServiceInterface;
+import neora.model.StockReason;
+import neora.model.StockType;
+import neora.repository.*;
+import neora.service.StripeService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(
+    properties = {
+      "spring.profiles.active=test",
+      "spring.jpa.properties.hibernate.generate_statistics=true",
+      "stock.reservation.expiry-interval=PT1H",
+      "stripe.webhook.dispatch-interval=PT1H",
+      "mail.outbox.dispatch-interval=PT1H"
+    })
+class OrderServiceIntegrationTest extends PostgresTestContainer {
+  private static final UUID VENDOR_ID = UUID.fromString("aaaa1111-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+  private static final UUID CATEGORY_ID = UUID.fromString("a7a4a8eb-4bc7-4056-a6e0-e13c241ea1e5");
+
+  @Autowired private OrderServiceInterface orderService;
+  @Autowired private StockServiceInterface stockService;
+  @Autowired private UserRepository userRepository;
+  @Autowired private CartRepository cartRepository;
+  @Autowired private CartItemRepository cartItemRepository;
+  @Autowired private ProductRepository productRepository;
+  @Autowired private VendorRepository vendorRepository;
+  @Autowired private CategoryRepository categoryRepository;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  @MockitoBean private StripeService stripeService;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() throws StripeException {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    PaymentIntent paymentIntent = mock(PaymentIntent.class);
+    when(paymentIntent.getId()).thenReturn("pi_" + UUID.randomUUID());
+    when(paymentIntent.getClientSecret()).thenReturn("secret");
+    when(stripeService.createPaymentIntent(any(), any())).thenReturn(paymentIntent);
+  }
+
+  @Test
+  void should_run_same_number_of_statements_whatever_the_cart_size() throws StripeException {
+    // Arrange
+    User singleLineBuyer = createUser();
+    OrderRequest singleLine = createCart(singleLineBuyer, 1);
+    User multiLineBuyer = createUser();
+    OrderRequest multiLine = createCart(multiLineBuyer, 8);
+
+    // Act
+    long singleLineStatements = countStatements(singleLineBuyer, singleLine);
+    long multiLineStatements = countStatements(multiLineBuyer, multiLine);
+
+    // Assert
+    assertEquals(singleLineStatements, multiLineStatements);
+  }
+
+  private long countStatements(User user, OrderRequest request) throws StripeException {
+    statistics.clear();
+    orderService.initiateOrder(user, request);
+    return statistics.getPrepareStatementCount();
+  }
+
+  private User createUser() {
+    User user =
+        userRepository.save(
+            User.builder()
+                .email("buyer-" + UUID.randomUUID() + "@example.com")
+                .password("Password123!")
+                .build());
+    user.setCart(cartRepository.save(Cart.builder().user(user).build()));
+    return user;
+  }
+
+  private OrderRequest createCart(User user, int lines) {
+    Set<UUID> cartItemIds = new HashSet<>();
+    for (int i = 0; i < lines; i++) {
+      Product product =
+          productRepository.save(
+              Product.builder()
+                  .name("Checkout product " + i)
+                  .description("Checkout product")
+                  .price(1000 + i)
+                  .slug("checkout-product-" + UUID.randomUUID())
+                  .vendor(vendorRepository.getReferenceById(VENDOR_ID))
+                  .category(categoryRepository.getReferenceById(CATEGORY_ID))
+                  .build());
+      stockService.createStockMovement(product, 5, StockType.IN, StockReason.NEW);
+      CartItem cartItem =
+          cartItemRepository.save(
+              CartItem.builder().cart(user.getCart()).product(product).quantity(2).build());
+      cartItemIds.add(cartItem.getId());
+    }
+    return new OrderRequest(
+        cartItemIds,
+        new ShippingAddressRequest(
+            "Alice", "Martin", "1 rue de la Paix", "75002", "Ile-de-France", "France"));
+  }
+}
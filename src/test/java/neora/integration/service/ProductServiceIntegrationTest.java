@@ -0,0 +1,341 @@
+package neora.integration.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+import neora.config.PostgresTestContainer;
+import neora.dto.AllProductsResponse;
+import neora.dto.CategoryRequest;
+import neora.dto.CategoryResponse;
+import neora.dto.CursorPagedResponse;
+import neora.dto.ProductRequest;
+import neora.dto.ProductResponse;
+import neora.dto.ProductSuggestion;
+import neora.entity.Category;
+import neora.entity.CategoryClosure;
+import neora.entity.Product;
+import neora.entity.ProductImage;
+import neora.interfaces.CategoryServiceInterface;
+import neora.interfaces.ProductServiceInterface;
+import neora.interfaces.StockServiceInterface;
+import neora.model.StockReason;
+import neora.model.StockType;
+import neora.repository.CategoryClosureRepository;
+import neora.repository.ProductImageRepository;
+import neora.repository.ProductRepository;
+import neora.repository.VendorRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(
+    properties = {
+      "spring.profiles.active=test",
+      "spring.jpa.properties.hibernate.generate_statistics=true",
+      "stock.reservation.expiry-interval=PT1H"
+    })
+class ProductServiceIntegrationTest extends PostgresTestContainer {
+  private static final UUID VENDOR_ID = UUID.fromString("aaaa1111-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+
+  @Autowired private ProductServiceInterface productService;
+  @Autowired private StockServiceInterface stockService;
+  @Autowired private ProductRepository productRepository;
+  @Autowired private ProductImageRepository productImageRepository;
+  @Autowired private CategoryClosureRepository categoryClosureRepository;
+  @Autowired private CategoryServiceInterface categoryService;
+  @Autowired private VendorRepository vendorRepository;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+  private Category smallCategory;
+  private Category largeCategory;
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    smallCategory = createCategory(1);
+    largeCategory = createCategory(12);
+  }
+
+  @Nested
+  class GetAllProducts {
+    @Test
+    void should_run_same_number_of_statements_whatever_the_page_size() {
+      // Act
+      long smallPage =
+          countStatements(
+              () ->
+                  productService.getAllProducts(
+                      smallCategory.getId(), null, PageRequest.of(0, 20)));
+      long largePage =
+          countStatements(
+              () ->
+                  productService.getAllProducts(
+                      largeCategory.getId(), null, PageRequest.of(0, 20)));
+
+      // Assert
+      assertEquals(smallPage, largePage);
+    }
+
+    @Test
+    void should_return_primary_image_of_each_product() {
+      // Act
+      Page<AllProductsResponse> page =
+          productService.getAllProducts(largeCategory.getId(), null, PageRequest.of(0, 20));
+
+      // Assert
+      assertEquals(12, page.getNumberOfElements());
+      page.forEach(product -> assertTrue(product.primaryImage().endsWith("/primary.png")));
+      page.forEach(product -> assertEquals(3, product.stock()));
+    }
+  }
+
+  @Nested
+  class SearchProducts {
+    @Test
+    void should_match_word_prefixes_in_name_and_description() {
+      // Arrange
+      String marker = "zq" + UUID.randomUUID().toString().substring(0, 6);
+      Product inName = createProduct(smallCategory, marker + "phone case", "Hard shell", 1500);
+      Product inDescription =
+          createProduct(smallCategory, "Screen film", "Fits " + marker + "phone", 900);
+
+      // Act
+      Page<AllProductsResponse> page =
+          productService.getAllProducts(null, marker, PageRequest.of(0, 20));
+
+      // Assert
+      assertEquals(2, page.getTotalElements());
+      assertEquals(inName.getId(), page.getContent().get(0).id());
+      assertEquals(inDescription.getId(), page.getContent().get(1).id());
+    }
+
+    @Test
+    void should_still_match_substrings_of_names_within_a_category() {
+      // Act
+      Page<AllProductsResponse> page =
+          productService.getAllProducts(largeCategory.getId(), "product 1", PageRequest.of(0, 20));
+
+      // Assert
+      assertEquals(3, page.getTotalElements());
+    }
+  }
+
+  @Nested
+  class GetSuggestions {
+    @Test
+    void should_suggest_created_products_without_querying_the_database() throws Exception {
+      // Arrange
+      String marker = "zs" + UUID.randomUUID().toString().substring(0, 6);
+      ProductResponse created =
+          productService.createProduct(
+              new ProductRequest(
+                  marker + " keyboard", 4900, "Mechanical", 5, VENDOR_ID, smallCategory.getId()),
+              null);
+
+      // Act
+      statistics.clear();
+      List<ProductSuggestion> suggestions =
+          productService.getSuggestions(marker + " keyb", smallCategory.getId(), 10);
+
+      // Assert
+      assertEquals(1, suggestions.size());
+      assertEquals(created.id(), suggestions.get(0).id());
+      assertEquals(0, statistics.getPrepareStatementCount());
+    }
+  }
+
+  @Nested
+  class GetProductsByCategory {
+    @Test
+    void should_run_same_number_of_statements_whatever_the_page_size() {
+      // Act
+      long smallPage =
+          countStatements(
+              () ->
+                  productService.getProductsByCategory(
+                      smallCategory.getId(), PageRequest.of(0, 20)));
+      long largePage =
+          countStatements(
+              () ->
+                  productService.getProductsByCategory(
+                      largeCategory.getId(), PageRequest.of(0, 20)));
+
+      // Assert
+      assertEquals(smallPage, largePage);
+    }
+  }
+
+  @Nested
+  class CategoryTree {
+    @Test
+    void should_list_products_of_every_descendant_category() {
+      // Arrange
+      String marker = UUID.randomUUID().toString().substring(0, 8);
+      Category root = categoryService.createCategory(new CategoryRequest("Root " + marker, null));
+      Category child =
+          categoryService.createCategory(
+              new CategoryRequest("Child " + marker, Set.of(root.getId())));
+      Category otherChild =
+          categoryService.createCategory(
+              new CategoryRequest("Other " + marker, Set.of(root.getId())));
+      Category grandChild =
+          categoryService.createCategory(
+              new CategoryRequest("Grand " + marker, Set.of(child.getId(), otherChild.getId())));
+      createProduct(root, "Root product " + marker, "Tree", 100);
+      createProduct(child, "Child product " + marker, "Tree", 200);
+      createProduct(grandChild, "Grand product " + marker, "Tree", 300);
+
+      // Act
+      Page<AllProductsResponse> fromRoot =
+          productService.getProductsByCategory(root.getId(), PageRequest.of(0, 20));
+      Page<AllProductsResponse> fromChild =
+          productService.getAllProducts(child.getId(), null, PageRequest.of(0, 20));
+      CursorPagedResponse<AllProductsResponse> fromOtherChild =
+          productService.getProductsByCategoryByCursor(
+              otherChild.getId(), "", PageRequest.of(0, 20));
+
+      // Assert
+      assertEquals(3, fromRoot.getTotalElements());
+      assertEquals(2, fromChild.getTotalElements());
+      assertEquals(1, fromOtherChild.content().size());
+      assertEquals(
+          2,
+          categoryClosureRepository
+              .findById(new CategoryClosure.Key(root.getId(), grandChild.getId()))
+              .orElseThrow()
+              .getDepth());
+    }
+  }
+
+  @Nested
+  class GetAllCategories {
+    @Test
+    void should_load_tree_in_one_query_and_rebuild_after_creation() {
+      // Arrange
+      categoryService.getAllCategories();
+      String name = "Tree " + UUID.randomUUID().toString().substring(0, 8);
+
+      // Act
+      statistics.clear();
+      categoryService.getAllCategoriesJson();
+      long cachedStatements = statistics.getPrepareStatementCount();
+      Category created =
+          categoryService.createCategory(new CategoryRequest(name, Set.of(smallCategory.getId())));
+      statistics.clear();
+      List<CategoryResponse> rebuilt = categoryService.getAllCategories();
+      long rebuildStatements = statistics.getPrepareStatementCount();
+
+      // Assert
+      assertEquals(0, cachedStatements);
+      assertEquals(1, rebuildStatements);
+      CategoryResponse parent =
+          rebuilt.stream()
+              .filter(category -> category.id().equals(smallCategory.getId()))
+              .findFirst()
+              .orElseThrow();
+      assertEquals(created.getId(), parent.children().get(0).id());
+    }
+  }
+
+  @Nested
+  class GetProductsByCategoryByCursor {
+    @Test
+    void should_walk_every_product_once_without_counting() {
+      // Arrange
+      Set<UUID> seen = new HashSet<>();
+      PageRequest pageable = PageRequest.of(0, 5, Sort.by(Sort.Direction.ASC, "price"));
+      String cursor = "";
+      int pages = 0;
+      CursorPagedResponse<AllProductsResponse> page;
+
+      // Act
+      do {
+        page =
+            productService.getProductsByCategoryByCursor(largeCategory.getId(), cursor, pageable);
+        page.content().forEach(product -> assertTrue(seen.add(product.id())));
+        cursor = page.nextCursor();
+        pages++;
+      } while (!page.last());
+
+      // Assert
+      assertEquals(12, seen.size());
+      assertEquals(3, pages);
+      assertNull(page.nextCursor());
+    }
+
+    @Test
+    void should_run_same_number_of_statements_on_later_pages() {
+      // Arrange
+      PageRequest pageable = PageRequest.of(0, 5);
+      CursorPagedResponse<AllProductsResponse> first =
+          productService.getProductsByCategoryByCursor(largeCategory.getId(), "", pageable);
+
+      // Act
+      statistics.clear();
+      productService.getProductsByCategoryByCursor(largeCategory.getId(), "", pageable);
+      long firstPage = statistics.getPrepareStatementCount();
+      statistics.clear();
+      productService.getProductsByCategoryByCursor(
+          largeCategory.getId(), first.nextCursor(), pageable);
+      long secondPage = statistics.getPrepareStatementCount();
+
+      // Assert
+      assertEquals(firstPage, secondPage);
+    }
+  }
+
+  private long countStatements(Supplier<Page<AllProductsResponse>> listing) {
+    statistics.clear();
+    listing.get();
+    return statistics.getPrepareStatementCount();
+  }
+
+  private Category createCategory(int products) {
+    String name = "Listing c" + UUID.randomUUID().toString().substring(0, 8);
+    Category category = categoryService.createCategory(new CategoryRequest(name, null));
+    for (int i = 0; i < products; i++) {
+      Product product =
+          createProduct(category, name + " product " + i, "Listing product", 1000 + i);
+      productImageRepository.save(createImage(product, 1, "/secondary.png"));
+      productImageRepository.save(createImage(product, 0, "/primary.png"));
+      stockService.createStockMovement(product, 3, StockType.IN, StockReason.NEW);
+    }
+    return category;
+  }
+
+  private Product createProduct(Category category, String name, String description, int price) {
+    return productRepository.save(
+        Product.builder()
+            .name(name)
+            .description(description)
+            .price(price)
+            .slug("listing-product-" + UUID.randomUUID())
+            .vendor(vendorRepository.getReferenceById(VENDOR_ID))
+            .category(category)
+            .build());
+  }
+
+  private ProductImage createImage(Product product, int displayOrder, String path) {
+    ProductImage image = new ProductImage();
+    image.setProduct(product);
+    image.setDisplayOrder(displayOrder);
+    image.setImageUrl("http://example.com/" + product.getId() + path);
+    image.setCloudinaryImageId("mock_id");
+    return image;
+  }
+}
@@ -0,0 +1,187 @@
+package neora.integration.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import neora.config.PostgresTestContainer;
+import neora.entity.*;
+import neora.exception.InsufficientStockException;
+import neora.interfaces.StockReservationServiceInterface;
+import neora.interfaces.StockServiceInterface;
+import neora.model.OrderStatus;
+import neora.model.StockReason;
+import neora.model.StockType;
+import neora.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = "spring.profiles.active=test")
+class StockReservationServiceIntegrationTest extends PostgresTestContainer {
+  private static final UUID USER_ID = UUID.fromString("11111111-1111-1111-1111-111111111111");
+  private static final UUID VENDOR_ID = UUID.fromString("aaaa1111-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+  private static final UUID CATEGORY_ID = UUID.fromString("a7a4a8eb-4bc7-4056-a6e0-e13c241ea1e5");
+  private static final int STOCK = 10;
+  private static final int BUYERS = 40;
+
+  @Autowired private StockReservationServiceInterface stockReservationService;
+  @Autowired private StockServiceInterface stockService;
+  @Autowired private StockLevelRepository stockLevelRepository;
+  @Autowired private StockReservationRepository stockReservationRepository;
+  @Autowired private ProductRepository productRepository;
+  @Autowired private OrderRepository orderRepository;
+  @Autowired private UserRepository userRepository;
+  @Autowired private VendorRepository vendorRepository;
+  @Autowired private CategoryRepository categoryRepository;
+
+  private Product product;
+
+  @BeforeEach
+  void setUp() {
+    product =
+        productRepository.save(
+            Product.builder()
+                .name("Flash sale sneaker")
+                .description("Limited drop")
+                .price(12000)
+                .slug("flash-sale-sneaker-" + UUID.randomUUID())
+                .vendor(vendorRepository.getReferenceById(VENDOR_ID))
+                .category(categoryRepository.getReferenceById(CATEGORY_ID))
+                .build());
+    stockService.createStockMovement(product, STOCK, StockType.IN, StockReason.NEW);
+  }
+
+  @Test
+  void should_never_reserve_more_than_available_under_concurrent_checkouts() throws Exception {
+    // Arrange
+    List<Order> orders = new ArrayList<>();
+    for (int i = 0; i < BUYERS; i++) {
+      orders.add(createOrder());
+    }
+    AtomicInteger reserved = new AtomicInteger();
+    AtomicInteger rejected = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(16);
+
+    // Act
+    List<Future<?>> futures = new ArrayList<>();
+    for (Order order : orders) {
+      futures.add(
+          executor.submit(
+              () -> {
+                start.await();
+                try {
+                  stockReservationService.reserve(order);
+                  reserved.incrementAndGet();
+                } catch (InsufficientStockException e) {
+                  rejected.incrementAndGet();
+                }
+                return null;
+              }));
+    }
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get(30, TimeUnit.SECONDS);
+    }
+    executor.shutdown();
+
+    // Assert
+    StockLevel level = stockLevelRepository.findById(product.getId()).orElseThrow();
+    assertEquals(STOCK, reserved.get());
+    assertEquals(BUYERS - STOCK, rejected.get());
+    assertEquals(STOCK, level.getReserved());
+    assertEquals(STOCK, level.getQuantity());
+    assertEquals(0, stockService.getCurrentStock(product));
+  }
+
+  @Test
+  void should_turn_reservation_into_sale_and_release_on_failure() {
+    // Arrange
+    Order paid = createOrder();
+    Order failed = createOrder();
+    stockReservationService.reserve(paid);
+    stockReservationService.reserve(failed);
+
+    // Act
+    stockReservationService.commit(paid);
+    stockReservationService.release(failed);
+    stockReservationService.release(failed);
+
+    // Assert
+    StockLevel level = stockLevelRepository.findById(product.getId()).orElseThrow();
+    assertEquals(STOCK - 1, level.getQuantity());
+    assertEquals(0, level.getReserved());
+    assertEquals(STOCK - 1, stockService.getCurrentStock(product));
+  }
+
+  @Test
+  void should_not_sell_stock_taken_by_others_after_reservation_lapsed() {
+    // Arrange
+    Order late = createOrder();
+    stockReservationService.reserve(late);
+    stockReservationService.release(late);
+    for (int i = 0; i < STOCK; i++) {
+      stockReservationService.reserve(createOrder());
+    }
+
+    // Act
+    boolean committed = stockReservationService.commit(late);
+
+    // Assert
+    StockLevel level = stockLevelRepository.findById(product.getId()).orElseThrow();
+    assertFalse(committed);
+    assertEquals(STOCK, level.getQuantity());
+    assertEquals(STOCK, level.getReserved());
+  }
+
+  @Test
+  void should_release_overdue_reservations() {
+    // Arrange
+    Order abandoned = createOrder();
+    stockReservationService.reserve(abandoned);
+    List<StockReservation> reservations =
+        stockReservationRepository.findAll().stream()
+            .filter(reservation -> reservation.getOrder().getId().equals(abandoned.getId()))
+            .toList();
+    reservations.forEach(reservation -> reservation.setExpiresAt(Instant.now().minusSeconds(1)));
+    stockReservationRepository.saveAll(reservations);
+
+    // Act
+    int released = stockReservationService.releaseExpired();
+
+    // Assert
+    StockLevel level = stockLevelRepository.findById(product.getId()).orElseThrow();
+    assertTrue(released >= 1);
+    assertEquals(0, level.getReserved());
+    assertEquals(STOCK, level.getQuantity());
+  }
+
+  private Order createOrder() {
+    Order order =
+        Order.builder()
+            .user(userRepository.getReferenceById(USER_ID))
+            .status(OrderStatus.PENDING)
+            .shippingAddress(
+                ShippingAddress.builder()
+                    .firstName("Alice")
+                    .lastName("Martin")
+                    .addressLine("1 rue de la Paix")
+                    .postalCode("75002")
+                    .state("Ile-de-France")
+                    .country("France")
+                    .build())
+            .build();
+    order
+        .getOrderItems()
+        .add(OrderItem.builder().order(order).product(product).quantity(1).build());
+    return orderRepository.save(order);
+  }
+}
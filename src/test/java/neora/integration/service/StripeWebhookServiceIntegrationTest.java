@@ -0,0 +1,165 @@
+package neora.integration.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.stripe.exception.StripeException;
+import com.stripe.model.PaymentIntent;
+import com.stripe.net.Webhook;
+import java.util.Set;
+import java.util.UUID;
+import neora.config.PostgresTestContainer;
+import neora.dto.OrderRequest;
+import neora.dto.ShippingAddressRequest;
+import neora.entity.*;
+import neora.interfaces.OrderServiceInterface;
+import neora.interfaces.StockServiceInterface;
+import neora.model.OrderStatus;
+import neora.model.StockReason;
+import neora.model.StockType;
+import neora.model.WebhookEventStatus;
+import neora.repository.*;
+import neora.service.StripeService;
+import neora.service.StripeWebhookService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(
+    properties = {
+      "spring.profiles.active=test",
+      "stock.reservation.expiry-interval=PT1H",
+      "stripe.webhook.dispatch-interval=PT1H"
+    })
+class StripeWebhookServiceIntegrationTest extends PostgresTestContainer {
+  private static final UUID VENDOR_ID = UUID.fromString("aaaa1111-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+  private static final UUID CATEGORY_ID = UUID.fromString("a7a4a8eb-4bc7-4056-a6e0-e13c241ea1e5");
+
+  @Autowired private StripeWebhookService webhookService;
+  @Autowired private StripeWebhookEventRepository eventRepository;
+  @Autowired private OrderServiceInterface orderService;
+  @Autowired private OrderRepository orderRepository;
+  @Autowired private StockServiceInterface stockService;
+  @Autowired private UserRepository userRepository;
+  @Autowired private CartRepository cartRepository;
+  @Autowired private CartItemRepository cartItemRepository;
+  @Autowired private ProductRepository productRepository;
+  @Autowired private VendorRepository vendorRepository;
+  @Autowired private CategoryRepository categoryRepository;
+
+  @MockitoBean private StripeService stripeService;
+
+  @Value("${stripe.webhook.secret}")
+  private String webhookSecret;
+
+  private UUID orderId;
+
+  @BeforeEach
+  void setUp() throws StripeException {
+    PaymentIntent paymentIntent = mock(PaymentIntent.class);
+    when(paymentIntent.getId()).thenReturn("pi_" + UUID.randomUUID());
+    when(paymentIntent.getClientSecret()).thenReturn("secret");
+    when(stripeService.createPaymentIntent(any(), any())).thenReturn(paymentIntent);
+    eventRepository.deleteAll();
+    orderId = placeOrder();
+  }
+
+  @Nested
+  class HandleWebhook {
+    @Test
+    void should_store_a_redelivered_event_once() throws Exception {
+      // Arrange
+      String payload = payload("evt_" + UUID.randomUUID(), "payment_intent.succeeded", 1000);
+
+      // Act
+      webhookService.handleWebhook(payload, sign(payload));
+      webhookService.handleWebhook(payload, sign(payload));
+
+      // Assert
+      assertEquals(1, eventRepository.count());
+      assertEquals(
+          OrderStatus.PENDING, orderRepository.findById(orderId).orElseThrow().getStatus());
+    }
+  }
+
+  @Nested
+  class ProcessPending {
+    @Test
+    void should_apply_events_of_an_order_one_at_a_time_in_creation_order() throws Exception {
+      // Arrange
+      String failed = payload("evt_" + UUID.randomUUID(), "payment_intent.payment_failed", 2000);
+      String succeeded = payload("evt_" + UUID.randomUUID(), "payment_intent.succeeded", 1000);
+      webhookService.handleWebhook(failed, sign(failed));
+      webhookService.handleWebhook(succeeded, sign(succeeded));
+
+      // Act
+      int firstPass = webhookService.processPending();
+      OrderStatus afterFirstPass = orderRepository.findById(orderId).orElseThrow().getStatus();
+      int secondPass = webhookService.processPending();
+      int thirdPass = webhookService.processPending();
+
+      // Assert
+      assertEquals(1, firstPass);
+      assertEquals(OrderStatus.PAID, afterFirstPass);
+      assertEquals(1, secondPass);
+      assertEquals(0, thirdPass);
+      assertEquals(OrderStatus.PAID, orderRepository.findById(orderId).orElseThrow().getStatus());
+      assertTrue(
+          eventRepository.findAll().stream()
+              .allMatch(event -> event.getStatus() == WebhookEventStatus.PROCESSED));
+    }
+  }
+
+  private String payload(String eventId, String type, long created) {
+    return """
+        {"id":"%s","object":"event","api_version":"2024-06-20","created":%d,"type":"%s",
+         "data":{"object":{"id":"pi_1","object":"payment_intent","metadata":{"order_id":"%s"}}}}
+        """
+        .formatted(eventId, created, type, orderId);
+  }
+
+  private String sign(String payload) throws Exception {
+    long timestamp = Webhook.Util.getTimeNow();
+    return "t="
+        + timestamp
+        + ",v1="
+        + Webhook.Util.computeHmacSha256(webhookSecret, timestamp + "." + payload);
+  }
+
+  private UUID placeOrder() throws StripeException {
+    User user =
+        userRepository.save(
+            User.builder()
+                .email("webhook-" + UUID.randomUUID() + "@example.com")
+                .password("Password123!")
+                .build());
+    user.setCart(cartRepository.save(Cart.builder().user(user).build()));
+    Product product =
+        productRepository.save(
+            Product.builder()
+                .name("Webhook product")
+                .description("Webhook product")
+                .price(1000)
+                .slug("webhook-product-" + UUID.randomUUID())
+                .vendor(vendorRepository.getReferenceById(VENDOR_ID))
+                .category(categoryRepository.getReferenceById(CATEGORY_ID))
+                .build());
+    stockService.createStockMovement(product, 5, StockType.IN, StockReason.NEW);
+    CartItem cartItem =
+        cartItemRepository.save(
+            CartItem.builder().cart(user.getCart()).product(product).quantity(1).build());
+    OrderRequest request =
+        new OrderRequest(
+            Set.of(cartItem.getId()),
+            new ShippingAddressRequest(
+                "Alice", "Martin", "1 rue de la Paix", "75002", "Ile-de-France", "France"));
+    return orderService.initiateOrder(user, request).order().order_id();
+  }
+}
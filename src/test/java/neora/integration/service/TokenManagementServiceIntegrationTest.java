@@ -0,0 +1,133 @@
+package neora.integration.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import neora.cache.TokenRevocationCache;
+import neora.config.PostgresTestContainer;
+import neora.entity.Token;
+import neora.entity.User;
+import neora.interfaces.TokenManagementServiceInterface;
+import neora.repository.TokenRepository;
+import neora.repository.UserRepository;
+import neora.service.JwtService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(
+    properties = {
+      "spring.profiles.active=test",
+      "spring.jpa.properties.hibernate.generate_statistics=true",
+      "stock.reservation.expiry-interval=PT1H",
+      "token.purge.interval=PT1H",
+      "token.purge.batch-size=2"
+    })
+class TokenManagementServiceIntegrationTest extends PostgresTestContainer {
+  private static final UUID USER_ID = UUID.fromString("33333333-3333-3333-3333-333333333333");
+
+  @Autowired private TokenManagementServiceInterface tokenManagementService;
+  @Autowired private TokenRepository tokenRepository;
+  @Autowired private UserRepository userRepository;
+  @Autowired private JwtService jwtService;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private TokenRevocationCache tokenRevocationCache;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  private User user;
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    user = userRepository.findById(USER_ID).orElseThrow();
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  @Nested
+  class RevokeAllUserTokens {
+    @ParameterizedTest
+    @ValueSource(ints = {1, 40})
+    void should_revoke_in_one_statement_regardless_of_token_count(int tokenCount) {
+      // Arrange
+      List<String> issued = new ArrayList<>();
+      for (int i = 0; i < tokenCount; i++) {
+        issued.add(jwtService.generateToken(user));
+        tokenManagementService.saveUserToken(user, issued.get(i));
+      }
+      issued.forEach(
+          jwt -> assertTrue(tokenRevocationCache.isActive(jwtService.extractTokenId(jwt))));
+
+      // Act
+      statistics.clear();
+      tokenManagementService.revokeAllUserTokens(user);
+
+      // Assert
+      assertEquals(1, statistics.getPrepareStatementCount());
+      for (String jwt : issued) {
+        assertTrue(tokenRepository.findByTokenHash(Token.hash(jwt)).orElseThrow().isRevoked());
+        assertFalse(tokenRevocationCache.isActive(jwtService.extractTokenId(jwt)));
+      }
+    }
+  }
+
+  @Nested
+  class SaveUserToken {
+    @Test
+    void should_store_only_the_token_hash() {
+      // Arrange
+      String jwt = jwtService.generateToken(user);
+
+      // Act
+      tokenManagementService.saveUserToken(user, jwt);
+
+      // Assert
+      Token stored = tokenRepository.findByTokenHash(Token.hash(jwt)).orElseThrow();
+      assertEquals(32, stored.getTokenHash().length);
+      assertEquals(jwtService.extractTokenId(jwt), stored.getTokenId());
+    }
+  }
+
+  @Nested
+  class PurgeExpiredTokens {
+    @Test
+    void should_delete_dead_tokens_in_batches_and_keep_live_ones() {
+      // Arrange
+      List<String> stale = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+        stale.add(jwtService.generateToken(user));
+        tokenManagementService.saveUserToken(user, stale.get(i));
+      }
+      tokenManagementService.revokeAllUserTokens(user);
+      String old = jwtService.generateToken(user);
+      tokenManagementService.saveUserToken(user, old);
+      jdbcTemplate.update(
+          "UPDATE tokens SET created_at = now() - interval '1 day' WHERE token_id = ?",
+          jwtService.extractTokenId(old));
+      String live = jwtService.generateToken(user);
+      tokenManagementService.saveUserToken(user, live);
+
+      // Act
+      int purged = tokenManagementService.purgeExpiredTokens();
+
+      // Assert
+      assertTrue(purged >= 4);
+      for (String jwt : stale) {
+        assertTrue(tokenRepository.findByTokenHash(Token.hash(jwt)).isEmpty());
+      }
+      assertTrue(tokenRepository.findByTokenHash(Token.hash(old)).isEmpty());
+      assertTrue(tokenRepository.findByTokenHash(Token.hash(live)).isPresent());
+    }
+  }
+}
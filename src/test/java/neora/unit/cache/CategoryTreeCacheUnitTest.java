@@ -0,0 +1,126 @@
+package neora.unit.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.UUID;
+import neora.cache.CacheInvalidationBus;
+import neora.cache.CategoryTreeCache;
+import neora.dto.CategoryEdge;
+import neora.dto.CategoryResponse;
+import neora.mapper.CategoryMapper;
+import neora.repository.CategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryTreeCacheUnitTest {
+
+  @Mock private CategoryRepository categoryRepository;
+  @Mock private StringRedisTemplate redisTemplate;
+
+  private CategoryTreeCache categoryTreeCache;
+  private ObjectMapper objectMapper;
+  private UUID men;
+  private UUID women;
+  private UUID hat;
+  private UUID cap;
+
+  @BeforeEach
+  void setUp() {
+    objectMapper = new ObjectMapper();
+    categoryTreeCache =
+        new CategoryTreeCache(
+            categoryRepository,
+            new CategoryMapper(),
+            objectMapper,
+            new CacheInvalidationBus(redisTemplate));
+    men = UUID.randomUUID();
+    women = UUID.randomUUID();
+    hat = UUID.randomUUID();
+    cap = UUID.randomUUID();
+    when(categoryRepository.findAllEdges())
+        .thenReturn(
+            List.of(
+                new CategoryEdge(women, "Women", null),
+                new CategoryEdge(men, "Men", null),
+                new CategoryEdge(hat, "Hat", men),
+                new CategoryEdge(hat, "Hat", women),
+                new CategoryEdge(cap, "Cap", hat)));
+  }
+
+  @Nested
+  class Get {
+    @Test
+    void should_assemble_tree_from_a_single_query() {
+      // Act
+      List<CategoryResponse> roots = categoryTreeCache.get().categories();
+
+      // Assert
+      assertEquals(List.of("Men", "Women"), roots.stream().map(CategoryResponse::name).toList());
+      for (CategoryResponse root : roots) {
+        CategoryResponse hatNode = root.children().get(0);
+        assertEquals(hat, hatNode.id());
+        assertEquals(cap, hatNode.children().get(0).id());
+      }
+      verify(categoryRepository, times(1)).findAllEdges();
+    }
+
+    @Test
+    void should_pre_encode_the_tree_as_json() throws Exception {
+      // Act
+      CategoryTreeCache.Snapshot snapshot = categoryTreeCache.get();
+
+      // Assert
+      assertEquals(
+          objectMapper.writeValueAsString(snapshot.categories()),
+          objectMapper.writeValueAsString(snapshot.json()));
+    }
+
+    @Test
+    void should_serve_the_same_snapshot_until_invalidated() {
+      // Act
+      CategoryTreeCache.Snapshot first = categoryTreeCache.get();
+      CategoryTreeCache.Snapshot second = categoryTreeCache.get();
+      categoryTreeCache.invalidate();
+      CategoryTreeCache.Snapshot rebuilt = categoryTreeCache.get();
+
+      // Assert
+      assertSame(first, second);
+      assertNotSame(first, rebuilt);
+      verify(categoryRepository, times(2)).findAllEdges();
+      verify(redisTemplate)
+          .convertAndSend(eq(CacheInvalidationBus.CHANNEL), contains(CategoryTreeCache.TOPIC));
+    }
+
+    @Test
+    void should_not_cache_a_tree_built_while_being_invalidated() {
+      // Arrange
+      List<CategoryEdge> edges = categoryRepository.findAllEdges();
+      clearInvocations(categoryRepository);
+      when(categoryRepository.findAllEdges())
+          .thenAnswer(
+              invocation -> {
+                categoryTreeCache.invalidate();
+                return edges;
+              })
+          .thenReturn(edges);
+
+      // Act
+      CategoryTreeCache.Snapshot stale = categoryTreeCache.get();
+      CategoryTreeCache.Snapshot rebuilt = categoryTreeCache.get();
+
+      // Assert
+      assertNotSame(stale, rebuilt);
+      assertSame(rebuilt, categoryTreeCache.get());
+      verify(categoryRepository, times(2)).findAllEdges();
+    }
+  }
+}
@@ -0,0 +1,149 @@
+package neora.unit.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import neora.cache.CacheInvalidationBus;
+import neora.cache.ProductDetailCache;
+import neora.dto.ProductResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class ProductDetailCacheUnitTest {
+
+  @Mock private StringRedisTemplate redisTemplate;
+  @Mock private RedisCacheManager cacheManager;
+  @Mock private Cache remote;
+
+  private ProductDetailCache productDetailCache;
+  private UUID productId;
+  private ProductResponse product;
+  private AtomicInteger loads;
+
+  @BeforeEach
+  void setUp() {
+    when(cacheManager.getCache(ProductDetailCache.CACHE_NAME)).thenReturn(remote);
+    productDetailCache =
+        new ProductDetailCache(
+            new CacheInvalidationBus(redisTemplate),
+            cacheManager,
+            Duration.ofMinutes(10),
+            100,
+            Duration.ofSeconds(5));
+    productId = UUID.randomUUID();
+    product = new ProductResponse(productId, "Laptop", 1500, "16 inch", null, List.of(), null);
+    loads = new AtomicInteger();
+  }
+
+  private ProductResponse load() {
+    loads.incrementAndGet();
+    return product;
+  }
+
+  @Nested
+  class Get {
+    @Test
+    void should_load_once_and_serve_next_reads_locally() {
+      // Act
+      productDetailCache.get(productId, ProductDetailCacheUnitTest.this::load);
+      ProductResponse result =
+          productDetailCache.get(productId, ProductDetailCacheUnitTest.this::load);
+
+      // Assert
+      assertEquals(product, result);
+      assertEquals(1, loads.get());
+      verify(remote, times(1)).get(productId, ProductResponse.class);
+      verify(remote).put(productId, product);
+    }
+
+    @Test
+    void should_use_redis_entry_before_loading() {
+      // Arrange
+      when(remote.get(productId, ProductResponse.class)).thenReturn(product);
+
+      // Act
+      ProductResponse result =
+          productDetailCache.get(productId, ProductDetailCacheUnitTest.this::load);
+
+      // Assert
+      assertEquals(product, result);
+      assertEquals(0, loads.get());
+    }
+
+    @Test
+    void should_fall_back_to_loader_when_redis_is_down() {
+      // Arrange
+      when(remote.get(productId, ProductResponse.class))
+          .thenThrow(new RedisConnectionFailureException("down"));
+      doThrow(new RedisConnectionFailureException("down")).when(remote).put(any(), any());
+
+      // Act
+      ProductResponse result =
+          productDetailCache.get(productId, ProductDetailCacheUnitTest.this::load);
+
+      // Assert
+      assertEquals(product, result);
+      assertEquals(1, loads.get());
+    }
+  }
+
+  @Nested
+  class Evict {
+    @Test
+    void should_drop_local_and_redis_entries_and_broadcast() {
+      // Arrange
+      productDetailCache.get(productId, ProductDetailCacheUnitTest.this::load);
+
+      // Act
+      productDetailCache.evict(productId);
+      productDetailCache.get(productId, ProductDetailCacheUnitTest.this::load);
+
+      // Assert
+      assertEquals(2, loads.get());
+      verify(remote).evict(productId);
+      verify(redisTemplate)
+          .convertAndSend(eq(CacheInvalidationBus.CHANNEL), contains(productId.toString()));
+    }
+
+    @Test
+    void should_drop_slugs_of_evicted_product() {
+      // Arrange
+      productDetailCache.resolveSlug("old-laptop", () -> productId);
+
+      // Act
+      productDetailCache.evict(productId);
+      UUID resolved = productDetailCache.resolveSlug("old-laptop", () -> null);
+
+      // Assert
+      assertNull(resolved);
+    }
+
+    @Test
+    void should_reload_stock_after_stock_eviction() {
+      // Arrange
+      productDetailCache.getStock(productId, () -> 10);
+
+      // Act
+      Integer cached = productDetailCache.getStock(productId, () -> 9);
+      productDetailCache.evictStock(productId);
+      Integer reloaded = productDetailCache.getStock(productId, () -> 9);
+
+      // Assert
+      assertEquals(10, cached);
+      assertEquals(9, reloaded);
+    }
+  }
+}
@@ -0,0 +1,197 @@
+package neora.unit.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import neora.cache.CacheInvalidationBus;
+import neora.cache.CategoryTreeCache;
+import neora.cache.ProductSuggestionIndex;
+import neora.dto.ProductSuggestion;
+import neora.entity.CategoryClosure;
+import neora.repository.CategoryClosureRepository;
+import neora.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSuggestionIndexUnitTest {
+
+  @Mock private ProductRepository productRepository;
+  @Mock private CategoryClosureRepository categoryClosureRepository;
+  @Mock private StringRedisTemplate redisTemplate;
+
+  private CacheInvalidationBus bus;
+  private ProductSuggestionIndex index;
+  private UUID computers;
+  private UUID garden;
+  private ProductSuggestion laptop;
+  private ProductSuggestion gamingLaptop;
+  private ProductSuggestion lamp;
+
+  @BeforeEach
+  void setUp() {
+    computers = UUID.randomUUID();
+    garden = UUID.randomUUID();
+    laptop = suggestion("Laptop", "laptop", computers, "Computers");
+    gamingLaptop = suggestion("Gaming laptop", "gaming-laptop", computers, "Computers");
+    lamp = suggestion("Lampe de jardin", "lampe-de-jardin", garden, "Jardinage");
+
+    bus = new CacheInvalidationBus(redisTemplate);
+    index = new ProductSuggestionIndex(productRepository, categoryClosureRepository, bus);
+    when(productRepository.findAllSuggestions()).thenReturn(List.of(laptop, gamingLaptop, lamp));
+    index.rebuild();
+  }
+
+  private ProductSuggestion suggestion(
+      String name, String slug, UUID categoryId, String categoryName) {
+    return new ProductSuggestion(UUID.randomUUID(), name, slug, categoryId, categoryName);
+  }
+
+  @Nested
+  class Suggest {
+    @Test
+    void should_match_word_prefixes() {
+      // Act
+      List<ProductSuggestion> result = index.suggest("la", null, 10);
+
+      // Assert
+      assertEquals(List.of(laptop, gamingLaptop, lamp), result);
+    }
+
+    @Test
+    void should_require_every_word_to_match() {
+      // Act
+      List<ProductSuggestion> result = index.suggest("gam lap", null, 10);
+
+      // Assert
+      assertEquals(List.of(gamingLaptop), result);
+    }
+
+    @Test
+    void should_tolerate_one_typo() {
+      // Act
+      List<ProductSuggestion> result = index.suggest("lpatop", null, 10);
+
+      // Assert
+      assertEquals(List.of(laptop, gamingLaptop), result);
+    }
+
+    @Test
+    void should_match_category_names_and_ignore_accents() {
+      // Act
+      List<ProductSuggestion> result = index.suggest("JÀRDIN", null, 10);
+
+      // Assert
+      assertEquals(List.of(lamp), result);
+    }
+
+    @Test
+    void should_filter_by_category_and_limit() {
+      // Act
+      List<ProductSuggestion> result = index.suggest("la", computers, 1);
+
+      // Assert
+      assertEquals(List.of(laptop), result);
+    }
+
+    @Test
+    void should_include_subcategories_in_category_filter() {
+      // Arrange
+      UUID electronics = UUID.randomUUID();
+      when(categoryClosureRepository.findAll())
+          .thenReturn(
+              List.of(
+                  new CategoryClosure(electronics, electronics, 0),
+                  new CategoryClosure(electronics, computers, 1),
+                  new CategoryClosure(computers, computers, 0),
+                  new CategoryClosure(garden, garden, 0)));
+      bus.publish(CategoryTreeCache.TOPIC, "all");
+
+      // Act
+      List<ProductSuggestion> result = index.suggest("la", electronics, 10);
+
+      // Assert
+      assertEquals(List.of(laptop, gamingLaptop), result);
+    }
+
+    @Test
+    void should_tolerate_one_typo_among_many_terms() {
+      // Arrange
+      ProductSuggestion lantern = suggestion("Lantern", "lantern", garden, "Jardinage");
+      ProductSuggestion ladder = suggestion("Ladder", "ladder", garden, "Jardinage");
+      when(productRepository.findAllSuggestions())
+          .thenReturn(List.of(laptop, gamingLaptop, lamp, lantern, ladder));
+      index.rebuild();
+
+      // Act & Assert
+      assertEquals(List.of(lantern), index.suggest("lnatern", null, 10));
+      assertEquals(List.of(ladder), index.suggest("laddre", null, 10));
+      assertEquals(List.of(laptop, gamingLaptop), index.suggest("laptpo", null, 10));
+      assertTrue(index.suggest("xaptop", null, 10).isEmpty());
+    }
+
+    @Test
+    void should_return_nothing_for_blank_query() {
+      // Act & Assert
+      assertTrue(index.suggest("  ", null, 10).isEmpty());
+      assertTrue(index.suggest("zzz", null, 10).isEmpty());
+    }
+  }
+
+  @Nested
+  class Refresh {
+    @Test
+    void should_index_new_product_and_broadcast() {
+      // Arrange
+      ProductSuggestion tablet = suggestion("Tablet", "tablet", computers, "Computers");
+      when(productRepository.findSuggestionById(tablet.id())).thenReturn(Optional.of(tablet));
+
+      // Act
+      index.refresh(tablet.id());
+
+      // Assert
+      assertEquals(List.of(tablet), index.suggest("tab", null, 10));
+      verify(redisTemplate)
+          .convertAndSend(eq(CacheInvalidationBus.CHANNEL), contains(tablet.id().toString()));
+    }
+
+    @Test
+    void should_keep_products_reloaded_during_a_rebuild() {
+      // Arrange
+      ProductSuggestion tablet = suggestion("Tablet", "tablet", computers, "Computers");
+      when(productRepository.findSuggestionById(tablet.id())).thenReturn(Optional.of(tablet));
+      when(productRepository.findAllSuggestions())
+          .thenAnswer(
+              invocation -> {
+                index.refresh(tablet.id());
+                return List.of(laptop, gamingLaptop, lamp);
+              });
+
+      // Act
+      index.rebuild();
+
+      // Assert
+      assertEquals(List.of(tablet), index.suggest("tab", null, 10));
+    }
+
+    @Test
+    void should_drop_deleted_product() {
+      // Arrange
+      when(productRepository.findSuggestionById(lamp.id())).thenReturn(Optional.empty());
+
+      // Act
+      index.refresh(lamp.id());
+
+      // Assert
+      assertTrue(index.suggest("lampe", null, 10).isEmpty());
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package neora.unit.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import neora.cache.CacheInvalidationBus;
+import neora.cache.TokenRevocationCache;
+import neora.entity.Token;
+import neora.repository.TokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationCacheUnitTest {
+
+  @Mock private TokenRepository tokenRepository;
+  @Mock private StringRedisTemplate redisTemplate;
+
+  private TokenRevocationCache tokenRevocationCache;
+  private UUID tokenId;
+
+  @BeforeEach
+  void setUp() {
+    tokenRevocationCache =
+        new TokenRevocationCache(
+            tokenRepository, new CacheInvalidationBus(redisTemplate), Duration.ofMinutes(1), 1000);
+    tokenId = UUID.randomUUID();
+  }
+
+  @Nested
+  class IsActive {
+    @Test
+    void should_load_token_status_once() {
+      // Arrange
+      when(tokenRepository.findByTokenId(tokenId))
+          .thenReturn(Optional.of(Token.builder().tokenId(tokenId).build()));
+
+      // Act
+      boolean first = tokenRevocationCache.isActive(tokenId);
+      boolean second = tokenRevocationCache.isActive(tokenId);
+
+      // Assert
+      assertTrue(first);
+      assertTrue(second);
+      verify(tokenRepository, times(1)).findByTokenId(tokenId);
+    }
+
+    @Test
+    void should_reject_unknown_token() {
+      // Arrange
+      when(tokenRepository.findByTokenId(tokenId)).thenReturn(Optional.empty());
+
+      // Act & Assert
+      assertFalse(tokenRevocationCache.isActive(tokenId));
+    }
+
+    @Test
+    void should_reject_revoked_token() {
+      // Arrange
+      when(tokenRepository.findByTokenId(tokenId))
+          .thenReturn(Optional.of(Token.builder().tokenId(tokenId).revoked(true).build()));
+
+      // Act & Assert
+      assertFalse(tokenRevocationCache.isActive(tokenId));
+    }
+  }
+
+  @Nested
+  class Revoke {
+    @Test
+    void should_reject_cached_token_once_revoked() {
+      // Arrange
+      when(tokenRepository.findByTokenId(tokenId))
+          .thenReturn(Optional.of(Token.builder().tokenId(tokenId).build()));
+      assertTrue(tokenRevocationCache.isActive(tokenId));
+
+      // Act
+      tokenRevocationCache.revoke(tokenId);
+
+      // Assert
+      assertFalse(tokenRevocationCache.isActive(tokenId));
+      verify(tokenRepository, times(1)).findByTokenId(tokenId);
+      verify(redisTemplate)
+          .convertAndSend(eq(CacheInvalidationBus.CHANNEL), contains(TokenRevocationCache.TOPIC));
+    }
+  }
+}
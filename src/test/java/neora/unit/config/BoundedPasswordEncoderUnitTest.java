@@ -0,0 +1,145 @@
+package neora.unit.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import neora.config.BoundedPasswordEncoder;
+import neora.exception.PasswordHashingUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class BoundedPasswordEncoderUnitTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private BoundedPasswordEncoder encoder;
+
+  @AfterEach
+  void tearDown() {
+    encoder.destroy();
+  }
+
+  @Nested
+  class Delegation {
+    @Test
+    void should_hash_and_verify_on_the_pool() {
+      // Arrange
+      AtomicReference<String> thread = new AtomicReference<>();
+      BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(4);
+      PasswordEncoder recording =
+          new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+              thread.set(Thread.currentThread().getName());
+              return bcrypt.encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+              return bcrypt.matches(rawPassword, encodedPassword);
+            }
+          };
+      encoder = new BoundedPasswordEncoder(recording, 2, 4, Duration.ofSeconds(5), meterRegistry);
+
+      // Act
+      String hash = encoder.encode("secret");
+
+      // Assert
+      assertTrue(thread.get().startsWith(BoundedPasswordEncoder.EXECUTOR_NAME));
+      assertTrue(encoder.matches("secret", hash));
+      assertFalse(encoder.matches("other", hash));
+      assertNotNull(
+          meterRegistry
+              .find("executor.completed")
+              .tag("name", BoundedPasswordEncoder.EXECUTOR_NAME)
+              .functionCounter());
+    }
+  }
+
+  @Nested
+  class Saturation {
+    @Test
+    void should_reject_immediately_when_pool_and_queue_are_full() throws Exception {
+      // Arrange
+      CountDownLatch release = new CountDownLatch(1);
+      CountDownLatch started = new CountDownLatch(1);
+      encoder =
+          new BoundedPasswordEncoder(
+              blockingEncoder(started, release), 1, 1, Duration.ofSeconds(5), meterRegistry);
+      CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+      CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+      awaitQueued();
+
+      // Act & Assert
+      long start = System.nanoTime();
+      assertThrows(PasswordHashingUnavailableException.class, () -> encoder.encode("c"));
+      assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1000);
+
+      release.countDown();
+      assertEquals("hash", running.get(5, TimeUnit.SECONDS));
+      assertEquals("hash", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void should_give_up_when_hashing_takes_too_long() {
+      // Arrange
+      CountDownLatch release = new CountDownLatch(1);
+      encoder =
+          new BoundedPasswordEncoder(
+              blockingEncoder(new CountDownLatch(1), release),
+              1,
+              1,
+              Duration.ofMillis(50),
+              meterRegistry);
+
+      // Act & Assert
+      assertThrows(PasswordHashingUnavailableException.class, () -> encoder.encode("a"));
+      assertEquals(
+          1.0, meterRegistry.get(BoundedPasswordEncoder.TIMEOUTS_METRIC).counter().count());
+      release.countDown();
+    }
+
+    private void awaitQueued() throws InterruptedException {
+      for (int i = 0; i < 500; i++) {
+        if (meterRegistry
+                .get("executor.queued")
+                .tag("name", BoundedPasswordEncoder.EXECUTOR_NAME)
+                .gauge()
+                .value()
+            == 1.0) {
+          return;
+        }
+        Thread.sleep(10);
+      }
+      fail("Second hash was never queued");
+    }
+  }
+
+  private static PasswordEncoder blockingEncoder(CountDownLatch started, CountDownLatch release) {
+    return new PasswordEncoder() {
+      @Override
+      public String encode(CharSequence rawPassword) {
+        started.countDown();
+        try {
+          release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return "hash";
+      }
+
+      @Override
+      public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return true;
+      }
+    };
+  }
+}
@@ -0,0 +1,225 @@
+package neora.unit.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AbstractCompareAndSwapBasedProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AsyncCompareAndSwapOperation;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.CompareAndSwapOperation;
+import io.github.bucket4j.distributed.remote.RemoteBucketState;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import neora.config.BucketCache;
+import neora.model.RateLimitKey;
+import neora.model.RateLimitPolicy;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class BucketCacheUnitTest {
+  private final RateLimitKey tight =
+      key(Bandwidth.builder().capacity(10).refillIntervally(10, Duration.ofMinutes(1)).build());
+
+  private static RateLimitKey key(Bandwidth bandwidth) {
+    return new RateLimitKey(new RateLimitPolicy("auth", List.of(bandwidth)), false, "10.0.0.1");
+  }
+
+  @Nested
+  class Distributed {
+    @Test
+    void should_enforce_one_limit_across_nodes() {
+      // Arrange
+      InMemoryProxyManager redis = new InMemoryProxyManager();
+      BucketCache first = new BucketCache(() -> redis, 20, Duration.ofSeconds(1), Duration.ZERO);
+      BucketCache second = new BucketCache(() -> redis, 20, Duration.ofSeconds(1), Duration.ZERO);
+
+      // Act
+      int consumed = 0;
+      for (int i = 0; i < 10; i++) {
+        BucketCache node = i % 2 == 0 ? first : second;
+        consumed += node.tryConsume(tight, 1).isConsumed() ? 1 : 0;
+      }
+
+      // Assert
+      assertEquals(10, consumed);
+      assertFalse(first.tryConsume(tight, 1).isConsumed());
+      assertFalse(second.tryConsume(tight, 1).isConsumed());
+    }
+
+    @Test
+    void should_batch_consumption_of_large_buckets_locally() {
+      // Arrange
+      InMemoryProxyManager redis = new InMemoryProxyManager();
+      BucketCache node = new BucketCache(() -> redis, 20, Duration.ofMinutes(1), Duration.ZERO);
+      RateLimitKey large =
+          key(
+              Bandwidth.builder()
+                  .capacity(1000)
+                  .refillIntervally(1000, Duration.ofMinutes(1))
+                  .build());
+
+      // Act
+      for (int i = 0; i < 100; i++) {
+        assertTrue(node.tryConsume(large, 1).isConsumed());
+      }
+
+      // Assert
+      assertTrue(redis.operations.get() <= 100 / 20 * 2 + 2);
+    }
+  }
+
+  @Nested
+  class Local {
+    @Test
+    void should_charge_the_cost_against_every_limit() {
+      // Arrange
+      BucketCache node =
+          new BucketCache(
+              () -> {
+                throw new IllegalStateException("Connection refused");
+              },
+              20,
+              Duration.ofSeconds(1),
+              Duration.ofMinutes(1));
+      RateLimitKey burstAndSustained =
+          new RateLimitKey(
+              new RateLimitPolicy(
+                  "catalog",
+                  List.of(
+                      Bandwidth.builder()
+                          .capacity(50)
+                          .refillIntervally(50, Duration.ofSeconds(1))
+                          .build(),
+                      Bandwidth.builder()
+                          .capacity(25)
+                          .refillIntervally(25, Duration.ofMinutes(1))
+                          .build())),
+              false,
+              "10.0.0.1");
+
+      // Act
+      boolean first = node.tryConsume(burstAndSustained, 10).isConsumed();
+      boolean second = node.tryConsume(burstAndSustained, 10).isConsumed();
+      ConsumptionProbe third = node.tryConsume(burstAndSustained, 10);
+
+      // Assert
+      assertTrue(first);
+      assertTrue(second);
+      assertFalse(third.isConsumed());
+      assertEquals(5, third.getRemainingTokens());
+    }
+  }
+
+  @Nested
+  class Fallback {
+    @Test
+    void should_fall_back_to_local_buckets_when_redis_is_unreachable() {
+      // Arrange
+      @SuppressWarnings("unchecked")
+      Supplier<ProxyManager<byte[]>> unreachable = mock(Supplier.class);
+      when(unreachable.get()).thenThrow(new IllegalStateException("Connection refused"));
+      BucketCache node =
+          new BucketCache(unreachable, 20, Duration.ofSeconds(1), Duration.ofMinutes(1));
+
+      // Act
+      int consumed = 0;
+      for (int i = 0; i < 12; i++) {
+        consumed += node.tryConsume(tight, 1).isConsumed() ? 1 : 0;
+      }
+
+      // Assert
+      assertEquals(10, consumed);
+      verify(unreachable, times(1)).get();
+    }
+
+    @Test
+    void should_fall_back_when_a_redis_call_fails() {
+      // Arrange
+      InMemoryProxyManager redis = new InMemoryProxyManager();
+      BucketCache node =
+          new BucketCache(() -> redis, 20, Duration.ofSeconds(1), Duration.ofMinutes(1));
+      assertTrue(node.tryConsume(tight, 1).isConsumed());
+      redis.failing = true;
+
+      // Act & Assert
+      assertTrue(node.tryConsume(tight, 1).isConsumed());
+      int callsAfterFailure = redis.operations.get();
+      assertTrue(node.tryConsume(tight, 1).isConsumed());
+      assertEquals(callsAfterFailure, redis.operations.get());
+    }
+  }
+
+  // Stand-in for Redis with the same compare-and-swap semantics the Lettuce proxy manager uses.
+  private static class InMemoryProxyManager
+      extends AbstractCompareAndSwapBasedProxyManager<byte[]> {
+    private final Map<String, byte[]> states = new ConcurrentHashMap<>();
+    private final AtomicInteger operations = new AtomicInteger();
+    private volatile boolean failing;
+
+    InMemoryProxyManager() {
+      super(ClientSideConfig.getDefault());
+    }
+
+    @Override
+    protected CompareAndSwapOperation beginCompareAndSwapOperation(byte[] key) {
+      String id = new String(key, StandardCharsets.UTF_8);
+      return new CompareAndSwapOperation() {
+        @Override
+        public Optional<byte[]> getStateData(Optional<Long> timeoutNanos) {
+          operations.incrementAndGet();
+          if (failing) {
+            throw new IllegalStateException("Connection reset");
+          }
+          return Optional.ofNullable(states.get(id));
+        }
+
+        @Override
+        public boolean compareAndSwap(
+            byte[] originalData,
+            byte[] newData,
+            RemoteBucketState newState,
+            Optional<Long> timeoutNanos) {
+          operations.incrementAndGet();
+          if (originalData == null) {
+            return states.putIfAbsent(id, newData) == null;
+          }
+          return states.computeIfPresent(
+                  id, (k, current) -> Arrays.equals(current, originalData) ? newData : current)
+              == newData;
+        }
+      };
+    }
+
+    @Override
+    protected AsyncCompareAndSwapOperation beginAsyncCompareAndSwapOperation(byte[] key) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void removeProxy(byte[] key) {
+      states.remove(new String(key, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    protected CompletableFuture<Void> removeAsync(byte[] key) {
+      removeProxy(key);
+      return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public boolean isAsyncModeSupported() {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package neora.unit.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import neora.config.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerUnitTest {
+  private final AtomicLong now = new AtomicLong();
+  private CircuitBreaker circuitBreaker;
+
+  @BeforeEach
+  void setUp() {
+    circuitBreaker = new CircuitBreaker(3, Duration.ofSeconds(30), now::get);
+  }
+
+  private void fail(int times) {
+    for (int i = 0; i < times; i++) {
+      assertTrue(circuitBreaker.tryAcquire());
+      circuitBreaker.onFailure();
+    }
+  }
+
+  @Nested
+  class Closed {
+    @Test
+    void should_let_calls_through_below_the_failure_threshold() {
+      // Arrange
+      fail(2);
+
+      // Act
+      boolean acquired = circuitBreaker.tryAcquire();
+
+      // Assert
+      assertTrue(acquired);
+      assertFalse(circuitBreaker.isOpen());
+    }
+
+    @Test
+    void should_reset_the_failure_count_after_a_success() {
+      // Arrange
+      fail(2);
+      circuitBreaker.onSuccess();
+
+      // Act
+      fail(2);
+
+      // Assert
+      assertFalse(circuitBreaker.isOpen());
+    }
+  }
+
+  @Nested
+  class Open {
+    @Test
+    void should_reject_calls_once_the_failure_threshold_is_reached() {
+      // Arrange
+      fail(3);
+
+      // Act
+      boolean acquired = circuitBreaker.tryAcquire();
+
+      // Assert
+      assertFalse(acquired);
+      assertTrue(circuitBreaker.isOpen());
+    }
+
+    @Test
+    void should_let_a_single_trial_through_after_the_open_period() {
+      // Arrange
+      fail(3);
+      now.addAndGet(Duration.ofSeconds(30).toMillis());
+
+      // Act
+      boolean trial = circuitBreaker.tryAcquire();
+      boolean concurrent = circuitBreaker.tryAcquire();
+
+      // Assert
+      assertTrue(trial);
+      assertFalse(concurrent);
+    }
+
+    @Test
+    void should_close_after_a_successful_trial() {
+      // Arrange
+      fail(3);
+      now.addAndGet(Duration.ofSeconds(30).toMillis());
+      circuitBreaker.tryAcquire();
+
+      // Act
+      circuitBreaker.onSuccess();
+
+      // Assert
+      assertFalse(circuitBreaker.isOpen());
+      assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void should_stay_open_for_another_period_after_a_failed_trial() {
+      // Arrange
+      fail(3);
+      now.addAndGet(Duration.ofSeconds(30).toMillis());
+      circuitBreaker.tryAcquire();
+
+      // Act
+      circuitBreaker.onFailure();
+
+      // Assert
+      assertFalse(circuitBreaker.tryAcquire());
+      now.addAndGet(Duration.ofSeconds(30).toMillis());
+      assertTrue(circuitBreaker.tryAcquire());
+    }
+  }
+}
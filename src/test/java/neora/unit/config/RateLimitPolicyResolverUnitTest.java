@@ -0,0 +1,254 @@
+package neora.unit.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import neora.config.RateLimitKeyResolver;
+import neora.config.RateLimitPolicyResolver;
+import neora.config.RateLimitProperties;
+import neora.config.RateLimitProperties.Limit;
+import neora.config.RateLimitProperties.Policy;
+import neora.config.RateLimitProperties.Rule;
+import neora.entity.User;
+import neora.model.RateLimitKey;
+import neora.model.RateLimitRule;
+import neora.model.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+class RateLimitPolicyResolverUnitTest {
+  private static final Duration MINUTE = Duration.ofMinutes(1);
+
+  private static final RateLimitProperties PROPERTIES =
+      new RateLimitProperties(
+          "standard",
+          Map.of(
+              "standard",
+              new Policy(
+                  List.of(new Limit(20, Duration.ofSeconds(1)), new Limit(100, MINUTE)),
+                  Map.of(Role.ADMIN, List.of(new Limit(1000, MINUTE)))),
+              "auth",
+              new Policy(List.of(new Limit(10, MINUTE)), null),
+              "catalog",
+              new Policy(List.of(new Limit(1000, MINUTE)), null)),
+          List.of(
+              new Rule("/api/v1/auth", null, null, "auth", 0),
+              new Rule("/api/v1/products", "GET", null, "catalog", 0),
+              new Rule("/api/v1/products", "GET", "search", "catalog", 10),
+              new Rule("/api/v1/orders", "POST", null, "standard", 10)));
+
+  private final RateLimitPolicyResolver resolver = new RateLimitPolicyResolver(PROPERTIES);
+
+  private RateLimitRule resolve(String method, String path) {
+    return resolver.resolve(new MockHttpServletRequest(method, path));
+  }
+
+  @AfterEach
+  void clearSecurityContext() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Nested
+  class Resolve {
+    @Test
+    void should_match_rules_by_path_prefix() {
+      // Act & Assert
+      assertEquals("auth", resolve("POST", "/api/v1/auth/login").policy().id());
+      assertEquals("catalog", resolve("GET", "/api/v1/products/42").policy().id());
+      assertEquals("standard", resolve("GET", "/api/v1/cart").policy().id());
+      assertEquals("standard", resolve("GET", "/api").policy().id());
+    }
+
+    @Test
+    void should_only_apply_method_bound_rules_to_that_method() {
+      // Act & Assert
+      assertEquals("catalog", resolve("GET", "/api/v1/products").policy().id());
+      assertEquals("standard", resolve("POST", "/api/v1/products").policy().id());
+    }
+
+    @Test
+    void should_charge_expensive_endpoints_more_from_the_same_bucket() {
+      // Arrange
+      MockHttpServletRequest search = new MockHttpServletRequest("GET", "/api/v1/products");
+      search.setParameter("search", "lamp");
+
+      // Act
+      RateLimitRule listing = resolve("GET", "/api/v1/products");
+      RateLimitRule searching = resolver.resolve(search);
+      RateLimitRule checkout = resolve("POST", "/api/v1/orders");
+
+      // Assert
+      assertEquals(1, listing.cost());
+      assertEquals(10, searching.cost());
+      assertSame(listing.policy(), searching.policy());
+      assertEquals(10, checkout.cost());
+    }
+
+    @Test
+    void should_combine_burst_and_sustained_limits() {
+      // Act
+      RateLimitRule rule = resolve("GET", "/api/v1/cart");
+
+      // Assert
+      assertEquals(2, rule.policy().bandwidths().size());
+      assertEquals(20, rule.policy().bandwidths().get(0).getCapacity());
+      assertEquals(100, rule.policy().bandwidths().get(1).getCapacity());
+    }
+  }
+
+  @Nested
+  class Roles {
+    private final RateLimitKeyResolver keyResolver = new RateLimitKeyResolver();
+
+    private void authenticate(Role... roles) {
+      User user =
+          User.builder()
+              .id(UUID.randomUUID())
+              .email("user@example.com")
+              .roles(EnumSet.of(roles[0], roles))
+              .build();
+      SecurityContextHolder.getContext()
+          .setAuthentication(
+              new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    @Test
+    void should_give_roles_with_their_own_quota_that_quota() {
+      // Arrange
+      authenticate(Role.USER, Role.ADMIN);
+      MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/cart");
+
+      // Act
+      RateLimitKey key = keyResolver.resolve(request, resolver.resolve(request));
+
+      // Assert
+      assertEquals("standard:ADMIN", key.policy().id());
+      assertEquals("user@example.com", key.client());
+      assertTrue(key.user());
+    }
+
+    @Test
+    void should_give_other_users_the_policy_quota() {
+      // Arrange
+      authenticate(Role.USER);
+      MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/cart");
+
+      // Act
+      RateLimitKey key = keyResolver.resolve(request, resolver.resolve(request));
+
+      // Assert
+      assertEquals("standard", key.policy().id());
+    }
+
+    @Test
+    void should_key_anonymous_requests_by_first_forwarded_address() {
+      // Arrange
+      MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products");
+      request.addHeader("X-Forwarded-For", " 203.0.113.7 , 10.0.0.1");
+      request.setRemoteAddr("198.51.100.2");
+
+      // Act
+      RateLimitKey key = keyResolver.resolve(request, resolver.resolve(request));
+
+      // Assert
+      assertFalse(key.user());
+      assertEquals("203.0.113.7", key.client());
+      assertTrue(key.bucketName().startsWith("catalog@"));
+      assertTrue(key.bucketName().endsWith(":IP:203.0.113.7"));
+    }
+  }
+
+  @Nested
+  class Compile {
+    @Test
+    void should_reject_an_undefined_default_policy() {
+      // Arrange
+      RateLimitProperties properties =
+          new RateLimitProperties("missing", PROPERTIES.policies(), List.of());
+
+      // Act & Assert
+      assertThrows(IllegalStateException.class, () -> new RateLimitPolicyResolver(properties));
+    }
+
+    @Test
+    void should_reject_overlapping_rules() {
+      // Arrange
+      RateLimitProperties properties =
+          new RateLimitProperties(
+              "standard",
+              PROPERTIES.policies(),
+              List.of(
+                  new Rule("/api/v1/auth", "POST", null, "auth", 1),
+                  new Rule("/api/v1/auth", "post", null, "standard", 5)));
+
+      // Act & Assert
+      assertThrows(IllegalStateException.class, () -> new RateLimitPolicyResolver(properties));
+    }
+  }
+
+  @Nested
+  class Reload {
+    @TempDir Path directory;
+
+    private RateLimitPolicyResolver watching(Path file) {
+      return new RateLimitPolicyResolver(
+          PROPERTIES, new DefaultResourceLoader(), file.toUri().toString());
+    }
+
+    private void write(Path file, String content, Instant modified) throws Exception {
+      Files.writeString(file, content);
+      Files.setLastModifiedTime(file, FileTime.from(modified));
+    }
+
+    @Test
+    void should_replace_rules_when_the_file_changes() throws Exception {
+      // Arrange
+      Path file = directory.resolve("rate-limits.properties");
+      RateLimitPolicyResolver watched = watching(file);
+      write(
+          file,
+          """
+          rate-limit.default-policy=strict
+          rate-limit.policies.strict.limits[0].capacity=5
+          rate-limit.policies.strict.limits[0].period=PT1M
+          """,
+          Instant.parse("2026-01-01T00:00:00Z"));
+
+      // Act
+      watched.reloadIfChanged();
+      RateLimitRule rule = watched.resolve(new MockHttpServletRequest("GET", "/api/v1/auth"));
+
+      // Assert
+      assertEquals("strict", rule.policy().id());
+      assertEquals(5, rule.policy().bandwidths().get(0).getCapacity());
+    }
+
+    @Test
+    void should_keep_current_rules_when_the_file_is_invalid() throws Exception {
+      // Arrange
+      Path file = directory.resolve("rate-limits.properties");
+      write(file, "rate-limit.default-policy=undefined\n", Instant.parse("2026-01-01T00:00:00Z"));
+
+      // Act
+      RateLimitPolicyResolver watched = watching(file);
+      RateLimitRule rule = watched.resolve(new MockHttpServletRequest("GET", "/api/v1/auth"));
+
+      // Assert
+      assertEquals("auth", rule.policy().id());
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package neora.unit.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import neora.config.RetryPolicy;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class RetryPolicyUnitTest {
+  private final RetryPolicy retryPolicy =
+      new RetryPolicy(4, Duration.ofSeconds(10), Duration.ofSeconds(30));
+
+  private record Recorded(boolean deadLetter, Instant nextAttemptAt, String error) {}
+
+  private Recorded fail(int attempts, String message) {
+    List<Recorded> recorded = new ArrayList<>();
+    retryPolicy.onFailure(
+        "item",
+        attempts,
+        new IllegalStateException(message),
+        (deadLetter, nextAttemptAt, error) ->
+            recorded.add(new Recorded(deadLetter, nextAttemptAt, error)));
+    assertEquals(1, recorded.size());
+    return recorded.get(0);
+  }
+
+  @Nested
+  class BackoffAfter {
+    @Test
+    void should_double_from_the_initial_backoff_up_to_the_maximum() {
+      // Act & Assert
+      assertEquals(Duration.ofSeconds(10), retryPolicy.backoffAfter(1));
+      assertEquals(Duration.ofSeconds(20), retryPolicy.backoffAfter(2));
+      assertEquals(Duration.ofSeconds(30), retryPolicy.backoffAfter(3));
+      assertEquals(Duration.ofSeconds(30), retryPolicy.backoffAfter(100));
+    }
+  }
+
+  @Nested
+  class OnFailure {
+    @Test
+    void should_schedule_a_retry_before_the_last_attempt() {
+      // Act
+      Instant before = Instant.now();
+      Recorded recorded = fail(2, "boom");
+
+      // Assert
+      assertFalse(recorded.deadLetter());
+      assertFalse(recorded.nextAttemptAt().isBefore(before.plusSeconds(20)));
+      assertEquals("boom", recorded.error());
+    }
+
+    @Test
+    void should_dead_letter_after_the_last_attempt() {
+      // Act
+      Recorded recorded = fail(4, "boom");
+
+      // Assert
+      assertTrue(recorded.deadLetter());
+    }
+
+    @Test
+    void should_truncate_long_errors() {
+      // Act
+      Recorded recorded = fail(1, "x".repeat(5000));
+
+      // Assert
+      assertEquals(1000, recorded.error().length());
+    }
+  }
+}
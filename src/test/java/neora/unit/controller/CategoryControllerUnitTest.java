@@ -3,11 +3,13 @@ package neora.unit.controller;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.Set;
 import java.util.UUID;
 import neora.controller.CategoryController;
 import neora.dto.ApiRestResponse;
 import neora.dto.CategoryRequest;
+import neora.dto.RawJson;
 import neora.entity.Category;
 import neora.exception.ResourceAlreadyExistsException;
 import neora.exception.ResourceNotFoundException;
@@ -89,4 +91,22 @@ class CategoryControllerUnitTest {
       assertEquals("Parent category not found", exception.getMessage());
     }
   }
+
+  @Nested
+  class GetAllCategories {
+    @Test
+    void should_return_encoded_category_tree() throws Exception {
+      // Arrange
+      RawJson tree = new RawJson("[{\"category_name\":\"Sport\",\"children\":[]}]");
+      when(categoryService.getAllCategoriesJson()).thenReturn(tree);
+
+      // Act
+      ResponseEntity<ApiRestResponse<RawJson>> response = categoryController.getAllCategories();
+      String body = new ObjectMapper().writeValueAsString(response.getBody().data());
+
+      // Assert
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      assertEquals("[{\"category_name\":\"Sport\",\"children\":[]}]", body);
+    }
+  }
 }
@@ -10,8 +10,10 @@ import java.util.List;
 import java.util.UUID;
 import neora.controller.ProductController;
 import neora.dto.AllProductsResponse;
+import neora.dto.CursorPagedResponse;
 import neora.dto.ProductRequest;
 import neora.dto.ProductResponse;
+import neora.dto.ProductSuggestion;
 import neora.interfaces.ProductServiceInterface;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -99,6 +101,27 @@ class ProductControllerUnitTest {
     }
   }
 
+  @Nested
+  class GetSuggestions {
+    @Test
+    void should_return_suggestions() throws Exception {
+      // Arrange
+      ProductSuggestion suggestion =
+          new ProductSuggestion(testId, "Test Product", "test-product", null, "Tech");
+      when(productService.getSuggestions("tes", null, 10)).thenReturn(List.of(suggestion));
+
+      // Act & Assert
+      mockMvc
+          .perform(get("/api/v1/products/suggestions").param("query", "tes"))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$.message").value("Suggestions fetched successfully"))
+          .andExpect(jsonPath("$.data[0].product_id").value(testId.toString()))
+          .andExpect(jsonPath("$.data[0].product_slug").value("test-product"));
+
+      verify(productService).getSuggestions("tes", null, 10);
+    }
+  }
+
   @Nested
   class GetAllProducts {
     @Test
@@ -175,6 +198,30 @@ class ProductControllerUnitTest {
       verify(productService)
           .getAllProducts(nullable(UUID.class), eq(searchTerm), any(Pageable.class));
     }
+
+    @Test
+    void should_get_products_by_cursor_when_cursor_is_given() throws Exception {
+      // Arrange
+      AllProductsResponse response =
+          new AllProductsResponse(
+              testId, "Test Product", 100, "slug", 10, "http://example.com/image.png", 4.5);
+      CursorPagedResponse<AllProductsResponse> page =
+          new CursorPagedResponse<>(List.of(response), 10, "next", false);
+
+      when(productService.getAllProductsByCursor(eq(null), eq(null), eq(""), any(Pageable.class)))
+          .thenReturn(page);
+
+      // Act & Assert
+      mockMvc
+          .perform(
+              get("/api/v1/products").param("cursor", "").contentType(MediaType.APPLICATION_JSON))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$.data.content[0].product_id").value(testId.toString()))
+          .andExpect(jsonPath("$.data.next_cursor").value("next"))
+          .andExpect(jsonPath("$.data.last").value(false));
+
+      verify(productService, never()).getAllProducts(any(), any(), any(Pageable.class));
+    }
   }
 
   @Nested
@@ -17,6 +17,7 @@ import neora.exception.ResourceAlreadyExistsException;
 import neora.interfaces.CartServiceInterface;
 import neora.interfaces.TokenManagementServiceInterface;
 import neora.mapper.UserMapper;
+import neora.model.ConfirmationToken;
 import neora.repository.MailConfirmationRepository;
 import neora.repository.UserRepository;
 import neora.service.AuthenticationService;
@@ -26,6 +27,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -75,8 +77,18 @@ class AuthenticationServiceUnitTest {
       assertEquals("User registered successfully. Please confirm your email", response.message());
 
       verify(userRepository).save(user);
-      verify(mailConfirmationRepository).save(any(MailConfirmation.class));
-      verify(emailService).sendRegistrationConfirmationEmail(eq(user.getEmail()), anyString());
+      ArgumentCaptor<MailConfirmation> confirmationCaptor =
+          ArgumentCaptor.forClass(MailConfirmation.class);
+      verify(mailConfirmationRepository).save(confirmationCaptor.capture());
+      ArgumentCaptor<String> tokenCaptor = ArgumentCaptor.forClass(String.class);
+      verify(emailService)
+          .sendRegistrationConfirmationEmail(eq(user.getEmail()), tokenCaptor.capture());
+
+      ConfirmationToken sent = ConfirmationToken.parse(tokenCaptor.getValue()).orElseThrow();
+      MailConfirmation stored = confirmationCaptor.getValue();
+      assertEquals(sent.selector(), stored.getSelector());
+      assertTrue(sent.matches(stored.getVerifierHash()));
+      assertNull(stored.getToken());
     }
 
     @Test
@@ -7,12 +7,15 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import neora.cache.CategoryTreeCache;
 import neora.dto.CategoryRequest;
 import neora.dto.CategoryResponse;
+import neora.dto.RawJson;
 import neora.entity.Category;
 import neora.exception.ResourceAlreadyExistsException;
 import neora.exception.ResourceNotFoundException;
 import neora.mapper.CategoryMapper;
+import neora.repository.CategoryClosureRepository;
 import neora.repository.CategoryRepository;
 import neora.service.CategoryService;
 import org.junit.jupiter.api.BeforeEach;
@@ -29,6 +32,8 @@ import org.springframework.dao.DataIntegrityViolationException;
 class CategoryServiceUnitTest {
   @Spy private CategoryMapper categoryMapper;
   @Mock private CategoryRepository categoryRepository;
+  @Mock private CategoryClosureRepository categoryClosureRepository;
+  @Mock private CategoryTreeCache categoryTreeCache;
   @InjectMocks private CategoryService categoryService;
 
   private Category category;
@@ -50,13 +55,14 @@ class CategoryServiceUnitTest {
       // Arrange
       when(categoryMapper.categoryToEntity(categoryRequest)).thenReturn(category);
       when(categoryRepository.findById(parentId)).thenReturn(Optional.of(category));
-      when(categoryRepository.save(category)).thenReturn(category);
+      when(categoryRepository.saveAndFlush(category)).thenReturn(category);
 
       // Arrange
       Category categoryResponse = categoryService.createCategory(categoryRequest);
 
       // Assert
       assertEquals(categoryResponse.getName(), categoryRequest.name());
+      verify(categoryClosureRepository).insertForCategory(category.getId(), new UUID[] {parentId});
     }
 
     @Test
@@ -66,13 +72,14 @@ class CategoryServiceUnitTest {
       Category categoryNoParent = Category.builder().name(request.name()).build();
 
       when(categoryMapper.categoryToEntity(request)).thenReturn(categoryNoParent);
-      when(categoryRepository.save(categoryNoParent)).thenReturn(categoryNoParent);
+      when(categoryRepository.saveAndFlush(categoryNoParent)).thenReturn(categoryNoParent);
 
       // Act
       Category response = categoryService.createCategory(request);
 
       // Assert
       verify(categoryRepository, never()).findById(any());
+      verify(categoryClosureRepository).insertForCategory(categoryNoParent.getId(), new UUID[0]);
       assertEquals("Ballon", response.getName());
       assertNull(response.getParentCategory());
     }
@@ -97,7 +104,8 @@ class CategoryServiceUnitTest {
       // Arrange
       when(categoryMapper.categoryToEntity(categoryRequest)).thenReturn(category);
       when(categoryRepository.findById(parentId)).thenReturn(Optional.of(category));
-      when(categoryRepository.save(category)).thenThrow(new DataIntegrityViolationException(""));
+      when(categoryRepository.saveAndFlush(category))
+          .thenThrow(new DataIntegrityViolationException(""));
 
       // Act & Assert
       ResourceAlreadyExistsException exception =
@@ -106,6 +114,7 @@ class CategoryServiceUnitTest {
               () -> categoryService.createCategory(categoryRequest));
 
       assertEquals("A category with this name already exists", exception.getMessage());
+      verifyNoInteractions(categoryClosureRepository, categoryTreeCache);
     }
   }
 
@@ -114,12 +123,13 @@ class CategoryServiceUnitTest {
     @Test
     void should_return_all_root_categories() {
       // Arrange
-      Category category1 = Category.builder().id(UUID.randomUUID()).name("Electronics").build();
-      Category category2 = Category.builder().id(UUID.randomUUID()).name("Books").build();
+      CategoryResponse electronics =
+          new CategoryResponse(UUID.randomUUID(), "Electronics", List.of());
+      CategoryResponse books =
+          new CategoryResponse(UUID.randomUUID(), "Books", List.of(electronics));
 
-      category2.setChildrenCategory(Set.of(category1));
-
-      when(categoryRepository.findByParentCategoryIsNull()).thenReturn(List.of(category2));
+      when(categoryTreeCache.get())
+          .thenReturn(new CategoryTreeCache.Snapshot(List.of(books), new RawJson("[]")));
 
       // Act
       List<CategoryResponse> responses = categoryService.getAllCategories();
@@ -130,6 +140,7 @@ class CategoryServiceUnitTest {
       assertEquals("Books", responses.get(0).name());
       assertEquals(1, responses.get(0).children().size());
       assertEquals("Electronics", responses.get(0).children().get(0).name());
+      verifyNoInteractions(categoryRepository);
     }
   }
 }
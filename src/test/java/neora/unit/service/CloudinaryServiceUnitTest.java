@@ -0,0 +1,131 @@
+package neora.unit.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.Uploader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import neora.dto.CloudinaryResponse;
+import neora.service.CloudinaryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+@ExtendWith(MockitoExtension.class)
+class CloudinaryServiceUnitTest {
+  @Mock private Cloudinary cloudinary;
+  @Mock private Uploader uploader;
+
+  private CloudinaryService cloudinaryService;
+
+  @BeforeEach
+  void setUp() {
+    when(cloudinary.uploader()).thenReturn(uploader);
+    cloudinaryService = new CloudinaryService(cloudinary, new SimpleMeterRegistry(), 4);
+  }
+
+  @AfterEach
+  void tearDown() {
+    cloudinaryService.destroy();
+  }
+
+  private static MultipartFile image(String name) {
+    return new MockMultipartFile("images", name + ".png", "image/png", name.getBytes());
+  }
+
+  private static Map<String, Object> uploaded(File file) throws IOException {
+    String name = Files.readString(file.toPath());
+    return Map.of("public_id", "id_" + name, "secure_url", "https://cdn/" + name);
+  }
+
+  @Nested
+  class Upload {
+    @Test
+    void should_upload_the_image_as_a_file_and_remove_it_afterwards() throws IOException {
+      // Arrange
+      File[] sent = new File[1];
+      when(uploader.upload(any(), anyMap()))
+          .thenAnswer(
+              i -> {
+                sent[0] = i.getArgument(0);
+                return uploaded(sent[0]);
+              });
+
+      // Act
+      CloudinaryResponse response = cloudinaryService.upload(image("front"), "products");
+
+      // Assert
+      assertEquals(new CloudinaryResponse("id_front", "https://cdn/front"), response);
+      assertTrue(sent[0].getName().endsWith(".png"));
+      assertFalse(sent[0].exists());
+    }
+  }
+
+  @Nested
+  class UploadMultiple {
+    @Test
+    void should_upload_images_concurrently_and_keep_their_order() throws IOException {
+      // Arrange
+      CountDownLatch allStarted = new CountDownLatch(3);
+      when(uploader.upload(any(), anyMap()))
+          .thenAnswer(
+              i -> {
+                allStarted.countDown();
+                assertTrue(allStarted.await(5, TimeUnit.SECONDS));
+                return uploaded(i.getArgument(0));
+              });
+
+      // Act
+      List<CloudinaryResponse> responses =
+          cloudinaryService.uploadMultiple(List.of(image("a"), image("b"), image("c")), "products");
+
+      // Assert
+      assertEquals(
+          List.of("id_a", "id_b", "id_c"),
+          responses.stream().map(CloudinaryResponse::publicId).toList());
+    }
+
+    @Test
+    void should_delete_uploaded_images_when_one_upload_fails() throws IOException {
+      // Arrange
+      when(uploader.upload(any(), anyMap()))
+          .thenAnswer(
+              i -> {
+                Map<String, Object> result = uploaded(i.getArgument(0));
+                if (result.get("public_id").equals("id_b")) {
+                  throw new IOException("Upload failed");
+                }
+                return result;
+              });
+
+      // Act
+      IOException exception =
+          assertThrows(
+              IOException.class,
+              () ->
+                  cloudinaryService.uploadMultiple(
+                      List.of(image("a"), image("b"), image("c")), "products"));
+
+      // Assert
+      assertEquals("Upload failed", exception.getMessage());
+      verify(uploader).destroy(eq("id_a"), anyMap());
+      verify(uploader).destroy(eq("id_c"), anyMap());
+      verify(uploader, never()).destroy(eq("id_b"), anyMap());
+    }
+  }
+}
@@ -0,0 +1,153 @@
+package neora.unit.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import neora.entity.OutboxEmail;
+import neora.model.OutboxStatus;
+import neora.repository.OutboxEmailRepository;
+import neora.service.EmailOutboxService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxServiceUnitTest {
+
+  @Mock private OutboxEmailRepository outboxEmailRepository;
+  @Mock private JavaMailSender mailSender;
+
+  private EmailOutboxService emailOutboxService;
+
+  @BeforeEach
+  void setUp() {
+    emailOutboxService = emailOutboxService(10);
+  }
+
+  private EmailOutboxService emailOutboxService(int batchSize) {
+    return new EmailOutboxService(
+        outboxEmailRepository,
+        mailSender,
+        batchSize,
+        Duration.ofMinutes(5),
+        3,
+        Duration.ofSeconds(30),
+        Duration.ofMinutes(1),
+        Duration.ofDays(7));
+  }
+
+  private OutboxEmail email(String recipient, int attempts) {
+    return OutboxEmail.builder()
+        .id(UUID.randomUUID())
+        .sender("no-reply@neora.com")
+        .recipient(recipient)
+        .subject("Subject")
+        .body("Body")
+        .attempts(attempts)
+        .build();
+  }
+
+  @Nested
+  class DispatchPending {
+    @Test
+    void should_send_claimed_batch_in_one_call_and_mark_it_sent() {
+      // Arrange
+      OutboxEmail first = email("a@example.com", 1);
+      OutboxEmail second = email("b@example.com", 1);
+      when(outboxEmailRepository.claimDue(any(), any(), eq(10))).thenReturn(List.of(first, second));
+
+      // Act
+      int sent = emailOutboxService.dispatchPending();
+
+      // Assert
+      assertEquals(2, sent);
+      ArgumentCaptor<SimpleMailMessage[]> messages =
+          ArgumentCaptor.forClass(SimpleMailMessage[].class);
+      verify(mailSender).send(messages.capture());
+      assertEquals(2, messages.getValue().length);
+      verify(outboxEmailRepository).markSent(eq(List.of(first.getId(), second.getId())), any());
+      verify(outboxEmailRepository, never()).markFailed(any(), any(), any(), any());
+    }
+
+    @Test
+    void should_retry_only_failed_messages_with_backoff() {
+      // Arrange
+      OutboxEmail delivered = email("a@example.com", 1);
+      OutboxEmail rejected = email("b@example.com", 2);
+      when(outboxEmailRepository.claimDue(any(), any(), eq(10)))
+          .thenReturn(List.of(delivered, rejected));
+      doAnswer(
+              invocation -> {
+                SimpleMailMessage failed = invocation.getArgument(1);
+                throw new MailSendException(
+                    Map.of(failed, new IllegalStateException("Mailbox unavailable")));
+              })
+          .when(mailSender)
+          .send(any(SimpleMailMessage[].class));
+
+      // Act
+      Instant before = Instant.now();
+      int sent = emailOutboxService.dispatchPending();
+
+      // Assert
+      assertEquals(1, sent);
+      verify(outboxEmailRepository).markSent(eq(List.of(delivered.getId())), any());
+      ArgumentCaptor<Instant> nextAttempt = ArgumentCaptor.forClass(Instant.class);
+      verify(outboxEmailRepository)
+          .markFailed(
+              eq(rejected.getId()),
+              eq(OutboxStatus.PENDING),
+              nextAttempt.capture(),
+              eq("Mailbox unavailable"));
+      assertFalse(nextAttempt.getValue().isBefore(before.plusSeconds(60)));
+    }
+
+    @Test
+    void should_bury_emails_that_ran_out_of_attempts() {
+      // Arrange
+      OutboxEmail exhausted = email("a@example.com", 3);
+      when(outboxEmailRepository.claimDue(any(), any(), eq(10))).thenReturn(List.of(exhausted));
+      doThrow(new MailAuthenticationException("Bad credentials"))
+          .when(mailSender)
+          .send(any(SimpleMailMessage[].class));
+
+      // Act
+      int sent = emailOutboxService.dispatchPending();
+
+      // Assert
+      assertEquals(0, sent);
+      verify(outboxEmailRepository)
+          .markFailed(eq(exhausted.getId()), eq(OutboxStatus.DEAD), any(), eq("Bad credentials"));
+      verify(outboxEmailRepository, never()).markSent(any(), any());
+    }
+
+    @Test
+    void should_keep_claiming_while_batches_are_full() {
+      // Arrange
+      emailOutboxService = emailOutboxService(1);
+      when(outboxEmailRepository.claimDue(any(), any(), eq(1)))
+          .thenReturn(List.of(email("a@example.com", 1)), List.of());
+
+      // Act
+      int sent = emailOutboxService.dispatchPending();
+
+      // Assert
+      assertEquals(1, sent);
+      verify(outboxEmailRepository, times(2)).claimDue(any(), any(), eq(1));
+    }
+  }
+}
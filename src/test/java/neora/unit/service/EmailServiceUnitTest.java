@@ -5,13 +5,19 @@ import static org.mockito.Mockito.*;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import neora.entity.MailConfirmation;
+import neora.entity.OutboxEmail;
 import neora.entity.User;
 import neora.exception.InvalidTokenException;
 import neora.interfaces.CartServiceInterface;
+import neora.model.ConfirmationToken;
+import neora.model.OutboxStatus;
 import neora.repository.MailConfirmationRepository;
+import neora.repository.OutboxEmailRepository;
 import neora.repository.UserRepository;
 import neora.service.EmailService;
 import org.junit.jupiter.api.BeforeEach;
@@ -22,15 +28,13 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 class EmailServiceUnitTest {
 
-  @Mock private JavaMailSender mailSender;
+  @Mock private OutboxEmailRepository outboxEmailRepository;
   @Mock private MailConfirmationRepository mailConfirmationRepository;
   @Mock private UserRepository userRepository;
   @Mock private PasswordEncoder passwordEncoder;
@@ -46,7 +50,7 @@ class EmailServiceUnitTest {
   @Nested
   class SendConfirmationEmail {
     @Test
-    void should_send_email_successfully() {
+    void should_queue_email_in_outbox() {
       // Arrange
       String to = "test@example.com";
       String token = "test-token";
@@ -55,94 +59,217 @@ class EmailServiceUnitTest {
       emailService.sendRegistrationConfirmationEmail(to, token);
 
       // Assert
-      ArgumentCaptor<SimpleMailMessage> messageCaptor =
-          ArgumentCaptor.forClass(SimpleMailMessage.class);
-      verify(mailSender).send(messageCaptor.capture());
+      ArgumentCaptor<OutboxEmail> emailCaptor = ArgumentCaptor.forClass(OutboxEmail.class);
+      verify(outboxEmailRepository).save(emailCaptor.capture());
 
-      SimpleMailMessage sentMessage = messageCaptor.getValue();
-      assertEquals(to, sentMessage.getTo()[0]);
-      assertEquals("Confirmez votre compte", sentMessage.getSubject());
+      OutboxEmail queued = emailCaptor.getValue();
+      assertEquals(to, queued.getRecipient());
+      assertEquals("Confirmez votre compte", queued.getSubject());
+      assertEquals(OutboxStatus.PENDING, queued.getStatus());
       assertTrue(
-          sentMessage
-              .getText()
-              .contains("http://localhost:8080/api/v1/email/confirm?token=" + token));
+          queued.getBody().contains("http://localhost:8080/api/v1/email/confirm?token=" + token));
+    }
+  }
+
+  @Nested
+  class SendOrderEmails {
+    @Test
+    void should_queue_order_cancellation_in_outbox() {
+      // Arrange
+      UUID orderId = UUID.randomUUID();
+
+      // Act
+      emailService.sendOrderCancelledConfirmationEmail("test@example.com", orderId);
+
+      // Assert
+      ArgumentCaptor<OutboxEmail> emailCaptor = ArgumentCaptor.forClass(OutboxEmail.class);
+      verify(outboxEmailRepository).save(emailCaptor.capture());
+      assertEquals("Order cancelled succesfully", emailCaptor.getValue().getSubject());
+      assertTrue(emailCaptor.getValue().getBody().endsWith("api/v1/orders/" + orderId));
     }
   }
 
   @Nested
   class ConfirmEmail {
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+      user =
+          User.builder()
+              .id(UUID.randomUUID())
+              .email("user@example.com")
+              .isMailConfirmed(false)
+              .build();
+    }
+
     @Test
     void should_confirm_email_successfully() {
       // Arrange
-      String token = "valid-token";
-      String encodedToken = "encoded-token";
-      User user = User.builder().id(UUID.randomUUID()).isMailConfirmed(false).build();
+      ConfirmationToken token = ConfirmationToken.generate();
       MailConfirmation mailConfirmation =
-          MailConfirmation.builder()
-              .token(encodedToken)
-              .user(user)
-              .expiresAt(Instant.now().plus(1, ChronoUnit.HOURS))
-              .build();
+          confirmation(token, Instant.now().plus(1, ChronoUnit.HOURS));
 
-      when(mailConfirmationRepository.findAll()).thenReturn(List.of(mailConfirmation));
-      when(passwordEncoder.matches(token, encodedToken)).thenReturn(true);
+      when(mailConfirmationRepository.findBySelector(token.selector()))
+          .thenReturn(Optional.of(mailConfirmation));
 
       // Act
-      emailService.confirmEmail(token);
+      emailService.confirmEmail(token.toString());
 
       // Assert
       assertTrue(user.isMailConfirmed());
       verify(userRepository).save(user);
       verify(cartServiceInterface).createCart(user);
       verify(mailConfirmationRepository).delete(mailConfirmation);
+      verify(mailConfirmationRepository, never()).findAll();
+      verifyNoInteractions(passwordEncoder);
     }
 
     @Test
-    void should_throw_exception_if_token_invalid() {
+    void should_throw_exception_if_verifier_invalid() {
       // Arrange
-      String token = "invalid-token";
-      String encodedToken = "encoded-token";
-      User user = User.builder().id(UUID.randomUUID()).build();
-      MailConfirmation mailConfirmation =
-          MailConfirmation.builder()
-              .token(encodedToken)
-              .user(user)
-              .expiresAt(Instant.now().plus(1, ChronoUnit.HOURS))
-              .build();
-
-      when(mailConfirmationRepository.findAll()).thenReturn(List.of(mailConfirmation));
-      when(passwordEncoder.matches(token, encodedToken)).thenReturn(false);
+      ConfirmationToken token = ConfirmationToken.generate();
+      ConfirmationToken forged =
+          new ConfirmationToken(token.selector(), ConfirmationToken.generate().verifier());
+      when(mailConfirmationRepository.findBySelector(token.selector()))
+          .thenReturn(Optional.of(confirmation(token, Instant.now().plus(1, ChronoUnit.HOURS))));
 
       // Act & Assert
       InvalidTokenException exception =
-          assertThrows(InvalidTokenException.class, () -> emailService.confirmEmail(token));
+          assertThrows(
+              InvalidTokenException.class, () -> emailService.confirmEmail(forged.toString()));
       assertEquals("Invalid token", exception.getMessage());
 
       verify(userRepository, never()).save(any());
     }
 
+    @Test
+    void should_throw_exception_if_selector_unknown() {
+      // Arrange
+      ConfirmationToken token = ConfirmationToken.generate();
+      when(mailConfirmationRepository.findBySelector(token.selector()))
+          .thenReturn(Optional.empty());
+
+      // Act & Assert
+      assertThrows(InvalidTokenException.class, () -> emailService.confirmEmail(token.toString()));
+      verify(userRepository, never()).save(any());
+    }
+
     @Test
     void should_throw_exception_if_token_expired() {
       // Arrange
-      String token = "expired-token";
-      String encodedToken = "encoded-token";
-      User user = User.builder().id(UUID.randomUUID()).build();
-      MailConfirmation mailConfirmation =
+      ConfirmationToken token = ConfirmationToken.generate();
+      when(mailConfirmationRepository.findBySelector(token.selector()))
+          .thenReturn(Optional.of(confirmation(token, Instant.now().minus(1, ChronoUnit.HOURS))));
+
+      // Act & Assert
+      InvalidTokenException exception =
+          assertThrows(
+              InvalidTokenException.class, () -> emailService.confirmEmail(token.toString()));
+      assertEquals("Token expired", exception.getMessage());
+
+      verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void should_confirm_legacy_token_against_bcrypt_rows_only() {
+      // Arrange
+      String token = UUID.randomUUID().toString();
+      MailConfirmation legacy =
           MailConfirmation.builder()
-              .token(encodedToken)
+              .token("encoded-token")
               .user(user)
-              .expiresAt(Instant.now().minus(1, ChronoUnit.HOURS))
+              .expiresAt(Instant.now().plus(1, ChronoUnit.HOURS))
               .build();
+      when(mailConfirmationRepository.findAllBySelectorIsNullAndExpiresAtAfter(any()))
+          .thenReturn(List.of(legacy));
+      when(passwordEncoder.matches(token, "encoded-token")).thenReturn(true);
+
+      // Act
+      emailService.confirmEmail(token);
 
-      when(mailConfirmationRepository.findAll()).thenReturn(List.of(mailConfirmation));
-      when(passwordEncoder.matches(token, encodedToken)).thenReturn(true);
+      // Assert
+      assertTrue(user.isMailConfirmed());
+      verify(mailConfirmationRepository).delete(legacy);
+      verify(mailConfirmationRepository, never()).findBySelector(any());
+    }
+
+    @Test
+    void should_check_every_unexpired_legacy_row() {
+      // Arrange
+      String token = UUID.randomUUID().toString();
+      List<MailConfirmation> legacy = new ArrayList<>();
+      for (int i = 0; i < 15; i++) {
+        legacy.add(
+            MailConfirmation.builder()
+                .token("encoded-token-" + i)
+                .user(i == 14 ? user : User.builder().id(UUID.randomUUID()).build())
+                .expiresAt(Instant.now().plus(1, ChronoUnit.HOURS))
+                .build());
+      }
+      when(mailConfirmationRepository.findAllBySelectorIsNullAndExpiresAtAfter(any()))
+          .thenReturn(legacy);
+      when(passwordEncoder.matches(eq(token), anyString()))
+          .thenAnswer(invocation -> "encoded-token-14".equals(invocation.getArgument(1)));
 
+      // Act
+      emailService.confirmEmail(token);
+
+      // Assert
+      assertTrue(user.isMailConfirmed());
+      verify(passwordEncoder, times(15)).matches(eq(token), anyString());
+      verify(mailConfirmationRepository).delete(legacy.get(14));
+    }
+
+    @Test
+    void should_reject_malformed_token_without_hashing() {
       // Act & Assert
-      InvalidTokenException exception =
-          assertThrows(InvalidTokenException.class, () -> emailService.confirmEmail(token));
-      assertEquals("Token expired", exception.getMessage());
+      assertThrows(InvalidTokenException.class, () -> emailService.confirmEmail("not-a-token"));
+      verify(mailConfirmationRepository, never()).findAllBySelectorIsNullAndExpiresAtAfter(any());
+      verifyNoInteractions(passwordEncoder);
+    }
 
-      verify(userRepository, never()).save(any());
+    @Test
+    void should_stop_looking_for_legacy_rows_once_none_is_left() {
+      // Arrange
+      when(mailConfirmationRepository.findAllBySelectorIsNullAndExpiresAtAfter(any()))
+          .thenReturn(List.of());
+
+      // Act
+      assertThrows(
+          InvalidTokenException.class,
+          () -> emailService.confirmEmail(UUID.randomUUID().toString()));
+      assertThrows(
+          InvalidTokenException.class,
+          () -> emailService.confirmEmail(UUID.randomUUID().toString()));
+
+      // Assert
+      verify(mailConfirmationRepository, times(1)).findAllBySelectorIsNullAndExpiresAtAfter(any());
+      verifyNoInteractions(passwordEncoder);
+    }
+
+    private MailConfirmation confirmation(ConfirmationToken token, Instant expiresAt) {
+      return MailConfirmation.builder()
+          .selector(token.selector())
+          .verifierHash(token.verifierHash())
+          .user(user)
+          .expiresAt(expiresAt)
+          .build();
+    }
+  }
+
+  @Nested
+  class PurgeExpiredConfirmations {
+    @Test
+    void should_delete_expired_confirmations() {
+      // Arrange
+      when(mailConfirmationRepository.deleteExpired(any(Instant.class))).thenReturn(3);
+
+      // Act
+      int purged = emailService.purgeExpiredConfirmations();
+
+      // Assert
+      assertEquals(3, purged);
     }
   }
 }
@@ -0,0 +1,129 @@
+package neora.unit.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import neora.entity.User;
+import neora.model.Role;
+import neora.service.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class JwtServiceUnitTest {
+  private static final String CURRENT_SECRET =
+      "278b8af3fcf8ca684592eca83d65b4ce7652afadd8f824ec92170580b236020a";
+  private static final String RETIRED_SECRET =
+      "a1b2c3d4e5f60718293a4b5c6d7e8f90a1b2c3d4e5f60718293a4b5c6d7e8f90";
+
+  private JwtService jwtService;
+  private User user;
+
+  @BeforeEach
+  void setUp() {
+    jwtService =
+        new JwtService(
+            CURRENT_SECRET, "2024-b", List.of("2024-a:" + RETIRED_SECRET), 60_000L, 120_000L);
+    user =
+        User.builder()
+            .id(UUID.randomUUID())
+            .email("user@example.com")
+            .roles(EnumSet.of(Role.USER, Role.ADMIN))
+            .build();
+  }
+
+  @Nested
+  class GenerateToken {
+    @Test
+    void should_sign_with_current_key_id() {
+      // Act
+      String token = jwtService.generateToken(user);
+
+      // Assert
+      String kid =
+          Jwts.parserBuilder()
+              .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(CURRENT_SECRET)))
+              .build()
+              .parseClaimsJws(token)
+              .getHeader()
+              .getKeyId();
+      assertEquals("2024-b", kid);
+    }
+
+    @Test
+    void should_carry_principal_claims() {
+      // Act
+      Claims claims = jwtService.parseClaims(jwtService.generateToken(user));
+      User principal = jwtService.toPrincipal(claims);
+
+      // Assert
+      assertTrue(jwtService.hasPrincipalClaims(claims));
+      assertEquals(user.getId(), principal.getId());
+      assertEquals("user@example.com", principal.getUsername());
+      assertEquals(Set.of(Role.USER, Role.ADMIN), principal.getRoles());
+    }
+  }
+
+  @Nested
+  class ParseClaims {
+    @Test
+    void should_verify_token_signed_with_retired_key() {
+      // Arrange
+      String token = sign("2024-a", RETIRED_SECRET);
+
+      // Act
+      Claims claims = jwtService.parseClaims(token);
+
+      // Assert
+      assertEquals("user@example.com", claims.getSubject());
+    }
+
+    @Test
+    void should_verify_token_without_key_id_with_current_key() {
+      // Arrange
+      String token = sign(null, CURRENT_SECRET);
+
+      // Act & Assert
+      assertEquals("user@example.com", jwtService.parseClaims(token).getSubject());
+    }
+
+    @Test
+    void should_reject_unknown_key_id() {
+      // Arrange
+      String token = sign("2023-z", CURRENT_SECRET);
+
+      // Act & Assert
+      assertThrows(JwtException.class, () -> jwtService.parseClaims(token));
+    }
+
+    @Test
+    void should_reject_token_signed_with_another_key_under_known_id() {
+      // Arrange
+      String token = sign("2024-b", RETIRED_SECRET);
+
+      // Act & Assert
+      assertThrows(JwtException.class, () -> jwtService.parseClaims(token));
+    }
+  }
+
+  private static String sign(String kid, String secret) {
+    var builder = Jwts.builder();
+    if (kid != null) {
+      builder.setHeaderParam("kid", kid);
+    }
+    return builder
+        .setSubject("user@example.com")
+        .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+        .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)))
+        .compact();
+  }
+}
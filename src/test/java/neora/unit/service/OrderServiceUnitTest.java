@@ -15,10 +15,12 @@ import neora.dto.ShippingAddressRequest;
 import neora.entity.*;
 import neora.exception.EmptyCartException;
 import neora.exception.InsufficientStockException;
+import neora.exception.PaymentProviderUnavailableException;
 import neora.exception.ResourceNotFoundException;
 import neora.exception.UnauthorizedAccess;
 import neora.interfaces.EmailServiceInterface;
 import neora.interfaces.ShippingAddressServiceInterface;
+import neora.interfaces.StockReservationServiceInterface;
 import neora.interfaces.StockServiceInterface;
 import neora.mapper.OrderItemMapper;
 import neora.mapper.OrderMapper;
@@ -31,9 +33,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class OrderServiceUnitTest {
@@ -41,10 +47,16 @@ class OrderServiceUnitTest {
   @Mock private OrderRepository orderRepository;
   @Mock private OrderItemMapper orderItemMapper;
   @Mock private StockServiceInterface stockService;
+  @Mock private StockReservationServiceInterface stockReservationService;
   @Mock private OrderMapper orderMapper;
   @Mock private StripeService stripeService;
   @Mock private ShippingAddressServiceInterface shippingAddressService;
   @Mock private EmailServiceInterface emailService;
+
+  @Spy
+  private TransactionTemplate transactionTemplate =
+      new TransactionTemplate(mock(PlatformTransactionManager.class));
+
   @InjectMocks private OrderService orderService;
 
   private OrderRequest orderRequest;
@@ -98,12 +110,12 @@ class OrderServiceUnitTest {
       when(paymentIntent.getId()).thenReturn("pi_12345");
       when(paymentIntent.getClientSecret()).thenReturn("secret_12345");
 
-      when(cartItemRepository.findAllById(orderRequest.productIds())).thenReturn(List.of(cartItem));
+      when(cartItemRepository.findAllByIdIn(orderRequest.productIds()))
+          .thenReturn(List.of(cartItem));
       when(shippingAddressService.createShippingAddress(any(ShippingAddressRequest.class)))
           .thenReturn(shippingAddress);
       when(orderItemMapper.fromCartItem(eq(cartItem), any(Order.class))).thenReturn(orderItem);
       when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArgument(0));
-      when(stockService.getCurrentStock(product)).thenReturn(100);
       when(stripeService.createPaymentIntent(any(Order.class), any(BigDecimal.class)))
           .thenReturn(paymentIntent);
       when(orderMapper.toOrderResponse(any(), any(), any(), any()))
@@ -122,6 +134,39 @@ class OrderServiceUnitTest {
       assertEquals("secret_12345", response.clientSecret());
       assertEquals(Set.of(product.getId()), response.order().productsIds());
       assertEquals(shippingAddress.getId(), response.order().shippingAddress());
+      verify(stockReservationService).reserve(any(Order.class));
+      verify(orderRepository).attachPaymentIntent(any(), eq("pi_12345"), any());
+    }
+
+    @Test
+    void should_mark_payment_as_failed_if_payment_intent_creation_fails() throws StripeException {
+      // Arrange
+      List<Order> savedOrders = new ArrayList<>();
+      when(cartItemRepository.findAllByIdIn(orderRequest.productIds()))
+          .thenReturn(List.of(cartItem));
+      when(shippingAddressService.createShippingAddress(any(ShippingAddressRequest.class)))
+          .thenReturn(shippingAddress);
+      when(orderItemMapper.fromCartItem(eq(cartItem), any(Order.class))).thenReturn(orderItem);
+      when(orderRepository.save(any(Order.class)))
+          .thenAnswer(
+              i -> {
+                savedOrders.add(i.getArgument(0));
+                return i.getArgument(0);
+              });
+      when(orderRepository.findById(any())).thenAnswer(i -> Optional.of(savedOrders.get(0)));
+      when(stripeService.createPaymentIntent(any(Order.class), any(BigDecimal.class)))
+          .thenThrow(new PaymentProviderUnavailableException("unavailable"));
+
+      // Act
+      assertThrows(
+          PaymentProviderUnavailableException.class,
+          () -> orderService.initiateOrder(user, orderRequest));
+
+      // Assert
+      ArgumentCaptor<Order> captor = ArgumentCaptor.forClass(Order.class);
+      verify(stockReservationService).release(captor.capture());
+      assertEquals(OrderStatus.PAYMENT_FAILED, captor.getValue().getStatus());
+      verify(orderRepository, never()).attachPaymentIntent(any(), any(), any());
     }
 
     @Test
@@ -139,7 +184,7 @@ class OrderServiceUnitTest {
               .quantity(3)
               .build();
 
-      when(cartItemRepository.findAllById(orderRequest.productIds()))
+      when(cartItemRepository.findAllByIdIn(orderRequest.productIds()))
           .thenReturn(List.of(invalidCartItem));
 
       // Act & Assert
@@ -155,7 +200,7 @@ class OrderServiceUnitTest {
     @Test
     void should_throw_exception_if_cart_item_is_empty() {
       // Arrange
-      when(cartItemRepository.findAllById(orderRequest.productIds()))
+      when(cartItemRepository.findAllByIdIn(orderRequest.productIds()))
           .thenReturn(Collections.emptyList());
 
       // Act & Assert
@@ -171,8 +216,16 @@ class OrderServiceUnitTest {
     void should_throw_exception_if_stock_is_insufficient_during_order_initiation() {
       // Arrange
 
-      when(cartItemRepository.findAllById(orderRequest.productIds())).thenReturn(List.of(cartItem));
-      when(stockService.getCurrentStock(product)).thenReturn(2);
+      when(cartItemRepository.findAllByIdIn(orderRequest.productIds()))
+          .thenReturn(List.of(cartItem));
+      when(shippingAddressService.createShippingAddress(any(ShippingAddressRequest.class)))
+          .thenReturn(shippingAddress);
+      when(orderItemMapper.fromCartItem(eq(cartItem), any(Order.class))).thenReturn(orderItem);
+      doThrow(
+              new InsufficientStockException(
+                  "Insufficient stock for product: " + product.getName()))
+          .when(stockReservationService)
+          .reserve(any(Order.class));
 
       // Act & Assert
       InsufficientStockException exception =
@@ -181,7 +234,7 @@ class OrderServiceUnitTest {
               () -> orderService.initiateOrder(user, orderRequest));
 
       assertEquals("Insufficient stock for product: " + product.getName(), exception.getMessage());
-      verify(orderRepository, never()).save(any(Order.class));
+      verifyNoInteractions(stripeService);
       verify(stockService, never()).createStockMovement(any(), any(), any(), any());
     }
   }
@@ -234,6 +287,7 @@ class OrderServiceUnitTest {
       assertEquals(OrderStatus.CANCELLED, existingOrder.getStatus());
 
       verify(orderRepository).save(existingOrder);
+      verify(stockReservationService).release(existingOrder);
     }
 
     @Test
@@ -412,6 +466,75 @@ class OrderServiceUnitTest {
     }
   }
 
+  @Nested
+  class ConfirmPayment {
+    @Test
+    void should_flag_order_when_its_stock_is_short() {
+      // Arrange
+      UUID orderId = UUID.randomUUID();
+      Order paid =
+          Order.builder()
+              .id(orderId)
+              .user(user)
+              .status(OrderStatus.PENDING)
+              .orderItems(new ArrayList<>(List.of(orderItem)))
+              .build();
+      when(orderRepository.findById(orderId)).thenReturn(Optional.of(paid));
+      when(stockReservationService.commit(paid)).thenReturn(false);
+
+      // Act
+      orderService.confirmPayment(orderId, "pi_1");
+
+      // Assert
+      assertEquals(OrderStatus.PAID, paid.getStatus());
+      assertTrue(paid.isStockShortage());
+    }
+
+    @Test
+    void should_store_payment_intent_id_when_checkout_did_not() {
+      // Arrange
+      UUID orderId = UUID.randomUUID();
+      Order paid =
+          Order.builder()
+              .id(orderId)
+              .user(user)
+              .status(OrderStatus.PENDING)
+              .orderItems(new ArrayList<>(List.of(orderItem)))
+              .build();
+      when(orderRepository.findById(orderId)).thenReturn(Optional.of(paid));
+      when(stockReservationService.commit(paid)).thenReturn(true);
+
+      // Act
+      orderService.confirmPayment(orderId, "pi_1");
+
+      // Assert
+      assertEquals("pi_1", paid.getStripePaymentIntentId());
+      assertEquals(OrderStatus.PAID, paid.getStatus());
+    }
+
+    @Test
+    void should_keep_existing_payment_intent_id() {
+      // Arrange
+      UUID orderId = UUID.randomUUID();
+      Order paid =
+          Order.builder()
+              .id(orderId)
+              .user(user)
+              .status(OrderStatus.PAID)
+              .stripePaymentIntentId("pi_original")
+              .orderItems(new ArrayList<>(List.of(orderItem)))
+              .build();
+      when(orderRepository.findById(orderId)).thenReturn(Optional.of(paid));
+
+      // Act
+      orderService.confirmPayment(orderId, "pi_other");
+
+      // Assert
+      assertEquals("pi_original", paid.getStripePaymentIntentId());
+      verifyNoInteractions(stockReservationService);
+    }
+  }
+
   @Nested
   class MarkPaymentAsFailed {
     @Test
@@ -427,6 +550,23 @@ class OrderServiceUnitTest {
       // Assert
       assertEquals(OrderStatus.PAYMENT_FAILED, newOrder.getStatus());
       verify(orderRepository).save(newOrder);
+      verify(stockReservationService).release(newOrder);
+    }
+
+    @Test
+    void should_not_undo_a_paid_order() {
+      // Arrange
+      UUID orderId = UUID.randomUUID();
+      Order paidOrder = Order.builder().id(orderId).user(user).status(OrderStatus.PAID).build();
+      when(orderRepository.findById(orderId)).thenReturn(Optional.of(paidOrder));
+
+      // Act
+      orderService.markPaymentAsFailed(orderId);
+
+      // Assert
+      assertEquals(OrderStatus.PAID, paidOrder.getStatus());
+      verify(orderRepository, never()).save(any());
+      verify(stockReservationService, never()).release(any());
     }
 
     @Test
@@ -485,6 +625,7 @@ class OrderServiceUnitTest {
       assertEquals(OrderStatus.PENDING, newOrder.getStatus());
       assertEquals("pi_new", newOrder.getStripePaymentIntentId());
       verify(orderRepository).save(newOrder);
+      verify(stockReservationService).reserve(newOrder);
     }
 
     @Test
@@ -6,19 +6,28 @@ import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.*;
+import java.util.function.Supplier;
+import neora.cache.ProductDetailCache;
+import neora.cache.ProductSuggestionIndex;
 import neora.dto.AllProductsResponse;
+import neora.dto.CursorPagedResponse;
+import neora.dto.ProductPrimaryImage;
 import neora.dto.ProductRequest;
 import neora.dto.ProductResponse;
+import neora.dto.ProductSuggestion;
 import neora.entity.Category;
 import neora.entity.Product;
 import neora.entity.ProductImage;
 import neora.entity.Vendor;
+import neora.exception.InvalidCursorException;
 import neora.exception.ResourceNotFoundException;
 import neora.interfaces.CloudinaryServiceInterface;
 import neora.interfaces.RatingServiceInterface;
 import neora.interfaces.StockServiceInterface;
 import neora.mapper.ProductMapper;
+import neora.model.ProductCursor;
 import neora.repository.CategoryRepository;
 import neora.repository.ProductImageRepository;
 import neora.repository.ProductRepository;
@@ -36,6 +45,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -51,6 +61,8 @@ class ProductServiceUnitTest {
   @Mock private ProductImageRepository productImageRepository;
   @Mock private RatingServiceInterface ratingService;
   @Mock private SlugService slugService;
+  @Mock private ProductDetailCache productDetailCache;
+  @Mock private ProductSuggestionIndex productSuggestionIndex;
 
   @InjectMocks private ProductService productService;
 
@@ -102,6 +114,8 @@ class ProductServiceUnitTest {
       assertNotNull(result);
       assertEquals(product.getId(), result.id());
       verify(stockService).createStockMovement(any(), anyInt(), any(), any());
+      verify(productDetailCache).evict(product.getId());
+      verify(productSuggestionIndex).refresh(product.getId());
     }
 
     @Test
@@ -144,6 +158,9 @@ class ProductServiceUnitTest {
           .thenReturn(productPage);
       when(stockService.getStocks(any())).thenReturn(Map.of(product.getId(), 50));
       when(ratingService.getRatings(any())).thenReturn(Map.of(product.getId(), 4.5));
+      when(productImageRepository.getPrimaryImagesForProducts(any()))
+          .thenReturn(
+              List.of(new ProductPrimaryImage(product.getId(), "http://example.com/image.png")));
 
       // Act
       Page<AllProductsResponse> result = productService.getAllProducts(null, null, pageable);
@@ -152,6 +169,7 @@ class ProductServiceUnitTest {
       assertEquals(1, result.getTotalElements());
       assertEquals(50, result.getContent().get(0).stock());
       assertEquals(4.5, result.getContent().get(0).rating());
+      assertEquals("http://example.com/image.png", result.getContent().get(0).primaryImage());
     }
 
     @Test
@@ -174,18 +192,173 @@ class ProductServiceUnitTest {
     }
   }
 
+  @Nested
+  class SearchProducts {
+    @Test
+    void should_rank_full_text_matches_when_no_sort_is_given() {
+      // Arrange
+      Pageable pageable = PageRequest.of(0, 10);
+      when(productRepository.searchRanked(null, "gaming:* & lap:*", "%gaming lap%", pageable))
+          .thenReturn(new PageImpl<>(List.of(product)));
+      when(stockService.getStocks(any())).thenReturn(Map.of());
+      when(ratingService.getRatings(any())).thenReturn(Map.of());
+
+      // Act
+      Page<AllProductsResponse> result =
+          productService.getAllProducts(null, "Gaming Lap", pageable);
+
+      // Assert
+      assertEquals(1, result.getTotalElements());
+      verify(productRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void should_keep_requested_sort_when_given() {
+      // Arrange
+      Pageable pageable = PageRequest.of(0, 10, Sort.by("price"));
+      when(productRepository.findAll(any(Specification.class), eq(pageable)))
+          .thenReturn(new PageImpl<>(List.of(product)));
+      when(stockService.getStocks(any())).thenReturn(Map.of());
+      when(ratingService.getRatings(any())).thenReturn(Map.of());
+
+      // Act
+      productService.getAllProducts(null, "laptop", pageable);
+
+      // Assert
+      verify(productRepository, never()).searchRanked(any(), any(), any(), any());
+    }
+
+    @Test
+    void should_fall_back_to_name_filter_when_search_has_no_words() {
+      // Arrange
+      Pageable pageable = PageRequest.of(0, 10);
+      when(productRepository.findAll(any(Specification.class), eq(pageable)))
+          .thenReturn(Page.empty());
+
+      // Act
+      productService.getAllProducts(null, "%&!", pageable);
+
+      // Assert
+      verify(productRepository, never()).searchRanked(any(), any(), any(), any());
+    }
+  }
+
+  @Nested
+  class GetSuggestions {
+    @Test
+    void should_cap_the_number_of_suggestions() {
+      // Arrange
+      ProductSuggestion suggestion =
+          new ProductSuggestion(
+              product.getId(), "Test Product", "test-product", categoryId, "Tech");
+      when(productSuggestionIndex.suggest("test", categoryId, 20)).thenReturn(List.of(suggestion));
+
+      // Act
+      List<ProductSuggestion> result = productService.getSuggestions("test", categoryId, 500);
+
+      // Assert
+      assertEquals(List.of(suggestion), result);
+      verifyNoInteractions(productRepository);
+    }
+  }
+
+  @Nested
+  class GetAllProductsByCursor {
+    @Test
+    void should_return_next_cursor_when_more_products_exist() {
+      // Arrange
+      Product next = Product.builder().id(UUID.randomUUID()).name("Next").price(200).build();
+      product.setCreatedAt(Instant.parse("2025-01-02T10:00:00Z"));
+      next.setCreatedAt(Instant.parse("2025-01-01T10:00:00Z"));
+
+      when(productRepository.findBy(any(Specification.class), any()))
+          .thenReturn(List.of(product, next));
+      when(stockService.getStocks(any())).thenReturn(Map.of(product.getId(), 50));
+      when(ratingService.getRatings(any())).thenReturn(Map.of());
+
+      // Act
+      CursorPagedResponse<AllProductsResponse> result =
+          productService.getAllProductsByCursor(null, null, "", PageRequest.of(0, 1));
+
+      // Assert
+      assertEquals(1, result.content().size());
+      assertEquals(product.getId(), result.content().get(0).id());
+      assertFalse(result.last());
+      ProductCursor cursor = ProductCursor.decode(result.nextCursor());
+      assertEquals(product.getId(), cursor.lastId());
+      assertEquals("createdAt", cursor.sortProperty());
+      verify(productRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void should_mark_last_page_when_no_more_products_exist() {
+      // Arrange
+      when(productRepository.findBy(any(Specification.class), any())).thenReturn(List.of(product));
+      when(stockService.getStocks(any())).thenReturn(Map.of());
+      when(ratingService.getRatings(any())).thenReturn(Map.of());
+
+      // Act
+      CursorPagedResponse<AllProductsResponse> result =
+          productService.getAllProductsByCursor(
+              null, null, "", PageRequest.of(0, 10, Sort.by("price")));
+
+      // Assert
+      assertEquals(1, result.content().size());
+      assertTrue(result.last());
+      assertNull(result.nextCursor());
+    }
+
+    @Test
+    void should_throw_exception_when_cursor_is_invalid() {
+      // Act & Assert
+      assertThrows(
+          InvalidCursorException.class,
+          () ->
+              productService.getAllProductsByCursor(
+                  null, null, "not-a-cursor", PageRequest.of(0, 10)));
+      verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void should_throw_exception_when_sort_is_not_supported() {
+      // Act & Assert
+      assertThrows(
+          InvalidCursorException.class,
+          () ->
+              productService.getAllProductsByCursor(
+                  null, null, "", PageRequest.of(0, 10, Sort.by("slug"))));
+    }
+
+    @Test
+    void should_throw_exception_when_category_not_found() {
+      // Arrange
+      when(categoryRepository.findById(categoryId)).thenReturn(Optional.empty());
+
+      // Act & Assert
+      assertThrows(
+          ResourceNotFoundException.class,
+          () ->
+              productService.getProductsByCategoryByCursor(categoryId, "", PageRequest.of(0, 10)));
+    }
+  }
+
   @Nested
   class GetProductById {
     @Test
     void should_return_product_when_found() {
       // Arrange
-      UUID productId = UUID.randomUUID();
-      when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+      UUID productId = product.getId();
+      passThroughCache();
+      when(productRepository.findWithDetailsById(productId)).thenReturn(Optional.of(product));
+      when(productRepository.getReferenceById(productId)).thenReturn(product);
       when(stockService.getCurrentStock(product)).thenReturn(20);
 
+      ProductResponse cachedResponse =
+          new ProductResponse(productId, "Test", 100, "Desc", null, List.of(), null);
       ProductResponse mockResponse =
-          new ProductResponse(product.getId(), "Test", 100, "Desc", 20, List.of(), null);
-      when(productMapper.toResponse(product, 20)).thenReturn(mockResponse);
+          new ProductResponse(productId, "Test", 100, "Desc", 20, List.of(), null);
+      when(productMapper.toResponse(product, null)).thenReturn(cachedResponse);
+      when(productMapper.withLiveData(cachedResponse, 20, null)).thenReturn(mockResponse);
 
       // Act
       ProductResponse result = productService.getProductById(productId);
@@ -193,13 +366,34 @@ class ProductServiceUnitTest {
       // Assert
       assertNotNull(result);
       assertEquals(product.getId(), result.id());
+      assertEquals(20, result.stock());
+    }
+
+    @Test
+    void should_serve_catalogue_data_from_cache() {
+      // Arrange
+      UUID productId = product.getId();
+      ProductResponse cachedResponse =
+          new ProductResponse(productId, "Test", 100, "Desc", null, List.of(), null);
+      when(productDetailCache.get(eq(productId), any())).thenReturn(cachedResponse);
+      when(productDetailCache.getStock(eq(productId), any())).thenReturn(7);
+      when(productMapper.withLiveData(cachedResponse, 7, null))
+          .thenReturn(new ProductResponse(productId, "Test", 100, "Desc", 7, List.of(), null));
+
+      // Act
+      ProductResponse result = productService.getProductById(productId);
+
+      // Assert
+      assertEquals(7, result.stock());
+      verifyNoInteractions(productRepository, stockService);
     }
 
     @Test
     void should_throw_exception_when_product_not_found() {
       // Arrange
       UUID productId = UUID.randomUUID();
-      when(productRepository.findById(productId)).thenReturn(Optional.empty());
+      passThroughCache();
+      when(productRepository.findWithDetailsById(productId)).thenReturn(Optional.empty());
 
       // Act & Assert
       assertThrows(ResourceNotFoundException.class, () -> productService.getProductById(productId));
@@ -212,12 +406,18 @@ class ProductServiceUnitTest {
     void should_return_product_when_found_by_slug() {
       // Arrange
       String slug = "test-product";
-      when(productRepository.findBySlug(slug)).thenReturn(Optional.of(product));
+      passThroughCache();
+      when(productRepository.findIdBySlug(slug)).thenReturn(Optional.of(product.getId()));
+      when(productRepository.findWithDetailsById(product.getId())).thenReturn(Optional.of(product));
+      when(productRepository.getReferenceById(product.getId())).thenReturn(product);
       when(stockService.getCurrentStock(product)).thenReturn(20);
 
+      ProductResponse cachedResponse =
+          new ProductResponse(product.getId(), "Test Product", 100, "Desc", null, List.of(), null);
       ProductResponse expectedResponse =
           new ProductResponse(product.getId(), "Test Product", 100, "Desc", 20, List.of(), null);
-      when(productMapper.toResponse(product, 20)).thenReturn(expectedResponse);
+      when(productMapper.toResponse(product, null)).thenReturn(cachedResponse);
+      when(productMapper.withLiveData(cachedResponse, 20, null)).thenReturn(expectedResponse);
 
       // Act
       ProductResponse result = productService.getProductBySlug(slug);
@@ -232,7 +432,8 @@ class ProductServiceUnitTest {
     void should_throw_exception_when_product_not_found() {
       // Arrange
       String slug = "test-product";
-      when(productRepository.findBySlug(slug)).thenReturn(Optional.empty());
+      passThroughCache();
+      when(productRepository.findIdBySlug(slug)).thenReturn(Optional.empty());
 
       // Act & Assert
       assertThrows(ResourceNotFoundException.class, () -> productService.getProductBySlug(slug));
@@ -250,7 +451,8 @@ class ProductServiceUnitTest {
       category.setId(categoryId);
 
       when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(category));
-      when(productRepository.findAllProductsByCategory(category, pageable)).thenReturn(productPage);
+      when(productRepository.findAll(any(Specification.class), eq(pageable)))
+          .thenReturn(productPage);
       when(stockService.getStocks(any())).thenReturn(Map.of(product.getId(), 10));
       when(ratingService.getRatings(any())).thenReturn(Map.of(product.getId(), 4.5));
 
@@ -275,4 +477,16 @@ class ProductServiceUnitTest {
           () -> productService.getProductsByCategory(categoryId, pageable));
     }
   }
+
+  private void passThroughCache() {
+    lenient()
+        .when(productDetailCache.get(any(), any()))
+        .thenAnswer(i -> i.<Supplier<?>>getArgument(1).get());
+    lenient()
+        .when(productDetailCache.resolveSlug(any(), any()))
+        .thenAnswer(i -> i.<Supplier<?>>getArgument(1).get());
+    lenient()
+        .when(productDetailCache.getStock(any(), any()))
+        .thenAnswer(i -> i.<Supplier<?>>getArgument(1).get());
+  }
 }
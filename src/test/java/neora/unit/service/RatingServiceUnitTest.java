@@ -5,11 +5,13 @@ import static org.mockito.Mockito.*;
 
 import java.util.Optional;
 import java.util.UUID;
+import neora.cache.ProductDetailCache;
 import neora.dto.RatingRequest;
 import neora.dto.RatingResponse;
 import neora.entity.Product;
 import neora.entity.ProductRating;
 import neora.entity.User;
+import neora.entity.Vendor;
 import neora.exception.ResourceAlreadyExistsException;
 import neora.exception.ResourceNotFoundException;
 import neora.exception.UnauthorizedAccess;
@@ -36,6 +38,7 @@ class RatingServiceUnitTest {
   @Mock private OrderRepository orderRepository;
   @Mock private PageMapper pageMapper;
   @Mock private RatingMapper ratingMapper;
+  @Mock private ProductDetailCache productDetailCache;
   @InjectMocks private RatingService ratingService;
 
   private User user;
@@ -45,7 +48,12 @@ class RatingServiceUnitTest {
   @BeforeEach
   void setUp() {
     user = User.builder().id(UUID.randomUUID()).email("test@example.com").build();
-    product = Product.builder().id(UUID.randomUUID()).name("Test Product").build();
+    product =
+        Product.builder()
+            .id(UUID.randomUUID())
+            .name("Test Product")
+            .vendor(Vendor.builder().id(UUID.randomUUID()).build())
+            .build();
     ratingRequest = new RatingRequest(product.getId(), 5);
   }
 
@@ -87,6 +95,7 @@ class RatingServiceUnitTest {
       assertEquals(product.getId(), response.productId());
       assertEquals(5, response.ratingStars());
       verify(productRatingRepository).save(any(ProductRating.class));
+      verify(productDetailCache).evictVendorRating(product.getVendor().getId());
     }
 
     @Test
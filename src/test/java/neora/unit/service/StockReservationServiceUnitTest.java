@@ -0,0 +1,231 @@
+package neora.unit.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import neora.cache.ProductDetailCache;
+import neora.entity.Order;
+import neora.entity.OrderItem;
+import neora.entity.Product;
+import neora.entity.StockReservation;
+import neora.exception.InsufficientStockException;
+import neora.interfaces.StockServiceInterface;
+import neora.model.StockReason;
+import neora.model.StockType;
+import neora.repository.StockLevelRepository;
+import neora.repository.StockReservationRepository;
+import neora.service.StockReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationServiceUnitTest {
+
+  @Mock private StockReservationRepository stockReservationRepository;
+  @Mock private StockLevelRepository stockLevelRepository;
+  @Mock private StockServiceInterface stockService;
+  @Mock private ProductDetailCache productDetailCache;
+
+  @InjectMocks private StockReservationService stockReservationService;
+
+  private Product product;
+  private Order order;
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(stockReservationService, "reservationTtl", Duration.ofMinutes(15));
+    product = Product.builder().id(UUID.randomUUID()).name("Laptop").build();
+    order = Order.builder().id(UUID.randomUUID()).orderItems(new ArrayList<>()).build();
+    order
+        .getOrderItems()
+        .add(OrderItem.builder().order(order).product(product).quantity(2).build());
+    order
+        .getOrderItems()
+        .add(OrderItem.builder().order(order).product(product).quantity(1).build());
+  }
+
+  @Nested
+  class Reserve {
+    @Test
+    @SuppressWarnings("unchecked")
+    void should_lock_stock_rows_and_reserve_all_lines_in_one_update() {
+      // Arrange
+      when(stockService.getStocks(List.of(product.getId()))).thenReturn(Map.of(product.getId(), 3));
+      when(stockLevelRepository.reserve(any(UUID[].class), any(Integer[].class))).thenReturn(1);
+      ArgumentCaptor<List<StockReservation>> captor = ArgumentCaptor.forClass(List.class);
+
+      // Act
+      stockReservationService.reserve(order);
+
+      // Assert
+      verify(stockLevelRepository).lockForUpdate(aryEq(new UUID[] {product.getId()}));
+      verify(stockLevelRepository)
+          .reserve(aryEq(new UUID[] {product.getId()}), aryEq(new Integer[] {3}));
+      verify(stockReservationRepository).saveAll(captor.capture());
+      StockReservation reservation = captor.getValue().get(0);
+      assertEquals(1, captor.getValue().size());
+      assertEquals(3, reservation.getQuantity());
+      assertEquals(product, reservation.getProduct());
+      assertTrue(reservation.getExpiresAt().isAfter(Instant.now()));
+      verify(productDetailCache).evictStock(product.getId());
+    }
+
+    @Test
+    void should_throw_exception_if_stock_is_insufficient() {
+      // Arrange
+      when(stockService.getStocks(List.of(product.getId()))).thenReturn(Map.of(product.getId(), 2));
+
+      // Act & Assert
+      InsufficientStockException exception =
+          assertThrows(
+              InsufficientStockException.class, () -> stockReservationService.reserve(order));
+
+      assertEquals("Insufficient stock for product: Laptop", exception.getMessage());
+      verify(stockLevelRepository).lockForUpdate(aryEq(new UUID[] {product.getId()}));
+      verify(stockLevelRepository, never()).reserve(any(), any());
+      verify(stockReservationRepository, never()).saveAll(any());
+    }
+  }
+
+  @Nested
+  class Commit {
+    @Test
+    void should_turn_active_reservations_into_sale_movements() {
+      // Arrange
+      StockReservation reservation =
+          StockReservation.builder().order(order).product(product).quantity(3).build();
+      when(stockReservationRepository.findActiveByOrderIdForUpdate(order.getId()))
+          .thenReturn(List.of(reservation));
+
+      // Act
+      stockReservationService.commit(order);
+
+      // Assert
+      InOrder inOrder = inOrder(stockLevelRepository, stockReservationRepository);
+      inOrder.verify(stockLevelRepository).lockForUpdate(aryEq(new UUID[] {product.getId()}));
+      inOrder.verify(stockReservationRepository).closeActiveByOrderId(order.getId(), "CONSUMED");
+      verify(stockService).createStockMovement(product, 3, StockType.OUT, StockReason.SALE);
+    }
+
+    @Test
+    void should_record_sale_from_order_items_when_reservation_is_gone() {
+      // Arrange
+      when(stockReservationRepository.findActiveByOrderIdForUpdate(order.getId()))
+          .thenReturn(List.of());
+      when(stockService.getStocks(List.of(product.getId()))).thenReturn(Map.of(product.getId(), 3));
+
+      // Act
+      boolean committed = stockReservationService.commit(order);
+
+      // Assert
+      assertTrue(committed);
+      verify(stockLevelRepository).lockForUpdate(aryEq(new UUID[] {product.getId()}));
+      verify(stockReservationRepository, never()).closeActiveByOrderId(any(), any());
+      verify(stockService).createStockMovement(product, 2, StockType.OUT, StockReason.SALE);
+      verify(stockService).createStockMovement(product, 1, StockType.OUT, StockReason.SALE);
+    }
+
+    @Test
+    void should_not_oversell_when_reservation_is_gone_and_stock_is_short() {
+      // Arrange
+      when(stockReservationRepository.findActiveByOrderIdForUpdate(order.getId()))
+          .thenReturn(List.of());
+      when(stockService.getStocks(List.of(product.getId()))).thenReturn(Map.of(product.getId(), 2));
+
+      // Act
+      boolean committed = stockReservationService.commit(order);
+
+      // Assert
+      assertFalse(committed);
+      verify(stockService, never()).createStockMovement(any(), any(), any(), any());
+    }
+  }
+
+  @Nested
+  class Release {
+    @Test
+    void should_lock_stock_rows_before_releasing_active_reservations() {
+      // Arrange
+      StockReservation reservation =
+          StockReservation.builder().order(order).product(product).quantity(3).build();
+      when(stockReservationRepository.findActiveByOrderIdForUpdate(order.getId()))
+          .thenReturn(List.of(reservation));
+
+      // Act
+      stockReservationService.release(order);
+
+      // Assert
+      InOrder inOrder = inOrder(stockLevelRepository, stockReservationRepository);
+      inOrder.verify(stockLevelRepository).lockForUpdate(aryEq(new UUID[] {product.getId()}));
+      inOrder.verify(stockReservationRepository).closeActiveByOrderId(order.getId(), "RELEASED");
+      verify(productDetailCache).evictStock(product.getId());
+    }
+
+    @Test
+    void should_do_nothing_without_active_reservations() {
+      // Arrange
+      when(stockReservationRepository.findActiveByOrderIdForUpdate(order.getId()))
+          .thenReturn(List.of());
+
+      // Act
+      stockReservationService.release(order);
+
+      // Assert
+      verify(stockLevelRepository, never()).lockForUpdate(any());
+      verify(stockReservationRepository, never()).closeActiveByOrderId(any(), any());
+    }
+  }
+
+  @Nested
+  class ReleaseExpired {
+    @Test
+    void should_lock_stock_rows_before_expiring_and_evict_cached_stock() {
+      // Arrange
+      UUID otherProductId = UUID.randomUUID();
+      when(stockReservationRepository.lockOverdueProductIds(any()))
+          .thenReturn(List.of(product.getId(), otherProductId, product.getId()));
+
+      // Act
+      int released = stockReservationService.releaseExpired();
+
+      // Assert
+      assertEquals(2, released);
+      InOrder inOrder = inOrder(stockLevelRepository, stockReservationRepository);
+      inOrder
+          .verify(stockLevelRepository)
+          .lockForUpdate(aryEq(new UUID[] {product.getId(), otherProductId}));
+      inOrder.verify(stockReservationRepository).expireOverdue(any());
+      verify(productDetailCache).evictStock(product.getId());
+      verify(productDetailCache).evictStock(otherProductId);
+    }
+
+    @Test
+    void should_not_touch_stock_rows_when_nothing_is_overdue() {
+      // Arrange
+      when(stockReservationRepository.lockOverdueProductIds(any())).thenReturn(List.of());
+
+      // Act
+      int released = stockReservationService.releaseExpired();
+
+      // Assert
+      assertEquals(0, released);
+      verify(stockLevelRepository, never()).lockForUpdate(any());
+      verify(stockReservationRepository, never()).expireOverdue(any());
+    }
+  }
+}
@@ -6,11 +6,13 @@ import static org.mockito.Mockito.*;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import neora.cache.ProductDetailCache;
 import neora.dto.ProductStock;
 import neora.entity.Product;
 import neora.entity.StockMovement;
 import neora.model.StockReason;
 import neora.model.StockType;
+import neora.repository.StockLevelRepository;
 import neora.repository.StockMovementRepository;
 import neora.service.StockService;
 import org.junit.jupiter.api.BeforeEach;
@@ -26,6 +28,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 class StockServiceUnitTest {
 
   @Mock private StockMovementRepository stockMovementRepository;
+  @Mock private StockLevelRepository stockLevelRepository;
+  @Mock private ProductDetailCache productDetailCache;
 
   @InjectMocks private StockService stockService;
 
@@ -61,6 +65,18 @@ class StockServiceUnitTest {
       assertEquals(quantity, savedMovement.getQuantity());
       assertEquals(type, savedMovement.getType());
       assertEquals(reason, savedMovement.getReason());
+      verify(stockLevelRepository).applyDelta(productId, quantity);
+      verify(productDetailCache).evictStock(productId);
+    }
+
+    @Test
+    void should_apply_negative_delta_for_outgoing_movement() {
+      // Act
+      stockService.createStockMovement(product, 3, StockType.OUT, StockReason.SALE);
+
+      // Assert
+      verify(stockLevelRepository).applyDelta(productId, -3);
+      verify(stockMovementRepository).save(any(StockMovement.class));
     }
   }
 
@@ -69,21 +85,22 @@ class StockServiceUnitTest {
     @Test
     void should_return_zero_when_repository_returns_null() {
       // Arrange
-      when(stockMovementRepository.getStockForProduct(productId)).thenReturn(null);
+      when(stockLevelRepository.getStockForProduct(productId)).thenReturn(null);
 
       // Act
       Integer currentStock = stockService.getCurrentStock(product);
 
       // Assert
       assertEquals(0, currentStock);
-      verify(stockMovementRepository).getStockForProduct(productId);
+      verify(stockLevelRepository).getStockForProduct(productId);
+      verifyNoInteractions(stockMovementRepository);
     }
 
     @Test
     void should_return_quantity_from_repository() {
       // Arrange
       Integer expectedStock = 42;
-      when(stockMovementRepository.getStockForProduct(productId)).thenReturn(expectedStock);
+      when(stockLevelRepository.getStockForProduct(productId)).thenReturn(expectedStock);
 
       // Act
       Integer currentStock = stockService.getCurrentStock(product);
@@ -104,7 +121,7 @@ class StockServiceUnitTest {
       List<ProductStock> mockResults =
           List.of(new ProductStock(productId, 10), new ProductStock(id2, 20));
 
-      when(stockMovementRepository.getStockForProducts(ids)).thenReturn(mockResults);
+      when(stockLevelRepository.getStockForProducts(ids)).thenReturn(mockResults);
 
       // Act
       Map<UUID, Integer> stocks = stockService.getStocks(ids);
@@ -115,4 +132,34 @@ class StockServiceUnitTest {
       assertEquals(20, stocks.get(id2));
     }
   }
+
+  @Nested
+  class ReconcileStock {
+    @Test
+    void should_reset_stock_level_to_movement_total() {
+      // Arrange
+      when(stockMovementRepository.getStockForProduct(productId)).thenReturn(25);
+
+      // Act
+      stockService.reconcileStock(productId);
+
+      // Assert
+      var inOrder = inOrder(stockLevelRepository, stockMovementRepository);
+      inOrder.verify(stockLevelRepository).applyDelta(productId, 0);
+      inOrder.verify(stockMovementRepository).getStockForProduct(productId);
+      inOrder.verify(stockLevelRepository).setQuantity(productId, 25);
+    }
+
+    @Test
+    void should_reset_stock_level_to_zero_when_product_has_no_movements() {
+      // Arrange
+      when(stockMovementRepository.getStockForProduct(productId)).thenReturn(null);
+
+      // Act
+      stockService.reconcileStock(productId);
+
+      // Assert
+      verify(stockLevelRepository).setQuantity(productId, 0);
+    }
+  }
 }
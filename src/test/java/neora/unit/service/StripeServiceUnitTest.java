@@ -0,0 +1,266 @@
+package neora.unit.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.stripe.StripeClient;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.ApiException;
+import com.stripe.exception.CardException;
+import com.stripe.model.PaymentIntent;
+import com.stripe.model.Refund;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import neora.config.PooledStripeHttpClient;
+import neora.config.StripeConfig;
+import neora.entity.Order;
+import neora.exception.PaymentProviderUnavailableException;
+import neora.service.StripeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+// Runs StripeService against a local stub of the Stripe API so that slow and failing responses go
+// through the real HTTP client, timeouts, bulkhead and circuit breaker.
+class StripeServiceUnitTest {
+  private static final String PAYMENT_INTENT =
+      """
+      {"id":"pi_123","object":"payment_intent","client_secret":"pi_123_secret"}
+      """;
+  private static final String API_ERROR =
+      """
+      {"error":{"type":"api_error","message":"Stripe is down"}}
+      """;
+  private static final String CARD_ERROR =
+      """
+      {"error":{"type":"card_error","code":"card_declined","message":"Declined"}}
+      """;
+
+  private final AtomicInteger hits = new AtomicInteger();
+  private final AtomicReference<String> lastBody = new AtomicReference<>();
+  private final AtomicReference<String> lastAuthorization = new AtomicReference<>();
+  private final CountDownLatch release = new CountDownLatch(1);
+  private volatile int status = 200;
+  private volatile String response = PAYMENT_INTENT;
+  private volatile boolean slow;
+
+  private HttpServer server;
+  private ExecutorService serverExecutor;
+  private PooledStripeHttpClient httpClient;
+  private SimpleMeterRegistry meterRegistry;
+  private Order order;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    serverExecutor = Executors.newCachedThreadPool();
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.setExecutor(serverExecutor);
+    server.createContext("/", this::handle);
+    server.start();
+    httpClient = new PooledStripeHttpClient(4, Duration.ofSeconds(1), Duration.ofMinutes(1));
+    meterRegistry = new SimpleMeterRegistry();
+    order = Order.builder().id(UUID.randomUUID()).build();
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    release.countDown();
+    httpClient.close();
+    server.stop(0);
+    serverExecutor.shutdownNow();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    hits.incrementAndGet();
+    lastAuthorization.set(exchange.getRequestHeaders().getFirst("Authorization"));
+    lastBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+    if (slow) {
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream body = exchange.getResponseBody()) {
+      body.write(bytes);
+    }
+  }
+
+  private StripeService stripeService(int maxConcurrentCalls, int failureThreshold) {
+    StripeClient client =
+        new StripeConfig()
+            .stripeClient(
+                httpClient,
+                "sk_test_123",
+                "http://127.0.0.1:" + server.getAddress().getPort(),
+                Duration.ofSeconds(1),
+                Duration.ofMillis(300),
+                0);
+    return new StripeService(
+        client,
+        meterRegistry,
+        maxConcurrentCalls,
+        Duration.ZERO,
+        failureThreshold,
+        Duration.ofMinutes(1));
+  }
+
+  private long recorded(String operation, String outcome) {
+    return meterRegistry
+        .get(StripeService.METRIC_NAME)
+        .tag("operation", operation)
+        .tag("outcome", outcome)
+        .timer()
+        .count();
+  }
+
+  @Nested
+  class CreatePaymentIntent {
+    @Test
+    void should_create_payment_intent_and_record_its_latency() throws Exception {
+      // Arrange
+      StripeService stripeService = stripeService(2, 3);
+
+      // Act
+      PaymentIntent intent = stripeService.createPaymentIntent(order, new BigDecimal("75.00"));
+
+      // Assert
+      assertEquals("pi_123", intent.getId());
+      assertEquals("pi_123_secret", intent.getClientSecret());
+      assertEquals("Bearer sk_test_123", lastAuthorization.get());
+      assertTrue(lastBody.get().contains("amount=7500"));
+      assertTrue(lastBody.get().contains(order.getId().toString()));
+      assertEquals(1, recorded("payment_intent.create", "success"));
+    }
+
+    @Test
+    void should_time_out_when_stripe_is_slow() {
+      // Arrange
+      StripeService stripeService = stripeService(2, 3);
+      slow = true;
+
+      // Act
+      assertThrows(
+          ApiConnectionException.class,
+          () -> stripeService.createPaymentIntent(order, new BigDecimal("75.00")));
+
+      // Assert
+      assertEquals(1, recorded("payment_intent.create", "error"));
+    }
+
+    @Test
+    void should_open_circuit_after_consecutive_failures() {
+      // Arrange
+      StripeService stripeService = stripeService(2, 2);
+      status = 500;
+      response = API_ERROR;
+      for (int i = 0; i < 2; i++) {
+        assertThrows(
+            ApiException.class,
+            () -> stripeService.createPaymentIntent(order, new BigDecimal("75.00")));
+      }
+
+      // Act
+      assertThrows(
+          PaymentProviderUnavailableException.class,
+          () -> stripeService.createPaymentIntent(order, new BigDecimal("75.00")));
+
+      // Assert
+      assertEquals(2, hits.get());
+      assertEquals(
+          1,
+          meterRegistry
+              .get(StripeService.METRIC_NAME + ".rejected")
+              .tag("reason", "circuit_open")
+              .counter()
+              .count());
+    }
+
+    @Test
+    void should_not_open_circuit_on_declined_payments() {
+      // Arrange
+      StripeService stripeService = stripeService(2, 1);
+      status = 402;
+      response = CARD_ERROR;
+      assertThrows(
+          CardException.class,
+          () -> stripeService.createPaymentIntent(order, new BigDecimal("75.00")));
+
+      // Act
+      assertThrows(
+          CardException.class,
+          () -> stripeService.createPaymentIntent(order, new BigDecimal("75.00")));
+
+      // Assert
+      assertEquals(2, hits.get());
+      assertEquals(2, recorded("payment_intent.create", "client_error"));
+    }
+
+    @Test
+    void should_reject_calls_beyond_the_bulkhead() throws Exception {
+      // Arrange
+      StripeService stripeService = stripeService(1, 3);
+      slow = true;
+      CompletableFuture<Void> pending =
+          CompletableFuture.runAsync(
+              () -> {
+                try {
+                  stripeService.createPaymentIntent(order, new BigDecimal("75.00"));
+                } catch (Exception ignored) {
+                  // The blocked call times out once the second one has been rejected.
+                }
+              });
+      while (hits.get() == 0) {
+        Thread.sleep(5);
+      }
+
+      // Act
+      assertThrows(
+          PaymentProviderUnavailableException.class,
+          () -> stripeService.createPaymentIntent(order, new BigDecimal("75.00")));
+
+      // Assert
+      pending.get(5, TimeUnit.SECONDS);
+      assertEquals(1, hits.get());
+    }
+  }
+
+  @Nested
+  class RefundPayment {
+    @Test
+    void should_refund_payment_intent() throws Exception {
+      // Arrange
+      StripeService stripeService = stripeService(2, 3);
+      response =
+          """
+          {"id":"re_123","object":"refund","payment_intent":"pi_123"}
+          """;
+
+      // Act
+      Refund refund = stripeService.refundPayment("pi_123");
+
+      // Assert
+      assertEquals("re_123", refund.getId());
+      assertTrue(lastBody.get().contains("payment_intent=pi_123"));
+      assertEquals(1, recorded("refund.create", "success"));
+    }
+  }
+}
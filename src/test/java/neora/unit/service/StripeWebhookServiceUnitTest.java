@@ -0,0 +1,208 @@
+package neora.unit.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.stripe.net.Webhook;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import neora.entity.StripeWebhookEvent;
+import neora.exception.ResourceNotFoundException;
+import neora.interfaces.OrderServiceInterface;
+import neora.model.WebhookEventStatus;
+import neora.repository.StripeWebhookEventRepository;
+import neora.service.StripeWebhookService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class StripeWebhookServiceUnitTest {
+  private static final String SECRET = "whsec_test";
+
+  @Mock private OrderServiceInterface orderService;
+  @Mock private StripeWebhookEventRepository eventRepository;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private StripeWebhookService webhookService;
+
+  @BeforeEach
+  void setUp() {
+    webhookService =
+        new StripeWebhookService(
+            orderService,
+            eventRepository,
+            new TransactionTemplate(transactionManager),
+            new SimpleMeterRegistry(),
+            SECRET,
+            2,
+            10,
+            Duration.ofMinutes(5),
+            3,
+            Duration.ofSeconds(10),
+            Duration.ofMinutes(1),
+            Duration.ofDays(30));
+  }
+
+  @AfterEach
+  void tearDown() {
+    webhookService.destroy();
+  }
+
+  private static String payload(String eventId, String type, String orderId) {
+    return """
+        {"id":"%s","object":"event","api_version":"2024-06-20","created":1700000000,"type":"%s",
+         "data":{"object":{"id":"pi_1","object":"payment_intent","metadata":{%s}}}}
+        """
+        .formatted(eventId, type, orderId == null ? "" : "\"order_id\":\"" + orderId + "\"");
+  }
+
+  private static String sign(String payload) throws Exception {
+    long timestamp = Webhook.Util.getTimeNow();
+    return "t="
+        + timestamp
+        + ",v1="
+        + Webhook.Util.computeHmacSha256(SECRET, timestamp + "." + payload);
+  }
+
+  private static StripeWebhookEvent event(String type, int attempts) {
+    String eventId = "evt_" + UUID.randomUUID();
+    UUID orderId = UUID.randomUUID();
+    return StripeWebhookEvent.builder()
+        .id(UUID.randomUUID())
+        .eventId(eventId)
+        .type(type)
+        .orderId(orderId)
+        .payload(payload(eventId, type, orderId.toString()))
+        .status(WebhookEventStatus.PENDING)
+        .attempts(attempts)
+        .build();
+  }
+
+  @Nested
+  class HandleWebhook {
+    @Test
+    void should_store_payment_events_for_later_processing() throws Exception {
+      // Arrange
+      UUID orderId = UUID.randomUUID();
+      String payload = payload("evt_1", "payment_intent.succeeded", orderId.toString());
+      when(eventRepository.insertIfAbsent(any(), any(), any(), any(), any(), any(), any(), any()))
+          .thenReturn(1);
+
+      // Act
+      webhookService.handleWebhook(payload, sign(payload));
+
+      // Assert
+      verify(eventRepository)
+          .insertIfAbsent(
+              eq("evt_1"),
+              eq("payment_intent.succeeded"),
+              eq(orderId),
+              eq(payload),
+              eq("PENDING"),
+              eq(Instant.ofEpochSecond(1700000000)),
+              any(),
+              isNull());
+      verifyNoInteractions(orderService);
+    }
+
+    @Test
+    void should_store_events_without_an_order_as_ignored() throws Exception {
+      // Arrange
+      String payload = payload("evt_2", "payment_intent.succeeded", null);
+
+      // Act
+      webhookService.handleWebhook(payload, sign(payload));
+
+      // Assert
+      verify(eventRepository)
+          .insertIfAbsent(
+              eq("evt_2"), any(), isNull(), any(), eq("IGNORED"), any(), any(), notNull());
+    }
+
+    @Test
+    void should_reject_invalid_signature() {
+      // Arrange
+      String payload = payload("evt_3", "payment_intent.succeeded", UUID.randomUUID().toString());
+
+      // Act & Assert
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> webhookService.handleWebhook(payload, "t=1,v1=invalid"));
+      verifyNoInteractions(eventRepository);
+    }
+  }
+
+  @Nested
+  class ProcessPending {
+    @Test
+    void should_apply_events_and_mark_them_processed() {
+      // Arrange
+      StripeWebhookEvent succeeded = event("payment_intent.succeeded", 1);
+      StripeWebhookEvent failed = event("payment_intent.payment_failed", 1);
+      when(eventRepository.claimDue(any(), any(), eq(10))).thenReturn(List.of(succeeded, failed));
+
+      // Act
+      int processed = webhookService.processPending();
+
+      // Assert
+      assertEquals(2, processed);
+      verify(orderService).confirmPayment(succeeded.getOrderId(), "pi_1");
+      verify(orderService).markPaymentAsFailed(failed.getOrderId());
+      verify(eventRepository).markProcessed(eq(succeeded.getId()), any());
+      verify(eventRepository).markProcessed(eq(failed.getId()), any());
+    }
+
+    @Test
+    void should_schedule_a_retry_when_applying_fails() {
+      // Arrange
+      StripeWebhookEvent event = event("payment_intent.succeeded", 1);
+      when(eventRepository.claimDue(any(), any(), eq(10))).thenReturn(List.of(event));
+      doThrow(new ResourceNotFoundException("Order not found"))
+          .when(orderService)
+          .confirmPayment(event.getOrderId(), "pi_1");
+
+      // Act
+      Instant before = Instant.now();
+      int processed = webhookService.processPending();
+
+      // Assert
+      assertEquals(0, processed);
+      verify(eventRepository, never()).markProcessed(any(), any());
+      verify(eventRepository)
+          .markFailed(
+              eq(event.getId()),
+              eq(WebhookEventStatus.PENDING),
+              argThat(next -> !next.isBefore(before.plusSeconds(10))),
+              eq("Order not found"));
+      verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void should_give_up_after_the_last_attempt() {
+      // Arrange
+      StripeWebhookEvent event = event("payment_intent.succeeded", 3);
+      when(eventRepository.claimDue(any(), any(), eq(10))).thenReturn(List.of(event));
+      doThrow(new IllegalStateException("boom"))
+          .when(orderService)
+          .confirmPayment(event.getOrderId(), "pi_1");
+
+      // Act
+      webhookService.processPending();
+
+      // Assert
+      verify(eventRepository)
+          .markFailed(eq(event.getId()), eq(WebhookEventStatus.FAILED), any(), eq("boom"));
+    }
+  }
+}
@@ -52,7 +52,6 @@ class UserServiceUnitTest {
       // Arrange
       when(userRepository.findByEmail(email)).thenReturn(Optional.of(user));
       when(passwordEncoder.matches(dto.currentPassword(), user.getPassword())).thenReturn(true);
-      when(passwordEncoder.matches(dto.newPassword(), user.getPassword())).thenReturn(false);
       when(passwordEncoder.encode(dto.newPassword())).thenReturn("encodedNewPassword");
 
       // Act
@@ -61,7 +60,7 @@ class UserServiceUnitTest {
       // Assert
       verify(userRepository, times(1)).save(user);
       verify(passwordEncoder, times(1)).matches(dto.currentPassword(), oldPassword);
-      verify(passwordEncoder, times(1)).matches(dto.newPassword(), oldPassword);
+      verify(passwordEncoder, never()).matches(dto.newPassword(), oldPassword);
       verify(passwordEncoder, times(1)).encode(dto.newPassword());
       assertEquals("encodedNewPassword", user.getPassword());
     }